@@ -0,0 +1,22 @@
+package com.hydryhydra.kamigami;
+
+import net.minecraft.SharedConstants;
+import net.minecraft.server.Bootstrap;
+
+/**
+ * ベンチマーク用の Minecraft 初期化。 ブロックやアイテムのレジストリを使うベンチマークの @Setup から呼ぶ。
+ */
+public final class BenchmarkBootstrap {
+    private static boolean initialized;
+
+    private BenchmarkBootstrap() {
+    }
+
+    public static synchronized void init() {
+        if (!initialized) {
+            SharedConstants.tryDetectVersion();
+            Bootstrap.bootStrap();
+            initialized = true;
+        }
+    }
+}
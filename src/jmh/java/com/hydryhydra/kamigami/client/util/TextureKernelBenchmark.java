@@ -0,0 +1,92 @@
+package com.hydryhydra.kamigami.client.util;
+
+import java.nio.IntBuffer;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Benchmarks for the per-pixel kernels used by {@link TextureProcessor}. The
+ * kernels run over plain int arrays so no NativeImage or render thread is
+ * needed; one invocation processes a full size x size image. The
+ * {@code *Kernel} variants run through {@link PixelKernels} (ABGR conversion
+ * and fork-join row splitting) for comparison with the plain loops.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TextureKernelBenchmark {
+    @Param({"64", "256"})
+    public int size;
+
+    private int[] source;
+    private int[] dest;
+    private IntBuffer sourceBuffer;
+    private IntBuffer destBuffer;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(1234L);
+        source = new int[size * size];
+        dest = new int[size * size];
+        for (int i = 0; i < source.length; i++) {
+            source[i] = random.nextInt();
+        }
+        sourceBuffer = IntBuffer.wrap(source);
+        destBuffer = IntBuffer.wrap(dest);
+    }
+
+    @Benchmark
+    public int[] desaturate() {
+        for (int i = 0; i < source.length; i++) {
+            dest[i] = TextureProcessor.processPixel(source[i], 0.3F, -40);
+        }
+        return dest;
+    }
+
+    @Benchmark
+    public int[] hueRotate() {
+        for (int i = 0; i < source.length; i++) {
+            dest[i] = TextureProcessor.processPixelRotateHue(source[i], 60.0F);
+        }
+        return dest;
+    }
+
+    @Benchmark
+    public int[] brightnessOnly() {
+        for (int i = 0; i < source.length; i++) {
+            dest[i] = TextureProcessor.processPixelBrightness(source[i], -20);
+        }
+        return dest;
+    }
+
+    @Benchmark
+    public int[] fireTint() {
+        for (int i = 0; i < source.length; i++) {
+            dest[i] = TextureProcessor.processPixelFire(source[i]);
+        }
+        return dest;
+    }
+
+    @Benchmark
+    public int[] desaturateKernel() {
+        PixelKernels.applyNative(sourceBuffer, destBuffer, size, size,
+                pixel -> TextureProcessor.processPixel(pixel, 0.3F, -40));
+        return dest;
+    }
+
+    @Benchmark
+    public int[] hueRotateKernel() {
+        PixelKernels.applyNative(sourceBuffer, destBuffer, size, size,
+                pixel -> TextureProcessor.processPixelRotateHue(pixel, 60.0F));
+        return dest;
+    }
+}
@@ -0,0 +1,65 @@
+package com.hydryhydra.kamigami.curse;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import com.hydryhydra.kamigami.BenchmarkBootstrap;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.util.RandomSource;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.phys.Vec3;
+
+/**
+ * AreaAction.perform のベンチマーク。 StubBlockGetter を読み取り元にした BlockEditBuffer に書き込むため、
+ * ワールドへの適用（apply）は含まない。 1回の呼び出しで size^3 座標を処理する。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class AreaActionBenchmark {
+    private static final long CURSE_SEED = 12345L;
+
+    @Param({"5", "16", "32", "64"})
+    public int size;
+
+    private AreaAction area;
+    private StubBlockGetter world;
+    private BlockPos origin;
+
+    @Setup
+    public void setup() {
+        BenchmarkBootstrap.init();
+        world = new StubBlockGetter();
+        // 範囲全体が地表より下に収まるようにする
+        origin = new BlockPos(0, StubBlockGetter.SURFACE_Y - size, 0);
+
+        ReplaceBlockAction replace = new ReplaceBlockAction(Optional.empty(),
+                Optional.of(List.of(new ReplaceBlockAction.PaletteEntry(Blocks.MUD.defaultBlockState(), 3),
+                        new ReplaceBlockAction.PaletteEntry(Blocks.CLAY.defaultBlockState(), 1),
+                        new ReplaceBlockAction.PaletteEntry(Blocks.MOSS_BLOCK.defaultBlockState(), 1))),
+                0.8F, false);
+        area = new AreaAction(new AreaAction.Box(Vec3.ZERO, new Vec3(size - 1, size - 1, size - 1)),
+                new ChanceAction(0.9F, replace));
+    }
+
+    @Benchmark
+    public int perform() {
+        BlockEditBuffer edits = new BlockEditBuffer(null, world);
+        ActionContext ctx = new ActionContext(null, origin, null, ItemStack.EMPTY, RandomSource.create(0L), CURSE_SEED,
+                edits);
+        area.perform(ctx);
+        return edits.size();
+    }
+}
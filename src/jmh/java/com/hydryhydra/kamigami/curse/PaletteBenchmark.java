@@ -0,0 +1,74 @@
+package com.hydryhydra.kamigami.curse;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import com.hydryhydra.kamigami.BenchmarkBootstrap;
+import com.hydryhydra.kamigami.curse.plan.WeightedPalette;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.util.RandomSource;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.state.BlockState;
+
+/**
+ * パレットからの重み付き選択のベンチマーク。 以前の ReplaceBlockAction が行っていた線形探索と、 WeightedPalette
+ * （エイリアステーブル）を比較する。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PaletteBenchmark {
+    @Param({"2", "8", "32", "64"})
+    public int entries;
+
+    private List<ReplaceBlockAction.PaletteEntry> palette;
+    private WeightedPalette weighted;
+    private ActionContext ctx;
+
+    @Setup
+    public void setup() {
+        BenchmarkBootstrap.init();
+        RandomSource random = RandomSource.create(7L);
+        List<Block> blocks = BuiltInRegistries.BLOCK.stream().limit(entries).toList();
+
+        palette = new ArrayList<>(entries);
+        for (Block block : blocks) {
+            palette.add(new ReplaceBlockAction.PaletteEntry(block.defaultBlockState(), 1 + random.nextInt(10)));
+        }
+        weighted = WeightedPalette.of(palette);
+        ctx = new ActionContext(null, BlockPos.ZERO, null, ItemStack.EMPTY, RandomSource.create(0L), 0L, null);
+    }
+
+    @Benchmark
+    public BlockState linearScan() {
+        // 以前の ReplaceBlockAction#pickFromPalette と同じ処理
+        int totalWeight = palette.stream().mapToInt(ReplaceBlockAction.PaletteEntry::weight).sum();
+        int randomWeight = ctx.random().nextInt(totalWeight);
+        int currentWeight = 0;
+        for (ReplaceBlockAction.PaletteEntry entry : palette) {
+            currentWeight += entry.weight();
+            if (randomWeight < currentWeight) {
+                return entry.state();
+            }
+        }
+        return palette.get(0).state();
+    }
+
+    @Benchmark
+    public BlockState weightedPalette() {
+        return weighted.pick(ctx.random());
+    }
+}
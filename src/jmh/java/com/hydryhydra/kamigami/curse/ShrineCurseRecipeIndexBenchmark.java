@@ -0,0 +1,95 @@
+package com.hydryhydra.kamigami.curse;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import com.hydryhydra.kamigami.BenchmarkBootstrap;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.util.RandomSource;
+import net.minecraft.world.item.Item;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.item.Items;
+import net.minecraft.world.item.crafting.Ingredient;
+
+/**
+ * ShrineCurseRecipes.findRecipe（インデックス検索）のベンチマーク。 比較用に、インデックス導入前の線形探索も測る。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ShrineCurseRecipeIndexBenchmark {
+    @Param({"10", "100", "1000"})
+    public int recipeCount;
+
+    private List<ShrineCurseRecipes.LoadedRecipe> sorted;
+    private ShrineCurseRecipeIndex index;
+    private ItemStack[] queries;
+    private ItemStack miss;
+    private int cursor;
+
+    @Setup
+    public void setup() {
+        BenchmarkBootstrap.init();
+        RandomSource random = RandomSource.create(42L);
+
+        // 空気以外のアイテムを使い、最後の1つは検索ミス用に残しておく
+        List<Item> items = BuiltInRegistries.ITEM.stream().filter(item -> item != Items.AIR).toList();
+        int usable = items.size() - 1;
+
+        sorted = new ArrayList<>(recipeCount);
+        for (int i = 0; i < recipeCount; i++) {
+            Item first = items.get(i % usable);
+            Item second = items.get((i * 7 + 3) % usable);
+            ShrineCurseRecipe recipe = new ShrineCurseRecipe(ShrineCurseRecipe.TriggerType.ON_BREAK,
+                    Optional.of(Ingredient.of(first, second)), true, new SequenceAction(List.of()),
+                    random.nextInt(100));
+            sorted.add(new ShrineCurseRecipes.LoadedRecipe(
+                    ResourceLocation.fromNamespaceAndPath("kamigami", "bench_" + i), recipe));
+        }
+        sorted.sort(Comparator.comparingInt((ShrineCurseRecipes.LoadedRecipe r) -> r.recipe().priority()).reversed());
+        index = new ShrineCurseRecipeIndex(sorted);
+
+        queries = new ItemStack[64];
+        for (int i = 0; i < queries.length; i++) {
+            queries[i] = new ItemStack(items.get(random.nextInt(Math.min(recipeCount, usable))));
+        }
+        miss = new ItemStack(items.get(usable));
+    }
+
+    @Benchmark
+    public Optional<ShrineCurseRecipes.LoadedRecipe> findHit() {
+        ItemStack query = queries[cursor++ & (queries.length - 1)];
+        return index.find(ShrineCurseRecipe.TriggerType.ON_BREAK, query);
+    }
+
+    @Benchmark
+    public Optional<ShrineCurseRecipes.LoadedRecipe> findMiss() {
+        return index.find(ShrineCurseRecipe.TriggerType.ON_BREAK, miss);
+    }
+
+    @Benchmark
+    public Optional<ShrineCurseRecipes.LoadedRecipe> findLinearHit() {
+        ItemStack query = queries[cursor++ & (queries.length - 1)];
+        for (ShrineCurseRecipes.LoadedRecipe loaded : sorted) {
+            if (loaded.recipe().trigger() == ShrineCurseRecipe.TriggerType.ON_BREAK
+                    && loaded.recipe().matches(query)) {
+                return Optional.of(loaded);
+            }
+        }
+        return Optional.empty();
+    }
+}
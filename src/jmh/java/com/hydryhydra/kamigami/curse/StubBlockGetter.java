@@ -0,0 +1,46 @@
+package com.hydryhydra.kamigami.curse;
+
+import javax.annotation.Nullable;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.level.BlockGetter;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.block.entity.BlockEntity;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.material.FluidState;
+
+/**
+ * ベンチマーク用のワールドの代わり。 Y=64 未満は石、それ以上は空気を返す。
+ */
+final class StubBlockGetter implements BlockGetter {
+    static final int SURFACE_Y = 64;
+
+    private final BlockState ground = Blocks.STONE.defaultBlockState();
+    private final BlockState air = Blocks.AIR.defaultBlockState();
+
+    @Nullable
+    @Override
+    public BlockEntity getBlockEntity(BlockPos pos) {
+        return null;
+    }
+
+    @Override
+    public BlockState getBlockState(BlockPos pos) {
+        return pos.getY() < SURFACE_Y ? ground : air;
+    }
+
+    @Override
+    public FluidState getFluidState(BlockPos pos) {
+        return getBlockState(pos).getFluidState();
+    }
+
+    @Override
+    public int getHeight() {
+        return 384;
+    }
+
+    @Override
+    public int getMinY() {
+        return -64;
+    }
+}
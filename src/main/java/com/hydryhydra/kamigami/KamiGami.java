@@ -16,7 +16,9 @@ import com.hydryhydra.kamigami.item.CharmOfFertilityItem;
 import com.hydryhydra.kamigami.item.CharmOfFireDeityItem;
 import com.hydryhydra.kamigami.item.CharmOfSwampDeityItem;
 import com.hydryhydra.kamigami.item.ShikigamiSummonItem;
+import com.hydryhydra.kamigami.curse.CurseActions;
 import com.hydryhydra.kamigami.curse.ShrineCurseRecipe;
+import com.hydryhydra.kamigami.curse.ShrineCurseRecipeCache;
 import com.hydryhydra.kamigami.curse.ShrineCurseRecipes;
 import com.mojang.logging.LogUtils;
 import com.mojang.serialization.MapCodec;
@@ -43,6 +45,7 @@ import net.neoforged.bus.api.IEventBus;
 import net.neoforged.bus.api.SubscribeEvent;
 import net.neoforged.fml.common.Mod;
 import net.neoforged.fml.ModContainer;
+import net.neoforged.fml.config.ModConfig;
 import net.neoforged.fml.event.lifecycle.FMLCommonSetupEvent;
 import net.neoforged.neoforge.common.NeoForge;
 import net.neoforged.neoforge.event.entity.EntityAttributeCreationEvent;
@@ -193,9 +196,12 @@ public class KamiGami {
     // Register Shrine Curse Recipe Serializer
     public static final DeferredHolder<RecipeSerializer<?>, RecipeSerializer<ShrineCurseRecipe>> SHRINE_CURSE_RECIPE_SERIALIZER = RECIPE_SERIALIZERS
             .register("shrine_curse", () -> new RecipeSerializer<ShrineCurseRecipe>() {
+                // JSON からのデコード結果はディスクにキャッシュする
+                private final MapCodec<ShrineCurseRecipe> codec = ShrineCurseRecipeCache.wrap(ShrineCurseRecipe.CODEC);
+
                 @Override
                 public MapCodec<ShrineCurseRecipe> codec() {
-                    return ShrineCurseRecipe.CODEC;
+                    return codec;
                 }
 
                 @Override
@@ -246,10 +252,17 @@ public class KamiGami {
         // Register the Deferred Register to the mod event bus so recipe serializers
         // get registered
         RECIPE_SERIALIZERS.register(modEventBus);
+        // Register the curse action type registry and its built-in action types
+        CurseActions.register(modEventBus);
 
         // Register entity attributes
         modEventBus.addListener(this::registerEntityAttributes);
 
+        // Register the configs (per-world serverconfig/kamigami-server.toml, plus common and client files)
+        modContainer.registerConfig(ModConfig.Type.SERVER, KamiGamiConfig.SPEC);
+        modContainer.registerConfig(ModConfig.Type.COMMON, KamiGamiConfig.COMMON_SPEC);
+        modContainer.registerConfig(ModConfig.Type.CLIENT, KamiGamiConfig.CLIENT_SPEC);
+
         // Register ourselves for server and other game events we are interested in.
         NeoForge.EVENT_BUS.register(this);
     }
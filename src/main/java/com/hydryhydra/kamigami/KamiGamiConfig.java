@@ -0,0 +1,121 @@
+package com.hydryhydra.kamigami;
+
+import net.neoforged.neoforge.common.ModConfigSpec;
+
+/**
+ * KamiGami の設定
+ *
+ * - SPEC: サーバー設定（ワールドごとの serverconfig/kamigami-server.toml） - COMMON_SPEC: 共通設定
+ * （config/kamigami-common.toml。クライアントでも使うログ設定など） - CLIENT_SPEC: クライアント設定
+ * （config/kamigami-client.toml。テクスチャ生成など）
+ */
+public class KamiGamiConfig {
+    private static final ModConfigSpec.Builder BUILDER = new ModConfigSpec.Builder();
+
+    // ========================================
+    // 祟りの分割実行
+    // ========================================
+
+    static {
+        BUILDER.comment("Shrine curse execution").push("curse");
+    }
+
+    public static final ModConfigSpec.IntValue CURSE_JOB_THRESHOLD = BUILDER.comment(
+            "Curses whose largest area has more positions than this are run as a resumable job over several ticks.",
+            "Set to 0 to always run curses as jobs.").defineInRange("jobThreshold", 4096, 0, Integer.MAX_VALUE);
+
+    public static final ModConfigSpec.IntValue CURSE_JOB_BLOCKS_PER_TICK = BUILDER
+            .comment("Maximum number of positions processed by curse jobs per level per tick.")
+            .defineInRange("jobBlocksPerTick", 2048, 1, Integer.MAX_VALUE);
+
+    public static final ModConfigSpec.IntValue CURSE_JOB_MICROS_PER_TICK = BUILDER.comment(
+            "Maximum time in microseconds spent on curse jobs per level per tick. Set to 0 to only use the block budget.")
+            .defineInRange("jobMicrosPerTick", 5000, 0, 50_000);
+
+    public static final ModConfigSpec.IntValue CURSE_PARALLEL_THRESHOLD = BUILDER.comment(
+            "Areas that process at least this many positions at once decide their block changes on worker threads",
+            "from a snapshot of the affected chunk sections, then apply them on the server thread.",
+            "Set to 0 to always decide on the server thread.")
+            .defineInRange("parallelThreshold", 1024, 0, Integer.MAX_VALUE);
+
+    static {
+        BUILDER.pop();
+    }
+
+    public static final ModConfigSpec SPEC = BUILDER.build();
+
+    private static final ModConfigSpec.Builder COMMON_BUILDER = new ModConfigSpec.Builder();
+
+    // ========================================
+    // 診断ログ（KamiGamiDiagnostics）
+    // ========================================
+
+    static {
+        COMMON_BUILDER.comment("Diagnostic event logging. All categories are off by default.").push("diagnostics");
+    }
+
+    public static final ModConfigSpec.BooleanValue DIAGNOSTICS_ENTITY = COMMON_BUILDER
+            .comment("Log tatari slime lifecycle events (size changes, save/load, splitting).")
+            .define("entity", false);
+
+    public static final ModConfigSpec.BooleanValue DIAGNOSTICS_RENDER = COMMON_BUILDER
+            .comment("Log client-side entity sync and render state events.").define("render", false);
+
+    public static final ModConfigSpec.BooleanValue DIAGNOSTICS_CURSE = COMMON_BUILDER
+            .comment("Log curse execution events (entity spawns, curse jobs).").define("curse", false);
+
+    public static final ModConfigSpec.BooleanValue DIAGNOSTICS_SHRINE = COMMON_BUILDER
+            .comment("Log shrine effect events (fertility, Fire Deity smelting).").define("shrine", false);
+
+    public static final ModConfigSpec.IntValue DIAGNOSTICS_MAX_EVENTS_PER_SECOND = COMMON_BUILDER
+            .comment("Maximum number of events logged per category per second. Extra events are counted and summarized.")
+            .defineInRange("maxEventsPerSecond", 20, 1, 10_000);
+
+    public static final ModConfigSpec.IntValue DIAGNOSTICS_SAMPLE_EVERY = COMMON_BUILDER
+            .comment("Only log one in every N events per category. Set to 1 to log every event.")
+            .defineInRange("sampleEvery", 1, 1, 1_000_000);
+
+    static {
+        COMMON_BUILDER.pop();
+    }
+
+    // ========================================
+    // レシピのロード（ShrineCurseRecipeCache）
+    // ========================================
+
+    static {
+        COMMON_BUILDER.comment("Datapack recipe loading").push("recipes");
+    }
+
+    public static final ModConfigSpec.BooleanValue RECIPE_DISK_CACHE = COMMON_BUILDER.comment(
+            "Store decoded shrine curse recipes under <game dir>/kamigami/recipe_cache and reuse them on later loads.",
+            "Entries are invalidated automatically when the recipe JSON or the mod list changes.")
+            .define("diskCache", true);
+
+    static {
+        COMMON_BUILDER.pop();
+    }
+
+    public static final ModConfigSpec COMMON_SPEC = COMMON_BUILDER.build();
+
+    private static final ModConfigSpec.Builder CLIENT_BUILDER = new ModConfigSpec.Builder();
+
+    // ========================================
+    // 動的テクスチャ（TextureProcessor）
+    // ========================================
+
+    static {
+        CLIENT_BUILDER.comment("Generated entity textures").push("textures");
+    }
+
+    public static final ModConfigSpec.BooleanValue TEXTURE_DISK_CACHE = CLIENT_BUILDER.comment(
+            "Store generated textures under <game dir>/kamigami/texture_cache and reuse them on later launches.",
+            "Entries are invalidated automatically when the source textures or resource packs change.")
+            .define("diskCache", true);
+
+    static {
+        CLIENT_BUILDER.pop();
+    }
+
+    public static final ModConfigSpec CLIENT_SPEC = CLIENT_BUILDER.build();
+}
@@ -0,0 +1,135 @@
+package com.hydryhydra.kamigami;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Marker;
+import org.slf4j.MarkerFactory;
+
+import net.neoforged.bus.api.SubscribeEvent;
+import net.neoforged.fml.common.EventBusSubscriber;
+import net.neoforged.fml.event.config.ModConfigEvent;
+
+/**
+ * KamiGami の診断ログチャンネル。
+ *
+ * ホットパス（エンティティの保存・読み込み、サイズ変更、描画など）のログはここを通して KamiGami.LOGGER に出力する。 カテゴリ
+ * ごとに設定で有効化でき（デフォルトは無効）、無効な間は isEnabled の配列読み取り1回で済む。 有効な場合も以下で出力量を抑える。
+ *
+ * - サンプリング: sampleEvery 件に1件だけ出力する - レート制限: カテゴリごとに1秒あたり maxEventsPerSecond 件まで出力し、
+ * 超過分は件数だけ次の秒にまとめて出力する - 出力にはカテゴリごとの Marker を付ける（ログ設定で振り分け可能）
+ *
+ * 引数の計算自体が重い呼び出し元では、isEnabled で囲んでから log を呼ぶこと。
+ */
+@EventBusSubscriber(modid = KamiGami.MODID)
+public final class KamiGamiDiagnostics {
+    private static final long WINDOW_NANOS = 1_000_000_000L;
+
+    /**
+     * 診断ログのカテゴリ
+     */
+    public enum Category {
+        /** 祟りスライムのライフサイクル（サイズ変更、保存・読み込み、分裂） */
+        ENTITY("entity"),
+        /** クライアント側の同期・描画 */
+        RENDER("render"),
+        /** 祟りの実行（エンティティのスポーン、ジョブ） */
+        CURSE("curse"),
+        /** 祠の効果（豊穣、火の神の精錬） */
+        SHRINE("shrine");
+
+        private final String id;
+        private final String prefix;
+        private final Marker marker;
+        // レート制限の状態
+        private final AtomicLong seen = new AtomicLong();
+        private final AtomicInteger windowCount = new AtomicInteger();
+        private final AtomicLong suppressed = new AtomicLong();
+        private volatile long windowStart = System.nanoTime();
+
+        Category(String id) {
+            this.id = id;
+            this.prefix = "[" + id + "] ";
+            this.marker = MarkerFactory.getMarker("KAMIGAMI_" + name());
+        }
+
+        public String id() {
+            return id;
+        }
+    }
+
+    // 設定のキャッシュ（ModConfigEvent で更新する。 ロード前はすべて無効）
+    private static final boolean[] ENABLED = new boolean[Category.values().length];
+    private static volatile int maxEventsPerSecond = 20;
+    private static volatile int sampleEvery = 1;
+
+    private KamiGamiDiagnostics() {
+    }
+
+    public static boolean isEnabled(Category category) {
+        return ENABLED[category.ordinal()];
+    }
+
+    /**
+     * 診断イベントを出力する（カテゴリが無効、サンプリング対象外、またはレート超過の場合は出力しない）。
+     *
+     * @param category
+     *            カテゴリ
+     * @param message
+     *            SLF4J 形式のメッセージ
+     * @param args
+     *            メッセージの引数
+     */
+    public static void log(Category category, String message, Object... args) {
+        if (!isEnabled(category)) {
+            return;
+        }
+        int sample = sampleEvery;
+        if (sample > 1 && category.seen.getAndIncrement() % sample != 0) {
+            return;
+        }
+
+        long now = System.nanoTime();
+        if (now - category.windowStart >= WINDOW_NANOS) {
+            synchronized (category) {
+                if (now - category.windowStart >= WINDOW_NANOS) {
+                    category.windowStart = now;
+                    category.windowCount.set(0);
+                    long dropped = category.suppressed.getAndSet(0);
+                    if (dropped > 0) {
+                        KamiGami.LOGGER.info(category.marker, "[{}] {} events suppressed by rate limit", category.id,
+                                dropped);
+                    }
+                }
+            }
+        }
+        if (category.windowCount.incrementAndGet() > maxEventsPerSecond) {
+            category.suppressed.incrementAndGet();
+            return;
+        }
+
+        KamiGami.LOGGER.info(category.marker, category.prefix + message, args);
+    }
+
+    @SubscribeEvent
+    public static void onConfigLoad(ModConfigEvent.Loading event) {
+        refresh(event);
+    }
+
+    @SubscribeEvent
+    public static void onConfigReload(ModConfigEvent.Reloading event) {
+        refresh(event);
+    }
+
+    private static void refresh(ModConfigEvent event) {
+        if (event.getConfig().getSpec() != KamiGamiConfig.COMMON_SPEC) {
+            return;
+        }
+        ENABLED[Category.ENTITY.ordinal()] = KamiGamiConfig.DIAGNOSTICS_ENTITY.get();
+        ENABLED[Category.RENDER.ordinal()] = KamiGamiConfig.DIAGNOSTICS_RENDER.get();
+        ENABLED[Category.CURSE.ordinal()] = KamiGamiConfig.DIAGNOSTICS_CURSE.get();
+        ENABLED[Category.SHRINE.ordinal()] = KamiGamiConfig.DIAGNOSTICS_SHRINE.get();
+        maxEventsPerSecond = KamiGamiConfig.DIAGNOSTICS_MAX_EVENTS_PER_SECOND.get();
+        sampleEvery = KamiGamiConfig.DIAGNOSTICS_SAMPLE_EVERY.get();
+    }
+}
@@ -2,14 +2,12 @@ package com.hydryhydra.kamigami.block;
 
 import com.hydryhydra.kamigami.KamiGami;
 import com.hydryhydra.kamigami.block.entity.ShrineBlockEntity;
-import com.hydryhydra.kamigami.curse.ActionContext;
 import com.hydryhydra.kamigami.curse.ShrineCurseRecipe;
 import com.hydryhydra.kamigami.curse.ShrineCurseRecipes;
 import com.mojang.serialization.MapCodec;
 import net.minecraft.core.BlockPos;
 import net.minecraft.core.Direction;
 import net.minecraft.server.level.ServerLevel;
-import net.minecraft.util.RandomSource;
 import net.minecraft.world.Containers;
 import net.minecraft.world.InteractionHand;
 import net.minecraft.world.InteractionResult;
@@ -60,11 +58,8 @@ public class ShrineBlock extends BaseEntityBlock {
     @Override
     public <T extends BlockEntity> BlockEntityTicker<T> getTicker(Level level, BlockState state,
             BlockEntityType<T> blockEntityType) {
-        // サーバー側でのみTickを実行
-        return level.isClientSide()
-                ? null
-                : createTickerHelper(blockEntityType, KamiGami.SHRINE_BLOCK_ENTITY.get(),
-                        ShrineBlockEntity::serverTick);
+        // 祠の tick は ShrineScheduler がまとめて行うため、個別の Ticker は持たない
+        return null;
     }
 
     @Override
@@ -116,7 +111,7 @@ public class ShrineBlock extends BaseEntityBlock {
             if (!level.isClientSide()) {
                 ItemStack toStore = stack.copy();
                 toStore.setCount(1);
-                shrineEntity.setStoredItem(toStore);
+                shrineEntity.insertItem(toStore, player);
                 if (!player.isCreative()) {
                     stack.shrink(1);
                 }
@@ -194,41 +189,10 @@ public class ShrineBlock extends BaseEntityBlock {
                 if (willCurse && level instanceof ServerLevel serverLevel) {
                     KamiGami.LOGGER.info("Shrine destroyed without Silk Touch at {} - executing curse recipe: {}", pos,
                             recipeOpt.get().id());
-                    executeRecipe(serverLevel, pos, player, storedItem, recipeOpt.get());
+                    recipeOpt.get().execute(serverLevel, pos, player, storedItem);
                 }
             }
         }
         return super.playerWillDestroy(level, pos, state, player);
     }
-
-    /**
-     * レシピシステムを使って祟りを実行する。
-     *
-     * @param level
-     *            サーバーレベル
-     * @param pos
-     *            祠の座標
-     * @param player
-     *            破壊したプレイヤー
-     * @param storedItem
-     *            祠に格納されていたアイテム
-     * @param loadedRecipe
-     *            実行するレシピ
-     */
-    private void executeRecipe(ServerLevel level, BlockPos pos, Player player, ItemStack storedItem,
-            ShrineCurseRecipes.LoadedRecipe loadedRecipe) {
-        var recipe = loadedRecipe.recipe();
-        KamiGami.LOGGER.info("Executing shrine curse recipe: {}", loadedRecipe.id());
-
-        // ActionContextを作成
-        RandomSource random = level.getRandom();
-        ActionContext ctx = new ActionContext(level, pos, player, storedItem, random);
-
-        // レシピのアクションを実行
-        boolean success = recipe.actions().perform(ctx);
-        if (!success) {
-            KamiGami.LOGGER.warn("Recipe execution returned false: {}", loadedRecipe.id());
-        }
-    }
-
 }
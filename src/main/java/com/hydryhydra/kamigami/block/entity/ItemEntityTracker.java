@@ -0,0 +1,166 @@
+package com.hydryhydra.kamigami.block.entity;
+
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import com.hydryhydra.kamigami.KamiGami;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Reference2LongOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ReferenceOpenHashSet;
+
+import net.minecraft.core.SectionPos;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.util.Mth;
+import net.minecraft.world.entity.item.ItemEntity;
+import net.minecraft.world.phys.AABB;
+import net.neoforged.bus.api.EventPriority;
+import net.neoforged.bus.api.SubscribeEvent;
+import net.neoforged.fml.common.EventBusSubscriber;
+import net.neoforged.neoforge.event.entity.EntityEvent;
+import net.neoforged.neoforge.event.entity.EntityJoinLevelEvent;
+import net.neoforged.neoforge.event.entity.EntityLeaveLevelEvent;
+import net.neoforged.neoforge.event.level.LevelEvent;
+
+/**
+ * レベルごとのアイテムエンティティの位置索引。
+ *
+ * ItemEntity の追加・削除・チャンクセクション間の移動イベントを監視し、セクション単位で保持する。 火の神の祠はエンティティ検索
+ * （getEntitiesOfClass）の代わりにこれを引くことで、範囲内にアイテムがない間は何もせずに済む。 サーバースレッドからのみ使う。
+ */
+@EventBusSubscriber(modid = KamiGami.MODID)
+public final class ItemEntityTracker {
+    private static final Map<ServerLevel, ItemEntityTracker> TRACKERS = new IdentityHashMap<>();
+
+    // SectionPos#asLong -> そのセクションにいるアイテム
+    private final Long2ObjectOpenHashMap<ReferenceOpenHashSet<ItemEntity>> bySection = new Long2ObjectOpenHashMap<>();
+    // アイテム -> 登録したセクション（移動・削除時に元のセクションから確実に外すため）
+    private final Reference2LongOpenHashMap<ItemEntity> sectionOf = new Reference2LongOpenHashMap<>();
+
+    private ItemEntityTracker() {
+    }
+
+    /**
+     * 指定されたレベルのトラッカーを取得する（存在しない場合は作成する）。
+     */
+    public static ItemEntityTracker get(ServerLevel level) {
+        return TRACKERS.computeIfAbsent(level, l -> new ItemEntityTracker());
+    }
+
+    /**
+     * 範囲に掛かっているアイテムがあるかを返す。
+     */
+    public boolean hasItemsIn(AABB area) {
+        return collect(area, null);
+    }
+
+    /**
+     * 範囲に掛かっているアイテムを out に追加する。
+     *
+     * @return 1つ以上見つかった場合は true
+     */
+    public boolean getItemsIn(AABB area, List<ItemEntity> out) {
+        return collect(area, out);
+    }
+
+    private boolean collect(AABB area, List<ItemEntity> out) {
+        if (bySection.isEmpty()) {
+            return false;
+        }
+
+        // アイテムの当たり判定はセクション境界をまたぎ得るため、1ブロック広げてセクションを列挙する
+        int minX = SectionPos.blockToSectionCoord(Mth.floor(area.minX) - 1);
+        int minY = SectionPos.blockToSectionCoord(Mth.floor(area.minY) - 1);
+        int minZ = SectionPos.blockToSectionCoord(Mth.floor(area.minZ) - 1);
+        int maxX = SectionPos.blockToSectionCoord(Mth.floor(area.maxX) + 1);
+        int maxY = SectionPos.blockToSectionCoord(Mth.floor(area.maxY) + 1);
+        int maxZ = SectionPos.blockToSectionCoord(Mth.floor(area.maxZ) + 1);
+
+        boolean found = false;
+        for (int sx = minX; sx <= maxX; sx++) {
+            for (int sy = minY; sy <= maxY; sy++) {
+                for (int sz = minZ; sz <= maxZ; sz++) {
+                    long section = SectionPos.asLong(sx, sy, sz);
+                    ReferenceOpenHashSet<ItemEntity> items = bySection.get(section);
+                    if (items == null) {
+                        continue;
+                    }
+                    for (Iterator<ItemEntity> it = items.iterator(); it.hasNext();) {
+                        ItemEntity item = it.next();
+                        if (item.isRemoved()) {
+                            // 参加イベントの後で追加に失敗したアイテムは離脱イベントが来ないため、ここで外す
+                            it.remove();
+                            sectionOf.removeLong(item);
+                            continue;
+                        }
+                        if (area.intersects(item.getBoundingBox())) {
+                            if (out == null) {
+                                return true;
+                            }
+                            out.add(item);
+                            found = true;
+                        }
+                    }
+                    if (items.isEmpty()) {
+                        bySection.remove(section);
+                    }
+                }
+            }
+        }
+        return found;
+    }
+
+    private void add(ItemEntity item, long section) {
+        remove(item);
+        sectionOf.put(item, section);
+        bySection.computeIfAbsent(section, k -> new ReferenceOpenHashSet<>()).add(item);
+    }
+
+    private void remove(ItemEntity item) {
+        if (!sectionOf.containsKey(item)) {
+            return;
+        }
+        long section = sectionOf.removeLong(item);
+        ReferenceOpenHashSet<ItemEntity> items = bySection.get(section);
+        if (items != null && items.remove(item) && items.isEmpty()) {
+            bySection.remove(section);
+        }
+    }
+
+    // 他のリスナーにキャンセルされた追加を登録しないよう、最後に受け取る
+    @SubscribeEvent(priority = EventPriority.LOWEST)
+    public static void onEntityJoin(EntityJoinLevelEvent event) {
+        if (event.getEntity() instanceof ItemEntity item && event.getLevel() instanceof ServerLevel serverLevel) {
+            get(serverLevel).add(item, SectionPos.of(item).asLong());
+        }
+    }
+
+    @SubscribeEvent
+    public static void onEntityLeave(EntityLeaveLevelEvent event) {
+        if (event.getEntity() instanceof ItemEntity item && event.getLevel() instanceof ServerLevel serverLevel) {
+            ItemEntityTracker tracker = TRACKERS.get(serverLevel);
+            if (tracker != null) {
+                tracker.remove(item);
+            }
+        }
+    }
+
+    @SubscribeEvent
+    public static void onEnteringSection(EntityEvent.EnteringSection event) {
+        if (event.getEntity() instanceof ItemEntity item && item.level() instanceof ServerLevel serverLevel) {
+            ItemEntityTracker tracker = TRACKERS.get(serverLevel);
+            if (tracker != null && tracker.sectionOf.containsKey(item)) {
+                tracker.add(item, event.getNewPos());
+            }
+        }
+    }
+
+    @SubscribeEvent
+    public static void onLevelUnload(LevelEvent.Unload event) {
+        if (event.getLevel() instanceof ServerLevel serverLevel) {
+            TRACKERS.remove(serverLevel);
+        }
+    }
+}
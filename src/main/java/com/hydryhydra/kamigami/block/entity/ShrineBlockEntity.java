@@ -1,6 +1,12 @@
 package com.hydryhydra.kamigami.block.entity;
 
+import java.util.UUID;
+
+import javax.annotation.Nullable;
+
 import com.hydryhydra.kamigami.KamiGami;
+import com.hydryhydra.kamigami.KamiGamiDiagnostics;
+import com.hydryhydra.kamigami.KamiGamiDiagnostics.Category;
 import com.mojang.serialization.DataResult;
 
 import net.minecraft.core.BlockPos;
@@ -12,8 +18,8 @@ import net.minecraft.nbt.Tag;
 import net.minecraft.network.protocol.game.ClientboundBlockEntityDataPacket;
 import net.minecraft.server.level.ServerLevel;
 import net.minecraft.util.RandomSource;
+import net.minecraft.world.entity.player.Player;
 import net.minecraft.world.item.ItemStack;
-import net.minecraft.world.level.Level;
 import net.minecraft.world.level.block.Blocks;
 import net.minecraft.world.level.block.entity.BlockEntity;
 import net.minecraft.world.level.block.state.BlockState;
@@ -22,10 +28,20 @@ import net.minecraft.world.level.storage.ValueOutput;
 
 public class ShrineBlockEntity extends BlockEntity {
     private ItemStack storedItem = ItemStack.EMPTY;
-    private int tickCounter = 0;
-
-    // Fire Deity cooking state
-    private int targetEntityId = -1;
+    // 周期効果と on_tick の祟りの次回の実行予定（ShrineScheduler が管理する。 予定がない場合は null）
+    @Nullable
+    ShrineScheduler.Timer periodicTimer;
+    @Nullable
+    ShrineScheduler.Timer curseTimer;
+    // 最後にアイテムを挿入したプレイヤー（on_insert のレシピに渡す。 保存はしない）
+    @Nullable
+    private UUID lastInserter;
+
+    // Fire Deity cooking state（ターゲットは有効な間 tick をまたいで保持する）
+    @Nullable
+    private net.minecraft.world.entity.item.ItemEntity targetItem;
+    @Nullable
+    private net.minecraft.world.item.crafting.RecipeHolder<net.minecraft.world.item.crafting.SmeltingRecipe> targetRecipe;
     private int cookingProgress = 0;
     private int cookingTotalTime = 0;
     // きのこ成長の間隔（200tick = 10秒）
@@ -38,53 +54,96 @@ public class ShrineBlockEntity extends BlockEntity {
     }
 
     /**
-     * サーバー側のTick処理 御神体がセットされている場合、その効果を発動する
+     * 効果のある御神体がセットされているかを返す。 ShrineScheduler はこれが true の祠だけを毎 tick 処理する。
      */
-    public static void serverTick(Level level, BlockPos pos, BlockState state, ShrineBlockEntity blockEntity) {
-        if (level.isClientSide()) {
-            return;
+    public boolean hasActiveCharm() {
+        return storedItem.is(KamiGami.CHARM_OF_SWAMP_DEITY.get()) || storedItem.is(KamiGami.CHARM_OF_FERTILITY.get())
+                || storedItem.is(KamiGami.CHARM_OF_FIRE_DEITY.get());
+    }
+
+    /**
+     * 周期効果の間隔を返す（周期効果がない場合は 0）
+     */
+    int getPeriodicEffectInterval() {
+        if (storedItem.is(KamiGami.CHARM_OF_SWAMP_DEITY.get())) {
+            return MUSHROOM_GROW_INTERVAL;
+        }
+        if (storedItem.is(KamiGami.CHARM_OF_FERTILITY.get())) {
+            return FERTILITY_INTERVAL;
         }
+        return 0;
+    }
 
-        blockEntity.tickCounter++;
+    /**
+     * 周期効果を発動する（ShrineScheduler から間隔ごとに呼ばれる）
+     */
+    void runPeriodicEffect(ServerLevel level) {
+        // 沼の神の御神体: きのこ成長効果
+        if (storedItem.is(KamiGami.CHARM_OF_SWAMP_DEITY.get())) {
+            growMushroomsAroundShrine(level, worldPosition);
+        }
 
-        // 御神体の効果をチェック
-        ItemStack storedItem = blockEntity.getStoredItem();
-        if (storedItem.isEmpty()) {
-            return;
+        // 豊穣の御神体: 豊穣効果（骨粉効果 + 土→草変換）
+        if (storedItem.is(KamiGami.CHARM_OF_FERTILITY.get())) {
+            applyFertilityEffectAroundShrine(level, worldPosition);
         }
+    }
+
+    /**
+     * 毎tickの処理（ShrineScheduler から御神体がセットされている間だけ呼ばれる）
+     */
+    void tickActive(ServerLevel level) {
+        BlockPos pos = worldPosition;
 
         // 沼の神の御神体がセットされている場合
         if (storedItem.is(KamiGami.CHARM_OF_SWAMP_DEITY.get())) {
-            // きのこ成長効果
-            if (blockEntity.tickCounter >= MUSHROOM_GROW_INTERVAL) {
-                blockEntity.tickCounter = 0;
-                blockEntity.growMushroomsAroundShrine((ServerLevel) level, pos);
-            }
-
             // パーティクル効果（毎tick 10%の確率で発生）
             if (level.getRandom().nextFloat() < 0.1F) {
-                blockEntity.spawnSwampParticles((ServerLevel) level, pos);
+                spawnSwampParticles(level, pos);
             }
         }
 
         // 豊穣の御神体がセットされている場合
         if (storedItem.is(KamiGami.CHARM_OF_FERTILITY.get())) {
-            // 豊穣効果（骨粉効果 + 土→草変換）
-            if (blockEntity.tickCounter >= FERTILITY_INTERVAL) {
-                blockEntity.tickCounter = 0;
-                blockEntity.applyFertilityEffectAroundShrine((ServerLevel) level, pos);
-            }
-
             // パーティクル効果（毎tick 10%の確率で発生）
             if (level.getRandom().nextFloat() < 0.1F) {
-                blockEntity.spawnFertilityParticles((ServerLevel) level, pos);
+                spawnFertilityParticles(level, pos);
             }
         }
 
         // 火の神の御神体がセットされている場合
         if (storedItem.is(KamiGami.CHARM_OF_FIRE_DEITY.get())) {
             // 毎tick実行して進行度を更新
-            blockEntity.processFireDeity((ServerLevel) level, pos);
+            processFireDeity(level, pos);
+        }
+    }
+
+    @Override
+    public void onLoad() {
+        super.onLoad();
+        if (this.level instanceof ServerLevel serverLevel) {
+            ShrineScheduler.get(serverLevel).update(this);
+        }
+    }
+
+    @Override
+    public void onChunkUnloaded() {
+        super.onChunkUnloaded();
+        unregisterFromScheduler();
+    }
+
+    @Override
+    public void setRemoved() {
+        super.setRemoved();
+        unregisterFromScheduler();
+    }
+
+    private void unregisterFromScheduler() {
+        if (this.level instanceof ServerLevel serverLevel) {
+            ShrineScheduler scheduler = ShrineScheduler.getIfExists(serverLevel);
+            if (scheduler != null) {
+                scheduler.remove(this);
+            }
         }
     }
 
@@ -95,12 +154,37 @@ public class ShrineBlockEntity extends BlockEntity {
     public void setStoredItem(ItemStack stack) {
         this.storedItem = stack;
         this.setChanged();
+        // スケジューラーへの登録を更新
+        if (this.level instanceof ServerLevel serverLevel && !this.isRemoved()) {
+            ShrineScheduler.get(serverLevel).update(this);
+        }
         // Sync to client
         if (this.level != null && !this.level.isClientSide()) {
             this.level.sendBlockUpdated(this.worldPosition, this.getBlockState(), this.getBlockState(), 3);
         }
     }
 
+    /**
+     * アイテムを挿入する。 on_insert のレシピは次の tick に ShrineScheduler がまとめて評価する。
+     *
+     * @param stack
+     *            挿入するアイテム
+     * @param player
+     *            挿入したプレイヤー（プレイヤー以外による挿入では null）
+     */
+    public void insertItem(ItemStack stack, @Nullable Player player) {
+        this.lastInserter = player != null ? player.getUUID() : null;
+        setStoredItem(stack);
+        if (this.level instanceof ServerLevel serverLevel && !this.isRemoved()) {
+            ShrineScheduler.get(serverLevel).requestInsertEvaluation(this);
+        }
+    }
+
+    @Nullable
+    UUID getLastInserter() {
+        return this.lastInserter;
+    }
+
     @Override
     protected void saveAdditional(ValueOutput output) {
         super.saveAdditional(output);
@@ -207,7 +291,8 @@ public class ShrineBlockEntity extends BlockEntity {
     private void applyFertilityEffectAroundShrine(ServerLevel level, BlockPos shrinePos) {
         RandomSource random = level.getRandom();
 
-        KamiGami.LOGGER.info("Fertility: Attempting fertility effect around shrine at {}", shrinePos);
+        KamiGamiDiagnostics.log(Category.SHRINE,
+                "Fertility: Attempting fertility effect around shrine at {}", shrinePos);
 
         // 候補となる位置をリストアップ
         java.util.List<BlockPos> dirtPositions = new java.util.ArrayList<>();
@@ -249,7 +334,7 @@ public class ShrineBlockEntity extends BlockEntity {
             BlockState targetState = level.getBlockState(targetPos);
             if (targetState.getBlock() instanceof net.minecraft.world.level.block.BonemealableBlock bonemealable) {
                 bonemealable.performBonemeal(level, random, targetPos, targetState);
-                KamiGami.LOGGER.info("Fertility: Applied bonemeal effect at {}", targetPos);
+                KamiGamiDiagnostics.log(Category.SHRINE, "Fertility: Applied bonemeal effect at {}", targetPos);
 
                 // 骨粉パーティクルを発生
                 level.sendParticles(ParticleTypes.HAPPY_VILLAGER, targetPos.getX() + 0.5, targetPos.getY() + 0.5,
@@ -259,7 +344,7 @@ public class ShrineBlockEntity extends BlockEntity {
             // ランダムに1箇所の土を草に変換
             BlockPos targetPos = dirtPositions.get(random.nextInt(dirtPositions.size()));
             level.setBlock(targetPos, Blocks.GRASS_BLOCK.defaultBlockState(), 3);
-            KamiGami.LOGGER.info("Fertility: Converted dirt to grass at {}", targetPos);
+            KamiGamiDiagnostics.log(Category.SHRINE, "Fertility: Converted dirt to grass at {}", targetPos);
         } else {
             KamiGami.LOGGER.debug("Fertility: No valid positions found for bonemeal or grass conversion");
         }
@@ -281,8 +366,8 @@ public class ShrineBlockEntity extends BlockEntity {
     }
 
     /**
-     * 火の神の処理 - 周囲のアイテムをスキャン - 最も近いアイテムをターゲットにする - 精錬レシピがある場合、進行度を進める -
-     * 完了したらアイテムを変換する
+     * 火の神の処理 - ターゲットがいない場合は周囲のアイテムをスキャンし、最も近い精錬可能なアイテムをターゲットにする -
+     * ターゲットが有効な間は再スキャンせずに進行度を進める - 完了したらアイテムを変換する
      */
     private void processFireDeity(ServerLevel level, BlockPos shrinePos) {
         // 炎のパーティクル（装飾用）
@@ -290,32 +375,112 @@ public class ShrineBlockEntity extends BlockEntity {
             spawnFireParticles(level, shrinePos);
         }
 
-        // ターゲット候補を探す
+        net.minecraft.world.phys.AABB searchArea = getFireDeitySearchArea(shrinePos);
+
+        // 現在のターゲットが無効になった場合のみ再検索する
+        if (this.targetItem != null && !isValidFireDeityTarget(level, searchArea)) {
+            KamiGami.LOGGER.debug("Fire Deity: Target lost (ID: {})", this.targetItem.getId());
+            this.targetItem = null;
+            this.targetRecipe = null;
+        }
+        if (this.targetItem == null) {
+            findFireDeityTarget(level, shrinePos, searchArea);
+            return;
+        }
+
+        net.minecraft.world.entity.item.ItemEntity closestItem = this.targetItem;
+        net.minecraft.world.item.crafting.RecipeHolder<net.minecraft.world.item.crafting.SmeltingRecipe> targetRecipe = this.targetRecipe;
+
+        // 進行度を進める
+        this.cookingProgress++;
+
+        // ターゲットに炎パーティクルを表示
+        if (level.getRandom().nextFloat() < 0.3F) {
+            level.sendParticles(ParticleTypes.FLAME, closestItem.getX(), closestItem.getY() + 0.5, closestItem.getZ(),
+                    2, 0.1, 0.1, 0.1, 0.02);
+        }
+
+        // 完了チェック
+        if (this.cookingProgress >= this.cookingTotalTime) {
+            ItemStack itemStack = closestItem.getItem();
+            ItemStack result = targetRecipe.value().assemble(
+                    new net.minecraft.world.item.crafting.SingleRecipeInput(itemStack), level.registryAccess());
+
+            // 1個変換
+            ItemStack newStack = result.copy();
+            newStack.setCount(1);
+
+            // 元のアイテムを1個減らす
+            itemStack.shrink(1);
+            if (itemStack.isEmpty()) {
+                closestItem.discard();
+            }
+
+            // 新しいアイテムエンティティを生成
+            net.minecraft.world.entity.item.ItemEntity newItemEntity = new net.minecraft.world.entity.item.ItemEntity(
+                    level, closestItem.getX(), closestItem.getY(), closestItem.getZ(), newStack);
+            newItemEntity.setDefaultPickUpDelay();
+            level.addFreshEntity(newItemEntity);
+
+            // 完了エフェクト
+            level.playSound(null, closestItem.blockPosition(), net.minecraft.sounds.SoundEvents.FIRE_EXTINGUISH,
+                    net.minecraft.sounds.SoundSource.BLOCKS, 0.5F,
+                    2.6F + (level.random.nextFloat() - level.random.nextFloat()) * 0.8F);
+            level.sendParticles(ParticleTypes.LARGE_SMOKE, closestItem.getX(), closestItem.getY() + 0.5,
+                    closestItem.getZ(), 8, 0.2, 0.2, 0.2, 0.0);
+
+            KamiGamiDiagnostics.log(Category.SHRINE,
+                    "Fire Deity: Smelted {} -> {} at {}", itemStack.getItem(), result.getItem(),
+                    closestItem.blockPosition());
+
+            // リセット
+            this.cookingProgress = 0;
+            // ターゲットは維持（同じスタックが残っていれば続けて処理するため）
+            // ただし、スタックが消滅した場合は次のtickで再検索される
+        }
+    }
+
+    /**
+     * 火の神の検索範囲。 祠の位置を中心に、X/Z方向に±1.5ブロック、Y方向に0~-3の範囲
+     */
+    private static net.minecraft.world.phys.AABB getFireDeitySearchArea(BlockPos shrinePos) {
+        return new net.minecraft.world.phys.AABB(shrinePos.getX() - 1.5, shrinePos.getY() - 3,
+                shrinePos.getZ() - 1.5, shrinePos.getX() + 2.5, shrinePos.getY() + 0.5, shrinePos.getZ() + 2.5);
+    }
+
+    /**
+     * 現在のターゲットが引き続き処理できるかを判定する（範囲内に存在し、同じレシピで精錬できること）
+     */
+    private boolean isValidFireDeityTarget(ServerLevel level, net.minecraft.world.phys.AABB searchArea) {
+        if (!this.targetItem.isAlive() || !searchArea.intersects(this.targetItem.getBoundingBox())) {
+            return false;
+        }
+        return SmeltingRecipeCache.find(level, this.targetItem.getItem()).orElse(null) == this.targetRecipe;
+    }
+
+    /**
+     * 周囲のアイテムから最も近い精錬可能なアイテムを探してターゲットにする
+     */
+    private void findFireDeityTarget(ServerLevel level, BlockPos shrinePos,
+            net.minecraft.world.phys.AABB searchArea) {
+        this.cookingProgress = 0;
+        this.cookingTotalTime = 0;
+
         net.minecraft.world.entity.item.ItemEntity closestItem = null;
         double closestDistSqr = Double.MAX_VALUE;
-        net.minecraft.world.item.crafting.RecipeHolder<net.minecraft.world.item.crafting.SmeltingRecipe> targetRecipe = null;
-
-        // 祠の周囲の広いAABBで一度にアイテムを検索
-        // 祠の位置を中心に、X/Z方向に±1.5ブロック、Y方向に0~-3の範囲
-        double minX = shrinePos.getX() - 1.5;
-        double minY = shrinePos.getY() - 3;
-        double minZ = shrinePos.getZ() - 1.5;
-        double maxX = shrinePos.getX() + 2.5;
-        double maxY = shrinePos.getY() + 0.5;
-        double maxZ = shrinePos.getZ() + 2.5;
-
-        net.minecraft.world.phys.AABB searchArea = new net.minecraft.world.phys.AABB(minX, minY, minZ, maxX, maxY,
-                maxZ);
-        java.util.List<net.minecraft.world.entity.item.ItemEntity> items = level
-                .getEntitiesOfClass(net.minecraft.world.entity.item.ItemEntity.class, searchArea);
+        net.minecraft.world.item.crafting.RecipeHolder<net.minecraft.world.item.crafting.SmeltingRecipe> closestRecipe = null;
 
-        for (net.minecraft.world.entity.item.ItemEntity itemEntity : items) {
-            ItemStack itemStack = itemEntity.getItem();
+        // 範囲内にアイテムがなければ何もしない（エンティティ検索の代わりにトラッカーの索引を引く）
+        java.util.List<net.minecraft.world.entity.item.ItemEntity> items = new java.util.ArrayList<>();
+        if (!ItemEntityTracker.get(level).getItemsIn(searchArea, items)) {
+            this.targetItem = null;
+            this.targetRecipe = null;
+            return;
+        }
 
-            // かまどレシピで精錬可能かチェック
-            var smeltingRecipe = level.getServer().getRecipeManager().getRecipeFor(
-                    net.minecraft.world.item.crafting.RecipeType.SMELTING,
-                    new net.minecraft.world.item.crafting.SingleRecipeInput(itemStack), level);
+        for (net.minecraft.world.entity.item.ItemEntity itemEntity : items) {
+            // かまどレシピで精錬可能かチェック（結果はキャッシュされる）
+            var smeltingRecipe = SmeltingRecipeCache.find(level, itemEntity.getItem());
 
             if (smeltingRecipe.isPresent()) {
                 double distSqr = itemEntity.distanceToSqr(shrinePos.getX() + 0.5, shrinePos.getY() + 0.5,
@@ -323,75 +488,17 @@ public class ShrineBlockEntity extends BlockEntity {
                 if (distSqr < closestDistSqr) {
                     closestDistSqr = distSqr;
                     closestItem = itemEntity;
-                    targetRecipe = smeltingRecipe.get();
+                    closestRecipe = smeltingRecipe.get();
                 }
             }
         }
 
-        // ターゲットが見つからなかった場合、またはターゲットが変わった場合
-        if (closestItem == null || closestItem.getId() != this.targetEntityId) {
-            this.cookingProgress = 0;
-            this.cookingTotalTime = 0;
-
-            if (closestItem != null) {
-                this.targetEntityId = closestItem.getId();
-                this.cookingTotalTime = targetRecipe.value().cookingTime();
-                KamiGami.LOGGER.debug("Fire Deity: New target found {} (ID: {}), time: {}",
-                        closestItem.getItem().getItem(), this.targetEntityId, this.cookingTotalTime);
-            } else {
-                this.targetEntityId = -1;
-            }
-            return;
-        }
-
-        // ターゲットの処理
-        if (closestItem != null && targetRecipe != null) {
-            // 進行度を進める
-            this.cookingProgress++;
-
-            // ターゲットに炎パーティクルを表示
-            if (level.getRandom().nextFloat() < 0.3F) {
-                level.sendParticles(ParticleTypes.FLAME, closestItem.getX(), closestItem.getY() + 0.5,
-                        closestItem.getZ(), 2, 0.1, 0.1, 0.1, 0.02);
-            }
-
-            // 完了チェック
-            if (this.cookingProgress >= this.cookingTotalTime) {
-                ItemStack itemStack = closestItem.getItem();
-                ItemStack result = targetRecipe.value().assemble(
-                        new net.minecraft.world.item.crafting.SingleRecipeInput(itemStack), level.registryAccess());
-
-                // 1個変換
-                ItemStack newStack = result.copy();
-                newStack.setCount(1);
-
-                // 元のアイテムを1個減らす
-                itemStack.shrink(1);
-                if (itemStack.isEmpty()) {
-                    closestItem.discard();
-                }
-
-                // 新しいアイテムエンティティを生成
-                net.minecraft.world.entity.item.ItemEntity newItemEntity = new net.minecraft.world.entity.item.ItemEntity(
-                        level, closestItem.getX(), closestItem.getY(), closestItem.getZ(), newStack);
-                newItemEntity.setDefaultPickUpDelay();
-                level.addFreshEntity(newItemEntity);
-
-                // 完了エフェクト
-                level.playSound(null, closestItem.blockPosition(), net.minecraft.sounds.SoundEvents.FIRE_EXTINGUISH,
-                        net.minecraft.sounds.SoundSource.BLOCKS, 0.5F,
-                        2.6F + (level.random.nextFloat() - level.random.nextFloat()) * 0.8F);
-                level.sendParticles(ParticleTypes.LARGE_SMOKE, closestItem.getX(), closestItem.getY() + 0.5,
-                        closestItem.getZ(), 8, 0.2, 0.2, 0.2, 0.0);
-
-                KamiGami.LOGGER.info("Fire Deity: Smelted {} -> {} at {}", itemStack.getItem(), result.getItem(),
-                        closestItem.blockPosition());
-
-                // リセット
-                this.cookingProgress = 0;
-                // ターゲットIDは維持（同じスタックが残っていれば続けて処理するため）
-                // ただし、スタックが消滅した場合は次のtickで再検索される
-            }
+        this.targetItem = closestItem;
+        this.targetRecipe = closestRecipe;
+        if (closestItem != null) {
+            this.cookingTotalTime = closestRecipe.value().cookingTime();
+            KamiGami.LOGGER.debug("Fire Deity: New target found {} (ID: {}), time: {}",
+                    closestItem.getItem().getItem(), closestItem.getId(), this.cookingTotalTime);
         }
     }
 
@@ -409,24 +516,20 @@ public class ShrineBlockEntity extends BlockEntity {
         // 炎パーティクル
         level.sendParticles(ParticleTypes.FLAME, x, y, z, 1, 0.0, 0.05, 0.0, 0.0);
 
-        // 周囲3x3マスのアイテムに炎エフェクトを表示
-        for (int dx = -1; dx <= 1; dx++) {
-            for (int dz = -1; dz <= 1; dz++) {
-                for (int dy = -1; dy >= -3; dy--) {
-                    BlockPos checkPos = shrinePos.offset(dx, dy, dz);
-
-                    java.util.List<net.minecraft.world.entity.item.ItemEntity> items = level.getEntitiesOfClass(
-                            net.minecraft.world.entity.item.ItemEntity.class,
-                            new net.minecraft.world.phys.AABB(checkPos));
-
-                    for (net.minecraft.world.entity.item.ItemEntity itemEntity : items) {
-                        // アイテムに炎のパーティクルを表示（10%の確率で）
-                        if (random.nextFloat() < 0.1F) {
-                            level.sendParticles(ParticleTypes.FLAME, itemEntity.getX(), itemEntity.getY() + 0.2,
-                                    itemEntity.getZ(), 1, 0.05, 0.05, 0.05, 0.01);
-                        }
-                    }
-                }
+        // 周囲3x3マス（祠の下3段）のアイテムに炎エフェクトを表示
+        java.util.List<net.minecraft.world.entity.item.ItemEntity> items = new java.util.ArrayList<>();
+        net.minecraft.world.phys.AABB particleArea = new net.minecraft.world.phys.AABB(shrinePos.getX() - 1,
+                shrinePos.getY() - 3, shrinePos.getZ() - 1, shrinePos.getX() + 2, shrinePos.getY(),
+                shrinePos.getZ() + 2);
+        if (!ItemEntityTracker.get(level).getItemsIn(particleArea, items)) {
+            return;
+        }
+
+        for (net.minecraft.world.entity.item.ItemEntity itemEntity : items) {
+            // アイテムに炎のパーティクルを表示（10%の確率で）
+            if (random.nextFloat() < 0.1F) {
+                level.sendParticles(ParticleTypes.FLAME, itemEntity.getX(), itemEntity.getY() + 0.2,
+                        itemEntity.getZ(), 1, 0.05, 0.05, 0.05, 0.01);
             }
         }
     }
@@ -0,0 +1,327 @@
+package com.hydryhydra.kamigami.block.entity;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import javax.annotation.Nullable;
+
+import com.hydryhydra.kamigami.KamiGami;
+import com.hydryhydra.kamigami.KamiGamiDiagnostics;
+import com.hydryhydra.kamigami.KamiGamiDiagnostics.Category;
+import com.hydryhydra.kamigami.curse.ShrineCurseRecipe;
+import com.hydryhydra.kamigami.curse.ShrineCurseRecipes;
+
+import it.unimi.dsi.fastutil.objects.ObjectLinkedOpenHashSet;
+
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.util.RandomSource;
+import net.minecraft.world.entity.player.Player;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.level.ChunkPos;
+import net.neoforged.bus.api.SubscribeEvent;
+import net.neoforged.fml.common.EventBusSubscriber;
+import net.neoforged.neoforge.event.level.LevelEvent;
+import net.neoforged.neoforge.event.tick.LevelTickEvent;
+
+/**
+ * レベルごとの祠のスケジューラー。
+ *
+ * 祠ごとに BlockEntityTicker を持たせる代わりに、読み込まれた祠をここに登録して tick する。 空の祠や効果のない
+ * アイテムが入った祠は毎 tick の処理の対象にならないため、tick のコストがかからない。
+ *
+ * - 毎 tick の処理（パーティクル、火の神の精錬）: 御神体がセットされた祠を順に処理する - 周期効果（きのこ成長、豊穣）と
+ * on_tick の祟りレシピ: 実行予定 tick をキーにしたタイミングホイールで、予定 tick のスロットに入っている祠だけを処理する
+ *
+ * on_insert の祟りレシピは挿入の時点では実行せず、次の tick の先頭でまとめて評価する。 同じ tick に同じ祠へ何度挿入
+ * されても評価は1回で、評価の時点で祠に入っているアイテムだけを見る。
+ *
+ * 周期的な処理の最初の実行は 1〜間隔 tick 後のランダムな時点にずらす。 チャンクの読み込みなどで同時に登録された祠も
+ * 実行 tick が間隔全体に散らばるため、同じ御神体の祠が大量にあっても特定の tick に処理が集中しない。
+ */
+@EventBusSubscriber(modid = KamiGami.MODID)
+public final class ShrineScheduler {
+    // ホイールのスロット数（2のべき乗）。 これより長い間隔の予定は、予定 tick になるまで同じスロットを周回する
+    private static final int WHEEL_SIZE = 256;
+    private static final int WHEEL_MASK = WHEEL_SIZE - 1;
+
+    private static final Map<ServerLevel, ShrineScheduler> SCHEDULERS = new IdentityHashMap<>();
+
+    /**
+     * 周期的な処理の種類
+     */
+    enum Kind {
+        /** 御神体の周期効果（きのこ成長、豊穣） */
+        PERIODIC_EFFECT,
+        /** on_tick の祟りレシピ */
+        TICK_CURSE
+    }
+
+    /**
+     * ホイールに積まれた実行予定。 祠が同じ種類の予定として保持している間だけ有効で、取り消しや再登録では祠側の参照を
+     * 差し替えるだけにして、ホイール内の古い予定は取り出したときに捨てる。
+     */
+    static final class Timer {
+        private final ShrineBlockEntity shrine;
+        private final Kind kind;
+        private final long due;
+
+        private Timer(ShrineBlockEntity shrine, Kind kind, long due) {
+            this.shrine = shrine;
+            this.kind = kind;
+            this.due = due;
+        }
+
+        private boolean isCurrent() {
+            return (kind == Kind.PERIODIC_EFFECT ? shrine.periodicTimer : shrine.curseTimer) == this;
+        }
+    }
+
+    // 読み込まれている全ての祠（レシピのリロード時に on_tick の予定を見直すため）
+    private final ObjectLinkedOpenHashSet<ShrineBlockEntity> loaded = new ObjectLinkedOpenHashSet<>();
+    // 毎 tick 処理する祠（御神体がセットされているもの）
+    private final ObjectLinkedOpenHashSet<ShrineBlockEntity> active = new ObjectLinkedOpenHashSet<>();
+    // アイテムが挿入され、on_insert のレシピの評価を待っている祠
+    private final ObjectLinkedOpenHashSet<ShrineBlockEntity> pendingInserts = new ObjectLinkedOpenHashSet<>();
+    // 実行予定 tick & WHEEL_MASK -> 実行予定
+    @SuppressWarnings("unchecked")
+    private final List<Timer>[] wheel = new List[WHEEL_SIZE];
+    // 実行 tick のずらし幅を決める乱数
+    private final RandomSource random = RandomSource.create();
+    // このスケジューラーの tick 数（tick が凍結されている間は進まない）
+    private long currentTick;
+    // 最後に予定を見直したときのレシピの世代
+    private int recipeGeneration = ShrineCurseRecipes.generation();
+
+    private ShrineScheduler() {
+        for (int i = 0; i < WHEEL_SIZE; i++) {
+            wheel[i] = new ArrayList<>();
+        }
+    }
+
+    /**
+     * 指定されたレベルのスケジューラーを取得する（存在しない場合は作成する）。
+     */
+    public static ShrineScheduler get(ServerLevel level) {
+        return SCHEDULERS.computeIfAbsent(level, l -> new ShrineScheduler());
+    }
+
+    /**
+     * 指定されたレベルのスケジューラーを取得する（存在しない場合は null）。 レベルのアンロード後に作り直さないよう、登録解除にはこちらを使う。
+     */
+    @Nullable
+    static ShrineScheduler getIfExists(ServerLevel level) {
+        return SCHEDULERS.get(level);
+    }
+
+    /**
+     * 祠の状態に合わせて登録・解除する。 祠の読み込み時と、格納アイテムが変わったときに呼ぶ。
+     */
+    void update(ShrineBlockEntity shrine) {
+        if (shrine.isRemoved()) {
+            remove(shrine);
+            return;
+        }
+        loaded.add(shrine);
+
+        if (shrine.hasActiveCharm()) {
+            // 御神体が入れ替わって周期効果を持つようになった場合も予定を積む
+            if (active.add(shrine) || shrine.periodicTimer == null) {
+                schedulePeriodicEffect(shrine, true);
+            }
+        } else if (active.remove(shrine)) {
+            shrine.periodicTimer = null;
+        }
+        updateTickCurse(shrine);
+    }
+
+    /**
+     * 祠の登録を解除する。 ホイール内の予定は取り出したときに無視される。
+     */
+    void remove(ShrineBlockEntity shrine) {
+        loaded.remove(shrine);
+        active.remove(shrine);
+        pendingInserts.remove(shrine);
+        shrine.periodicTimer = null;
+        shrine.curseTimer = null;
+    }
+
+    /**
+     * 周期効果を持つ祠であれば、次の実行をホイールに積む。
+     *
+     * @param first
+     *            最初の実行か（最初は 1〜間隔 tick 後のランダムな時点にずらす）
+     */
+    private void schedulePeriodicEffect(ShrineBlockEntity shrine, boolean first) {
+        int interval = shrine.getPeriodicEffectInterval();
+        shrine.periodicTimer = interval > 0
+                ? schedule(shrine, Kind.PERIODIC_EFFECT, first ? 1 + random.nextInt(interval) : interval)
+                : null;
+    }
+
+    /**
+     * 格納アイテムに on_tick のレシピがあれば、まだ予定がない場合に限って最初の実行を積む。 レシピがなければ予定を取り消す。
+     * 実行するレシピは実行時に引き直すため、アイテムやレシピが入れ替わっても既存の予定はそのまま使う。
+     */
+    private void updateTickCurse(ShrineBlockEntity shrine) {
+        Optional<ShrineCurseRecipes.LoadedRecipe> recipe = ShrineCurseRecipes
+                .findRecipe(ShrineCurseRecipe.TriggerType.ON_TICK, shrine.getStoredItem());
+        if (recipe.isEmpty()) {
+            shrine.curseTimer = null;
+        } else if (shrine.curseTimer == null) {
+            shrine.curseTimer = schedule(shrine, Kind.TICK_CURSE, 1 + random.nextInt(recipe.get().recipe().interval()));
+        }
+    }
+
+    /**
+     * アイテムが挿入された祠の on_insert のレシピを次の tick で評価する。 評価前に何度呼ばれても評価は1回にまとめる。
+     */
+    void requestInsertEvaluation(ShrineBlockEntity shrine) {
+        if (!shrine.isRemoved()) {
+            pendingInserts.add(shrine);
+        }
+    }
+
+    private Timer schedule(ShrineBlockEntity shrine, Kind kind, int delay) {
+        Timer timer = new Timer(shrine, kind, currentTick + delay);
+        wheel[(int) (timer.due & WHEEL_MASK)].add(timer);
+        return timer;
+    }
+
+    public int size() {
+        return active.size();
+    }
+
+    private void tick(ServerLevel level) {
+        currentTick++;
+
+        // リロードで on_tick のレシピが変わった場合は、読み込み済みの祠の予定を見直す
+        int generation = ShrineCurseRecipes.generation();
+        if (generation != recipeGeneration) {
+            recipeGeneration = generation;
+            for (ShrineBlockEntity shrine : loaded) {
+                updateTickCurse(shrine);
+            }
+        }
+
+        // 挿入されたアイテムの評価（祠ごとに1回）
+        if (!pendingInserts.isEmpty()) {
+            ShrineBlockEntity[] inserted = pendingInserts.toArray(new ShrineBlockEntity[0]);
+            pendingInserts.clear();
+            for (ShrineBlockEntity shrine : inserted) {
+                runInsertCurse(level, shrine);
+            }
+        }
+
+        // 周期的な処理（予定 tick のスロットのみ）
+        List<Timer> slot = wheel[(int) (currentTick & WHEEL_MASK)];
+        if (!slot.isEmpty()) {
+            Timer[] timers = slot.toArray(new Timer[0]);
+            slot.clear();
+            for (Timer timer : timers) {
+                if (!timer.isCurrent()) {
+                    // 取り消し済み
+                    continue;
+                }
+                if (timer.due != currentTick) {
+                    // ホイールより長い間隔の予定は次の周回まで残す
+                    slot.add(timer);
+                    continue;
+                }
+                switch (timer.kind) {
+                    case PERIODIC_EFFECT -> runPeriodicEffect(level, timer);
+                    case TICK_CURSE -> runTickCurse(level, timer);
+                }
+            }
+        }
+
+        // 毎 tick の処理（処理中の登録変更に備えてスナップショットを回す）
+        if (!active.isEmpty()) {
+            for (ShrineBlockEntity shrine : active.toArray(new ShrineBlockEntity[0])) {
+                if (!shrine.isRemoved() && isTicking(level, shrine)) {
+                    shrine.tickActive(level);
+                }
+            }
+        }
+    }
+
+    private void runPeriodicEffect(ServerLevel level, Timer timer) {
+        ShrineBlockEntity shrine = timer.shrine;
+        if (isTicking(level, shrine)) {
+            shrine.runPeriodicEffect(level);
+        }
+        // 効果で祠が壊された場合などは予定が取り消されている
+        if (timer.isCurrent()) {
+            schedulePeriodicEffect(shrine, false);
+        }
+    }
+
+    /**
+     * 祠に入っているアイテムにマッチする on_insert のレシピを実行する。 評価までにアイテムが取り出された場合は何もしない。
+     */
+    private void runInsertCurse(ServerLevel level, ShrineBlockEntity shrine) {
+        ItemStack item = shrine.getStoredItem();
+        if (shrine.isRemoved() || item.isEmpty()) {
+            return;
+        }
+        Optional<ShrineCurseRecipes.LoadedRecipe> recipe = ShrineCurseRecipes
+                .findRecipe(ShrineCurseRecipe.TriggerType.ON_INSERT, item);
+        if (recipe.isEmpty()) {
+            return;
+        }
+        UUID inserter = shrine.getLastInserter();
+        Player player = inserter != null ? level.getPlayerByUUID(inserter) : null;
+        KamiGamiDiagnostics.log(Category.SHRINE, "Insert: executing {} at {}", recipe.get().id(),
+                shrine.getBlockPos());
+        recipe.get().execute(level, shrine.getBlockPos(), player, item.copy());
+    }
+
+    /**
+     * on_tick のレシピを実行し、次の実行を interval + [0, jitter] tick 後に積む。
+     */
+    private void runTickCurse(ServerLevel level, Timer timer) {
+        ShrineBlockEntity shrine = timer.shrine;
+        Optional<ShrineCurseRecipes.LoadedRecipe> recipe = ShrineCurseRecipes
+                .findRecipe(ShrineCurseRecipe.TriggerType.ON_TICK, shrine.getStoredItem());
+        if (recipe.isEmpty()) {
+            shrine.curseTimer = null;
+            return;
+        }
+        if (isTicking(level, shrine)) {
+            recipe.get().execute(level, shrine.getBlockPos(), null, shrine.getStoredItem().copy());
+        }
+        // 祟りで祠自体が壊された場合などは予定が取り消されている
+        if (timer.isCurrent()) {
+            ShrineCurseRecipe tickRecipe = recipe.get().recipe();
+            int jitter = tickRecipe.jitter() > 0 ? random.nextInt(tickRecipe.jitter() + 1) : 0;
+            shrine.curseTimer = schedule(shrine, Kind.TICK_CURSE, tickRecipe.interval() + jitter);
+        }
+    }
+
+    /**
+     * バニラの BlockEntityTicker と同じく、ブロックが tick される範囲にある祠だけを処理する。
+     */
+    private static boolean isTicking(ServerLevel level, ShrineBlockEntity shrine) {
+        return level.shouldTickBlocksAt(ChunkPos.asLong(shrine.getBlockPos()));
+    }
+
+    @SubscribeEvent
+    public static void onLevelTick(LevelTickEvent.Post event) {
+        if (event.getLevel() instanceof ServerLevel serverLevel && serverLevel.tickRateManager().runsNormally()) {
+            ShrineScheduler scheduler = SCHEDULERS.get(serverLevel);
+            if (scheduler != null) {
+                scheduler.tick(serverLevel);
+            }
+        }
+    }
+
+    @SubscribeEvent
+    public static void onLevelUnload(LevelEvent.Unload event) {
+        if (event.getLevel() instanceof ServerLevel serverLevel) {
+            SCHEDULERS.remove(serverLevel);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.hydryhydra.kamigami.block.entity;
+
+import java.util.Optional;
+
+import com.hydryhydra.kamigami.KamiGami;
+
+import it.unimi.dsi.fastutil.objects.Object2ObjectOpenCustomHashMap;
+
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.item.ItemStackLinkedSet;
+import net.minecraft.world.item.crafting.RecipeHolder;
+import net.minecraft.world.item.crafting.RecipeManager;
+import net.minecraft.world.item.crafting.RecipeType;
+import net.minecraft.world.item.crafting.SingleRecipeInput;
+import net.minecraft.world.item.crafting.SmeltingRecipe;
+import net.neoforged.bus.api.SubscribeEvent;
+import net.neoforged.fml.common.EventBusSubscriber;
+import net.neoforged.neoforge.event.server.ServerStoppedEvent;
+
+/**
+ * 火の神の祠で使う精錬レシピの検索結果キャッシュ。
+ *
+ * アイテムとデータコンポーネントをキーにし、精錬できないアイテムも空の結果としてキャッシュする。 データパックのリロードでは
+ * RecipeManager ごと作り直されるため、RecipeManager が変わった時点でキャッシュを破棄する。 サーバースレッドからのみ使う。
+ */
+@EventBusSubscriber(modid = KamiGami.MODID)
+final class SmeltingRecipeCache {
+    // 名前付きアイテムなどでキーが増え続けないよう、上限を超えたら作り直す
+    private static final int MAX_ENTRIES = 4096;
+
+    private static final Object2ObjectOpenCustomHashMap<ItemStack, Optional<RecipeHolder<SmeltingRecipe>>> CACHE = new Object2ObjectOpenCustomHashMap<>(
+            ItemStackLinkedSet.TYPE_AND_TAG);
+    private static RecipeManager cachedFor;
+
+    private SmeltingRecipeCache() {
+    }
+
+    /**
+     * アイテムの精錬レシピを検索する。
+     *
+     * @param level
+     *            サーバーレベル
+     * @param stack
+     *            精錬するアイテム（個数は無視する）
+     * @return 精錬レシピ（精錬できない場合は空）
+     */
+    static Optional<RecipeHolder<SmeltingRecipe>> find(ServerLevel level, ItemStack stack) {
+        if (stack.isEmpty()) {
+            return Optional.empty();
+        }
+
+        RecipeManager recipeManager = level.getServer().getRecipeManager();
+        if (recipeManager != cachedFor) {
+            CACHE.clear();
+            cachedFor = recipeManager;
+        }
+
+        Optional<RecipeHolder<SmeltingRecipe>> cached = CACHE.get(stack);
+        if (cached != null) {
+            return cached;
+        }
+
+        Optional<RecipeHolder<SmeltingRecipe>> result = recipeManager.getRecipeFor(RecipeType.SMELTING,
+                new SingleRecipeInput(stack), level);
+        if (CACHE.size() >= MAX_ENTRIES) {
+            CACHE.clear();
+        }
+        // スタックは変更され得るため、キーにはコピーを使う
+        CACHE.put(stack.copyWithCount(1), result);
+        return result;
+    }
+
+    @SubscribeEvent
+    public static void onServerStopped(ServerStoppedEvent event) {
+        CACHE.clear();
+        cachedFor = null;
+    }
+}
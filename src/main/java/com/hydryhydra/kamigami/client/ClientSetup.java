@@ -10,14 +10,16 @@ import com.hydryhydra.kamigami.client.renderer.ShrineBlockEntityRenderer;
 import com.hydryhydra.kamigami.client.renderer.SwampTatariSlimeRenderer;
 import com.hydryhydra.kamigami.client.renderer.TatariFertilityRenderer;
 import com.hydryhydra.kamigami.client.renderer.TatariSlimeRenderer;
+import com.hydryhydra.kamigami.client.util.ProcessedTextureRegistry;
 
 import net.neoforged.api.distmarker.Dist;
 import net.neoforged.bus.api.SubscribeEvent;
 import net.neoforged.fml.common.EventBusSubscriber;
+import net.neoforged.neoforge.client.event.AddClientReloadListenersEvent;
 import net.neoforged.neoforge.client.event.EntityRenderersEvent;
 
 /**
- * Client-side setup for entity renderers
+ * Client-side setup for entity renderers and client reload listeners
  */
 @EventBusSubscriber(modid = KamiGami.MODID, value = Dist.CLIENT)
 public class ClientSetup {
@@ -51,4 +53,10 @@ public class ClientSetup {
         // Register custom model layers
         event.registerLayerDefinition(KamiGamiModelLayers.TATARI_TREE, TatariTreeModel::createBodyLayer);
     }
+
+    @SubscribeEvent
+    public static void registerReloadListeners(AddClientReloadListenersEvent event) {
+        // Release processed textures on resource reload so they are rebuilt from the new packs
+        event.addListener(ProcessedTextureRegistry.ID, ProcessedTextureRegistry.INSTANCE);
+    }
 }
@@ -1,5 +1,6 @@
 package com.hydryhydra.kamigami.client.renderer;
 
+import com.hydryhydra.kamigami.client.util.ProcessedTexture;
 import com.hydryhydra.kamigami.client.util.TextureProcessor;
 import com.hydryhydra.kamigami.entity.FireGolemEntity;
 import net.minecraft.client.model.IronGolemModel;
@@ -15,14 +16,14 @@ import net.minecraft.resources.ResourceLocation;
  * processing the vanilla iron golem texture with a red hue shift.
  */
 public class FireGolemRenderer extends MobRenderer<FireGolemEntity, IronGolemRenderState, IronGolemModel> {
-    private final ResourceLocation textureLocation;
+    private final ProcessedTexture texture;
 
     public FireGolemRenderer(EntityRendererProvider.Context context) {
         super(context, new IronGolemModel(context.bakeLayer(ModelLayers.IRON_GOLEM)), 0.7F);
 
         // Create red-tinted version of iron golem texture dynamically
         // Process vanilla iron golem texture: shift hue to red/orange tones
-        this.textureLocation = TextureProcessor.createFireGolemTexture("fire_golem");
+        this.texture = TextureProcessor.createFireGolemTexture("fire_golem");
     }
 
     @Override
@@ -32,6 +33,6 @@ public class FireGolemRenderer extends MobRenderer<FireGolemEntity, IronGolemRen
 
     @Override
     public ResourceLocation getTextureLocation(IronGolemRenderState state) {
-        return textureLocation;
+        return texture.location();
     }
 }
@@ -1,5 +1,8 @@
 package com.hydryhydra.kamigami.client.renderer;
 
+import com.hydryhydra.kamigami.KamiGamiDiagnostics;
+import com.hydryhydra.kamigami.KamiGamiDiagnostics.Category;
+import com.hydryhydra.kamigami.client.util.ProcessedTexture;
 import com.hydryhydra.kamigami.client.util.TextureProcessor;
 import com.hydryhydra.kamigami.entity.SwampTatariSlimeEntity;
 import com.mojang.blaze3d.vertex.PoseStack;
@@ -18,7 +21,7 @@ import net.minecraft.util.Mth;
 public class SwampTatariSlimeRenderer extends MobRenderer<SwampTatariSlimeEntity, SlimeRenderState, SlimeModel> {
     private static final ResourceLocation VANILLA_SLIME_TEXTURE = ResourceLocation
             .withDefaultNamespace("textures/entity/slime/slime.png");
-    private ResourceLocation processedTexture;
+    private final ProcessedTexture processedTexture;
 
     public SwampTatariSlimeRenderer(EntityRendererProvider.Context context) {
         super(context, new SlimeModel(context.bakeLayer(ModelLayers.SLIME)), 0.25F);
@@ -55,14 +58,14 @@ public class SwampTatariSlimeRenderer extends MobRenderer<SwampTatariSlimeEntity
         state.squish = Mth.lerp(partialTick, entity.oSquish, entity.squish);
 
         // デバッグ: レンダラーで取得したサイズをログ出力
-        if (entity.tickCount % 20 == 0) {
-            com.hydryhydra.kamigami.KamiGami.LOGGER.info(
+        if (KamiGamiDiagnostics.isEnabled(Category.RENDER) && entity.tickCount % 20 == 0) {
+            KamiGamiDiagnostics.log(Category.RENDER,
                     "SwampTatariSlimeRenderer extractRenderState - Size: {}, Squish: {}", state.size, state.squish);
         }
     }
 
     @Override
     public ResourceLocation getTextureLocation(SlimeRenderState state) {
-        return processedTexture;
+        return processedTexture.location();
     }
 }
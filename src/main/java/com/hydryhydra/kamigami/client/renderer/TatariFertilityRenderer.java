@@ -2,6 +2,7 @@ package com.hydryhydra.kamigami.client.renderer;
 
 import com.hydryhydra.kamigami.client.KamiGamiModelLayers;
 import com.hydryhydra.kamigami.client.model.TatariTreeModel;
+import com.hydryhydra.kamigami.client.util.ProcessedTexture;
 import com.hydryhydra.kamigami.client.util.TextureProcessor;
 import com.hydryhydra.kamigami.entity.TatariFertilityEntity;
 import net.minecraft.client.renderer.entity.EntityRendererProvider;
@@ -16,7 +17,7 @@ import net.minecraft.resources.ResourceLocation;
 public class TatariFertilityRenderer
         extends
             MobRenderer<TatariFertilityEntity, TatariTreeRenderState, TatariTreeModel> {
-    private ResourceLocation textureAtlas;
+    private final ProcessedTexture textureAtlas;
 
     public TatariFertilityRenderer(EntityRendererProvider.Context context) {
         super(context, new TatariTreeModel(context.bakeLayer(KamiGamiModelLayers.TATARI_TREE)), 1.0F);
@@ -31,6 +32,6 @@ public class TatariFertilityRenderer
 
     @Override
     public ResourceLocation getTextureLocation(TatariTreeRenderState state) {
-        return textureAtlas;
+        return textureAtlas.location();
     }
 }
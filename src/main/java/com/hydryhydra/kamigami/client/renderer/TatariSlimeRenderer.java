@@ -1,5 +1,6 @@
 package com.hydryhydra.kamigami.client.renderer;
 
+import com.hydryhydra.kamigami.client.util.ProcessedTexture;
 import com.hydryhydra.kamigami.client.util.TextureProcessor;
 import com.hydryhydra.kamigami.entity.TatariSlimeEntity;
 import com.mojang.blaze3d.vertex.PoseStack;
@@ -18,7 +19,7 @@ import net.minecraft.util.Mth;
 public class TatariSlimeRenderer extends MobRenderer<TatariSlimeEntity, SlimeRenderState, SlimeModel> {
     private static final ResourceLocation VANILLA_SLIME_TEXTURE = ResourceLocation
             .withDefaultNamespace("textures/entity/slime/slime.png");
-    private ResourceLocation processedTexture;
+    private final ProcessedTexture processedTexture;
 
     public TatariSlimeRenderer(EntityRendererProvider.Context context) {
         super(context, new SlimeModel(context.bakeLayer(ModelLayers.SLIME)), 0.25F);
@@ -56,6 +57,6 @@ public class TatariSlimeRenderer extends MobRenderer<TatariSlimeEntity, SlimeRen
 
     @Override
     public ResourceLocation getTextureLocation(SlimeRenderState state) {
-        return processedTexture;
+        return processedTexture.location();
     }
 }
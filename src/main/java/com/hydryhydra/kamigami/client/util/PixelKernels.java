@@ -0,0 +1,164 @@
+package com.hydryhydra.kamigami.client.util;
+
+import java.nio.IntBuffer;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import org.lwjgl.system.MemoryUtil;
+
+import com.mojang.blaze3d.platform.NativeImage;
+
+import net.minecraft.util.ARGB;
+
+/**
+ * Runs per-pixel kernels over whole images. Pixels are read and written
+ * straight from the images' native RGBA buffers (no per-pixel
+ * getPixel/setPixel calls), and large images are split into row bands that
+ * run on the common fork-join pool.
+ *
+ * Kernels receive and return pixels in the same ARGB layout as
+ * {@link NativeImage#getPixel}, so existing per-pixel functions can be used
+ * unchanged. Kernels must be stateless: they are called from several threads
+ * at once.
+ */
+final class PixelKernels {
+    // Images smaller than this are processed on the calling thread
+    private static final int PARALLEL_THRESHOLD_PIXELS = 128 * 128;
+    // Minimum number of pixels per fork-join task
+    private static final int MIN_PIXELS_PER_TASK = 64 * 64;
+
+    /**
+     * A stateless per-pixel operation on ARGB pixels.
+     */
+    @FunctionalInterface
+    interface PixelOp {
+        int apply(int argb);
+    }
+
+    private PixelKernels() {
+    }
+
+    /**
+     * Applies {@code op} to every pixel of {@code source} and writes the result
+     * to the same position in {@code dest}. Both images must have the same size;
+     * {@code dest} may be {@code source} itself.
+     */
+    static void apply(NativeImage source, NativeImage dest, PixelOp op) {
+        int width = source.getWidth();
+        int height = source.getHeight();
+        if (dest.getWidth() != width || dest.getHeight() != height) {
+            throw new IllegalArgumentException("Image sizes differ: " + width + "x" + height + " vs "
+                    + dest.getWidth() + "x" + dest.getHeight());
+        }
+
+        if (source.format() != NativeImage.Format.RGBA || dest.format() != NativeImage.Format.RGBA) {
+            // Non-RGBA images have no int-per-pixel buffer; use the slow path
+            for (int y = 0; y < height; y++) {
+                for (int x = 0; x < width; x++) {
+                    dest.setPixel(x, y, op.apply(source.getPixel(x, y)));
+                }
+            }
+            return;
+        }
+
+        IntBuffer src = MemoryUtil.memIntBuffer(source.getPointer(), width * height);
+        IntBuffer dst = MemoryUtil.memIntBuffer(dest.getPointer(), width * height);
+        applyNative(src, dst, width, height, op);
+    }
+
+    /**
+     * Copies {@code source} into the {@code width} x {@code height} region of
+     * {@code dest} at ({@code destX}, {@code destY}), resizing with
+     * nearest-neighbor sampling to keep the pixel art look. Pixels are copied as
+     * raw ints without any colour conversion.
+     */
+    static void blitScaled(NativeImage source, NativeImage dest, int destX, int destY, int width, int height) {
+        if (destX < 0 || destY < 0 || destX + width > dest.getWidth() || destY + height > dest.getHeight()) {
+            throw new IllegalArgumentException("Region " + width + "x" + height + " at (" + destX + ", " + destY
+                    + ") is outside the " + dest.getWidth() + "x" + dest.getHeight() + " image");
+        }
+        int srcWidth = source.getWidth();
+        int srcHeight = source.getHeight();
+
+        if (source.format() != NativeImage.Format.RGBA || dest.format() != NativeImage.Format.RGBA) {
+            for (int y = 0; y < height; y++) {
+                int srcY = Math.min((y * srcHeight) / height, srcHeight - 1);
+                for (int x = 0; x < width; x++) {
+                    int srcX = Math.min((x * srcWidth) / width, srcWidth - 1);
+                    dest.setPixel(destX + x, destY + y, source.getPixel(srcX, srcY));
+                }
+            }
+            return;
+        }
+
+        IntBuffer src = MemoryUtil.memIntBuffer(source.getPointer(), srcWidth * srcHeight);
+        IntBuffer dst = MemoryUtil.memIntBuffer(dest.getPointer(), dest.getWidth() * dest.getHeight());
+        int destWidth = dest.getWidth();
+        for (int y = 0; y < height; y++) {
+            int srcRow = Math.min((y * srcHeight) / height, srcHeight - 1) * srcWidth;
+            int destRow = (destY + y) * destWidth + destX;
+            if (width == srcWidth) {
+                // Same width: copy the whole row at once
+                dst.put(destRow, src, srcRow, width);
+                continue;
+            }
+            for (int x = 0; x < width; x++) {
+                dst.put(destRow + x, src.get(srcRow + Math.min((x * srcWidth) / width, srcWidth - 1)));
+            }
+        }
+    }
+
+    /**
+     * Applies {@code op} to a raw buffer in NativeImage memory order (ABGR
+     * ints), converting to and from ARGB around each call.
+     */
+    static void applyNative(IntBuffer src, IntBuffer dst, int width, int height, PixelOp op) {
+        if (width * height < PARALLEL_THRESHOLD_PIXELS) {
+            runRows(src, dst, width, 0, height, op);
+        } else {
+            int rowsPerTask = Math.max(1, MIN_PIXELS_PER_TASK / width);
+            ForkJoinPool.commonPool().invoke(new RowTask(src, dst, width, 0, height, rowsPerTask, op));
+        }
+    }
+
+    private static void runRows(IntBuffer src, IntBuffer dst, int width, int fromRow, int toRow, PixelOp op) {
+        int end = toRow * width;
+        for (int i = fromRow * width; i < end; i++) {
+            dst.put(i, ARGB.toABGR(op.apply(ARGB.fromABGR(src.get(i)))));
+        }
+    }
+
+    /**
+     * Splits a row range in half until it is small enough to run directly.
+     */
+    private static final class RowTask extends RecursiveAction {
+        private final IntBuffer src;
+        private final IntBuffer dst;
+        private final int width;
+        private final int fromRow;
+        private final int toRow;
+        private final int rowsPerTask;
+        private final PixelOp op;
+
+        RowTask(IntBuffer src, IntBuffer dst, int width, int fromRow, int toRow, int rowsPerTask, PixelOp op) {
+            this.src = src;
+            this.dst = dst;
+            this.width = width;
+            this.fromRow = fromRow;
+            this.toRow = toRow;
+            this.rowsPerTask = rowsPerTask;
+            this.op = op;
+        }
+
+        @Override
+        protected void compute() {
+            if (toRow - fromRow <= rowsPerTask) {
+                runRows(src, dst, width, fromRow, toRow, op);
+                return;
+            }
+            int mid = (fromRow + toRow) >>> 1;
+            invokeAll(new RowTask(src, dst, width, fromRow, mid, rowsPerTask, op),
+                    new RowTask(src, dst, width, mid, toRow, rowsPerTask, op));
+        }
+    }
+}
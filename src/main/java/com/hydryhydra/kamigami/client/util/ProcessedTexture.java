@@ -0,0 +1,112 @@
+package com.hydryhydra.kamigami.client.util;
+
+import com.mojang.blaze3d.platform.NativeImage;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.annotation.Nullable;
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.renderer.texture.DynamicTexture;
+import net.minecraft.resources.ResourceLocation;
+
+/**
+ * Handle to a texture generated by {@link TextureProcessor}. Generation runs
+ * in the background; until the texture has been uploaded, {@link #location()}
+ * returns a placeholder (usually the vanilla source texture). Renderers keep
+ * the handle and call {@link #location()} every frame.
+ *
+ * The uploaded {@link DynamicTexture} is reference counted. The
+ * {@link ProcessedTextureRegistry} holds one reference until the handle is
+ * evicted on a resource reload, and the generation job holds one until it
+ * finishes. When the last reference is released the texture is removed from
+ * the texture manager, which frees the GPU texture and its NativeImage, and
+ * the handle falls back to the placeholder. Releasing and uploading happen on
+ * the render thread.
+ */
+public final class ProcessedTexture {
+    private final ResourceLocation placeholder;
+    private final ResourceLocation dynamicLocation;
+    private final String description;
+    private final AtomicInteger refCount = new AtomicInteger(1);
+    private volatile ResourceLocation location;
+    @Nullable
+    private DynamicTexture texture;
+
+    ProcessedTexture(ResourceLocation placeholder, ResourceLocation dynamicLocation, String description) {
+        this.placeholder = placeholder;
+        this.dynamicLocation = dynamicLocation;
+        this.description = description;
+        this.location = placeholder;
+    }
+
+    /**
+     * Returns the generated texture once it is ready, or the placeholder.
+     */
+    public ResourceLocation location() {
+        return location;
+    }
+
+    /**
+     * Returns whether the generated texture has been uploaded and not yet
+     * released.
+     */
+    public boolean isReady() {
+        return location != placeholder;
+    }
+
+    ResourceLocation placeholder() {
+        return placeholder;
+    }
+
+    /**
+     * Adds a reference. Fails if the texture has already been released.
+     */
+    boolean retain() {
+        while (true) {
+            int count = refCount.get();
+            if (count == 0) {
+                return false;
+            }
+            if (refCount.compareAndSet(count, count + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Drops a reference and frees the texture when it was the last one. Must be
+     * called on the render thread.
+     */
+    void release() {
+        int count = refCount.decrementAndGet();
+        if (count < 0) {
+            throw new IllegalStateException("Processed texture released too many times: " + dynamicLocation);
+        }
+        if (count == 0) {
+            location = placeholder;
+            if (texture != null) {
+                // Closes the DynamicTexture, which frees both the GPU texture and its NativeImage
+                Minecraft.getInstance().getTextureManager().release(dynamicLocation);
+                texture = null;
+            }
+        }
+    }
+
+    /**
+     * Uploads the generated image and switches to it. Called on the render thread
+     * by the generation job while it still holds its reference. If the job holds
+     * the only reference, the handle was evicted while generating and the image
+     * is closed instead.
+     *
+     * @return Whether the image was uploaded
+     */
+    boolean upload(NativeImage image) {
+        if (refCount.get() <= 1) {
+            image.close();
+            return false;
+        }
+        // DynamicTexture uploads in its constructor, so this must run on the render thread
+        texture = new DynamicTexture(() -> description + ": " + dynamicLocation, image);
+        Minecraft.getInstance().getTextureManager().register(dynamicLocation, texture);
+        location = dynamicLocation;
+        return true;
+    }
+}
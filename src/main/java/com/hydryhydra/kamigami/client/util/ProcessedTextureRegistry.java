@@ -0,0 +1,79 @@
+package com.hydryhydra.kamigami.client.util;
+
+import com.hydryhydra.kamigami.KamiGami;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.server.packs.resources.ResourceManager;
+import net.minecraft.server.packs.resources.SimplePreparableReloadListener;
+import net.minecraft.util.profiling.ProfilerFiller;
+
+/**
+ * Registry of textures generated by {@link TextureProcessor}, keyed by cache
+ * key. Entries are shared between renderers and live until the next resource
+ * reload.
+ *
+ * On reload, all entries are detached from the registry during the
+ * preparation phase, so renderers rebuilt in the apply phase generate fresh
+ * textures from the new resource packs. The detached handles release the
+ * registry's reference in the apply phase, which frees their textures once no
+ * generation job is using them.
+ */
+public final class ProcessedTextureRegistry extends SimplePreparableReloadListener<List<ProcessedTexture>> {
+    public static final ResourceLocation ID = ResourceLocation.fromNamespaceAndPath(KamiGami.MODID,
+            "processed_textures");
+    public static final ProcessedTextureRegistry INSTANCE = new ProcessedTextureRegistry();
+
+    private final Map<String, ProcessedTexture> textures = new ConcurrentHashMap<>();
+
+    private ProcessedTextureRegistry() {
+    }
+
+    /**
+     * Returns the texture for {@code cacheKey}, creating it with {@code factory}
+     * if it is not registered yet. The factory runs at most once per key.
+     */
+    ProcessedTexture getOrCreate(String cacheKey, Function<String, ProcessedTexture> factory) {
+        return textures.computeIfAbsent(cacheKey, factory);
+    }
+
+    /**
+     * Detaches all entries from the registry.
+     */
+    private List<ProcessedTexture> evictAll() {
+        List<ProcessedTexture> evicted = new ArrayList<>(textures.size());
+        for (String key : textures.keySet()) {
+            ProcessedTexture texture = textures.remove(key);
+            if (texture != null) {
+                evicted.add(texture);
+            }
+        }
+        return evicted;
+    }
+
+    /**
+     * Evicts and releases all entries immediately. Must be called on the render
+     * thread.
+     */
+    void clear() {
+        List<ProcessedTexture> evicted = evictAll();
+        evicted.forEach(ProcessedTexture::release);
+        KamiGami.LOGGER.info("Released {} processed textures", evicted.size());
+    }
+
+    @Override
+    protected List<ProcessedTexture> prepare(ResourceManager resourceManager, ProfilerFiller profiler) {
+        return evictAll();
+    }
+
+    @Override
+    protected void apply(List<ProcessedTexture> evicted, ResourceManager resourceManager, ProfilerFiller profiler) {
+        evicted.forEach(ProcessedTexture::release);
+        if (!evicted.isEmpty()) {
+            KamiGami.LOGGER.info("Released {} processed textures after resource reload", evicted.size());
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package com.hydryhydra.kamigami.client.util;
+
+import com.hydryhydra.kamigami.KamiGami;
+import com.hydryhydra.kamigami.KamiGamiConfig;
+import com.mojang.blaze3d.platform.NativeImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import net.minecraft.client.Minecraft;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.server.packs.PackResources;
+import net.minecraft.server.packs.resources.Resource;
+import net.minecraft.server.packs.resources.ResourceManager;
+
+/**
+ * On-disk cache for textures generated by {@link TextureProcessor}. Finished
+ * images are stored as PNGs under {@code <game dir>/kamigami/texture_cache} so
+ * later launches can skip decoding and processing the source textures.
+ *
+ * Entries are keyed by a SHA-256 hash of the processing parameters, the bytes
+ * and origin pack of every source texture, and the active resource pack stack.
+ * Changing packs or parameters therefore produces a new key; older entries for
+ * the same texture are deleted when the new one is written.
+ */
+final class TextureDiskCache {
+    // Bump when the output of any texture kernel changes so old entries are not reused
+    private static final int FORMAT_VERSION = 1;
+
+    /**
+     * Creates the texture when it is not cached.
+     */
+    @FunctionalInterface
+    interface ImageFactory {
+        NativeImage create() throws IOException;
+    }
+
+    private TextureDiskCache() {
+    }
+
+    /**
+     * Returns the cached image for {@code cacheKey}, or creates it with
+     * {@code factory} and stores it for later launches.
+     *
+     * @param resourceManager
+     *            Resource manager the sources are loaded from
+     * @param cacheKey
+     *            Unique key of the texture (also used as the file name prefix)
+     * @param parameters
+     *            Description of the processing parameters
+     * @param sources
+     *            All source textures the image is built from
+     * @param factory
+     *            Builds the image on a cache miss
+     * @return The image; the caller owns it and must close it
+     * @throws IOException
+     *             If a source texture is missing or the image cannot be created
+     */
+    static NativeImage getOrCreate(ResourceManager resourceManager, String cacheKey, String parameters,
+            List<ResourceLocation> sources, ImageFactory factory) throws IOException {
+        if (!KamiGamiConfig.TEXTURE_DISK_CACHE.get()) {
+            return factory.create();
+        }
+
+        Path directory = Minecraft.getInstance().gameDirectory.toPath().resolve(KamiGami.MODID)
+                .resolve("texture_cache");
+        Path file = directory.resolve(cacheKey + "-" + hash(resourceManager, parameters, sources) + ".png");
+
+        if (Files.isRegularFile(file)) {
+            try {
+                NativeImage cached = read(file);
+                KamiGami.LOGGER.debug("Loaded cached texture {} from {}", cacheKey, file);
+                return cached;
+            } catch (IOException e) {
+                KamiGami.LOGGER.warn("Discarding unreadable cached texture {}", file, e);
+                Files.deleteIfExists(file);
+            }
+        }
+
+        NativeImage image = factory.create();
+        try {
+            write(image, directory, file, cacheKey);
+        } catch (IOException e) {
+            // The cache is only an optimization; the image itself is still usable
+            KamiGami.LOGGER.warn("Failed to write cached texture {}", file, e);
+        }
+        return image;
+    }
+
+    /**
+     * Memory-maps a cached PNG and decodes it.
+     */
+    private static NativeImage read(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return NativeImage.read(buffer);
+        }
+    }
+
+    /**
+     * Writes the image through a temporary file so a crash never leaves a
+     * truncated entry, then removes older entries of the same texture.
+     */
+    private static void write(NativeImage image, Path directory, Path file, String cacheKey) throws IOException {
+        Files.createDirectories(directory);
+        Path temp = Files.createTempFile(directory, cacheKey, ".tmp");
+        try {
+            image.writeToFile(temp);
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+
+        try (DirectoryStream<Path> stale = Files.newDirectoryStream(directory, cacheKey + "-*.png")) {
+            for (Path entry : stale) {
+                if (!entry.equals(file)) {
+                    Files.deleteIfExists(entry);
+                }
+            }
+        }
+    }
+
+    /**
+     * Hashes everything the generated image depends on.
+     */
+    private static String hash(ResourceManager resourceManager, String parameters, List<ResourceLocation> sources)
+            throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+
+        update(digest, "v" + FORMAT_VERSION);
+        update(digest, parameters);
+        resourceManager.listPacks().map(PackResources::packId).forEach(id -> update(digest, id));
+
+        for (ResourceLocation location : sources) {
+            Resource resource = resourceManager.getResource(location)
+                    .orElseThrow(() -> new IOException("Texture not found: " + location));
+            update(digest, location.toString());
+            update(digest, resource.sourcePackId());
+            try (InputStream in = new DigestInputStream(resource.open(), digest)) {
+                in.transferTo(OutputStream.nullOutputStream());
+            }
+        }
+
+        // 128 bits are plenty to tell entries apart and keep file names short
+        return HexFormat.of().formatHex(digest.digest(), 0, 16);
+    }
+
+    private static void update(MessageDigest digest, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        digest.update((byte) (bytes.length >>> 8));
+        digest.update((byte) bytes.length);
+        digest.update(bytes);
+    }
+}
@@ -0,0 +1,160 @@
+package com.hydryhydra.kamigami.client.util;
+
+import com.mojang.serialization.Codec;
+import com.mojang.serialization.DataResult;
+import com.mojang.serialization.MapCodec;
+import com.mojang.serialization.codecs.RecordCodecBuilder;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * A per-pixel colour operation in a {@link TextureRecipe}. Each operation maps
+ * to one of the {@link TextureProcessor} pixel kernels; the operations of a
+ * source are fused into a single kernel with {@link #fuse(List)} so the source
+ * is processed in one pass.
+ *
+ * In JSON an operation is an object with a {@code "type"} field, e.g.
+ * {@code {"type": "hue_rotate", "degrees": 60}}.
+ */
+interface TextureOp {
+    /**
+     * Returns the pixel kernel for this operation.
+     */
+    PixelKernels.PixelOp kernel();
+
+    /**
+     * Returns the codec used to serialize this operation.
+     */
+    MapCodec<? extends TextureOp> codec();
+
+    /**
+     * Blends each colour channel towards grey.
+     *
+     * @param saturation
+     *            Saturation multiplier (0.0 = grayscale, 1.0 = original)
+     */
+    record Desaturate(float saturation) implements TextureOp {
+        public static final MapCodec<Desaturate> CODEC = RecordCodecBuilder.mapCodec(instance -> instance
+                .group(Codec.floatRange(0.0F, 1.0F).fieldOf("saturation").forGetter(Desaturate::saturation))
+                .apply(instance, Desaturate::new));
+
+        @Override
+        public PixelKernels.PixelOp kernel() {
+            return pixel -> TextureProcessor.processPixel(pixel, saturation, 0);
+        }
+
+        @Override
+        public MapCodec<Desaturate> codec() {
+            return CODEC;
+        }
+    }
+
+    /**
+     * Adds a constant to each colour channel.
+     *
+     * @param amount
+     *            Brightness adjustment (-255 to 255, negative = darker)
+     */
+    record Brightness(int amount) implements TextureOp {
+        public static final MapCodec<Brightness> CODEC = RecordCodecBuilder.mapCodec(
+                instance -> instance.group(Codec.intRange(-255, 255).fieldOf("amount").forGetter(Brightness::amount))
+                        .apply(instance, Brightness::new));
+
+        @Override
+        public PixelKernels.PixelOp kernel() {
+            return pixel -> TextureProcessor.processPixelBrightness(pixel, amount);
+        }
+
+        @Override
+        public MapCodec<Brightness> codec() {
+            return CODEC;
+        }
+    }
+
+    /**
+     * Rotates the hue in HSV space.
+     *
+     * @param degrees
+     *            Hue rotation in degrees
+     */
+    record HueRotate(float degrees) implements TextureOp {
+        public static final MapCodec<HueRotate> CODEC = RecordCodecBuilder.mapCodec(instance -> instance
+                .group(Codec.floatRange(-360.0F, 360.0F).fieldOf("degrees").forGetter(HueRotate::degrees))
+                .apply(instance, HueRotate::new));
+
+        @Override
+        public PixelKernels.PixelOp kernel() {
+            return pixel -> TextureProcessor.processPixelRotateHue(pixel, degrees);
+        }
+
+        @Override
+        public MapCodec<HueRotate> codec() {
+            return CODEC;
+        }
+    }
+
+    /**
+     * Interpolates each pixel towards a fixed colour.
+     *
+     * @param color
+     *            Target colour as 0xRRGGBB
+     * @param weight
+     *            Interpolation weight (0.0 = original, 1.0 = target colour)
+     */
+    record Tint(int color, float weight) implements TextureOp {
+        public static final MapCodec<Tint> CODEC = RecordCodecBuilder.mapCodec(instance -> instance
+                .group(Codec.INT.fieldOf("color").forGetter(Tint::color),
+                        Codec.floatRange(0.0F, 1.0F).fieldOf("weight").forGetter(Tint::weight))
+                .apply(instance, Tint::new));
+
+        @Override
+        public PixelKernels.PixelOp kernel() {
+            return pixel -> TextureProcessor.processPixelTint(pixel, color, weight);
+        }
+
+        @Override
+        public MapCodec<Tint> codec() {
+            return CODEC;
+        }
+    }
+
+    // Operation type name -> codec
+    Map<String, MapCodec<? extends TextureOp>> TYPES = Map.of("desaturate", Desaturate.CODEC, "brightness",
+            Brightness.CODEC, "hue_rotate", HueRotate.CODEC, "tint", Tint.CODEC);
+
+    // Codec -> operation type name, for encoding
+    Map<MapCodec<? extends TextureOp>, String> NAMES = TYPES.entrySet().stream().collect(
+            Collectors.toMap(Map.Entry::getValue, Map.Entry::getKey, (a, b) -> a, IdentityHashMap::new));
+
+    Codec<TextureOp> CODEC = Codec.STRING
+            .validate(type -> TYPES.containsKey(type)
+                    ? DataResult.success(type)
+                    : DataResult.error(() -> "Unknown texture op type: " + type))
+            .dispatch("type", op -> typeName(op.codec()), TYPES::get);
+
+    private static String typeName(MapCodec<? extends TextureOp> codec) {
+        String name = NAMES.get(codec);
+        if (name == null) {
+            throw new IllegalStateException("Unregistered texture op codec: " + codec);
+        }
+        return name;
+    }
+
+    /**
+     * Combines the operations into one kernel that applies them in order.
+     */
+    static PixelKernels.PixelOp fuse(List<TextureOp> ops) {
+        if (ops.isEmpty()) {
+            return pixel -> pixel;
+        }
+        PixelKernels.PixelOp fused = ops.get(0).kernel();
+        for (int i = 1; i < ops.size(); i++) {
+            PixelKernels.PixelOp before = fused;
+            PixelKernels.PixelOp next = ops.get(i).kernel();
+            fused = pixel -> next.apply(before.apply(pixel));
+        }
+        return fused;
+    }
+}
@@ -4,10 +4,13 @@ import com.hydryhydra.kamigami.KamiGami;
 import com.mojang.blaze3d.platform.NativeImage;
 import java.io.IOException;
 import java.io.InputStream;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import net.minecraft.Util;
 import net.minecraft.client.Minecraft;
-import net.minecraft.client.renderer.texture.DynamicTexture;
 import net.minecraft.resources.ResourceLocation;
 import net.minecraft.server.packs.resources.Resource;
 import net.minecraft.server.packs.resources.ResourceManager;
@@ -15,9 +18,20 @@ import net.minecraft.server.packs.resources.ResourceManager;
 /**
  * Utility class for processing vanilla textures and creating modified versions.
  * Supports operations like desaturation and brightness adjustment.
+ *
+ * Textures are generated on a background thread and uploaded on the render
+ * thread; the public methods return a {@link ProcessedTexture} handle right
+ * away so renderer construction does not block startup or resource reloads.
  */
 public class TextureProcessor {
-    private static final Map<String, ResourceLocation> processedTextureCache = new HashMap<>();
+    // Suffix for dynamic texture locations, unique per generated texture
+    private static final AtomicInteger NEXT_TEXTURE_ID = new AtomicInteger();
+
+    private static final ResourceLocation OAK_LOG = ResourceLocation.withDefaultNamespace("textures/block/oak_log.png");
+    private static final ResourceLocation IRON_GOLEM = ResourceLocation
+            .withDefaultNamespace("textures/entity/iron_golem/iron_golem.png");
+    private static final ResourceLocation TATARI_TREE_ATLAS_RECIPE = ResourceLocation
+            .fromNamespaceAndPath(KamiGami.MODID, "tatari_tree_atlas");
 
     /**
      * Processes a vanilla texture by applying desaturation and brightness
@@ -31,58 +45,88 @@ public class TextureProcessor {
      *            Brightness adjustment (-255 to 255, negative = darker)
      * @param cacheKey
      *            Unique key for caching the processed texture
-     * @return ResourceLocation of the processed texture
+     * @return Handle to the processed texture
      */
-    public static ResourceLocation processTexture(ResourceLocation vanillaTexture, float saturation, int brightness,
+    public static ProcessedTexture processTexture(ResourceLocation vanillaTexture, float saturation, int brightness,
             String cacheKey) {
-        // Check cache first
-        if (processedTextureCache.containsKey(cacheKey)) {
-            return processedTextureCache.get(cacheKey);
-        }
-
-        try {
-            // Load vanilla texture
-            Minecraft minecraft = Minecraft.getInstance();
-            ResourceManager resourceManager = minecraft.getResourceManager();
-            Resource resource = resourceManager.getResource(vanillaTexture)
-                    .orElseThrow(() -> new IOException("Texture not found: " + vanillaTexture));
-
-            try (InputStream inputStream = resource.open()) {
-                NativeImage originalImage = NativeImage.read(inputStream);
-
-                // Create new image with same dimensions
-                NativeImage processedImage = new NativeImage(originalImage.format(), originalImage.getWidth(),
-                        originalImage.getHeight(), false);
-
-                // Process each pixel
-                for (int y = 0; y < originalImage.getHeight(); y++) {
-                    for (int x = 0; x < originalImage.getWidth(); x++) {
-                        int pixel = originalImage.getPixel(x, y);
-                        int processedPixel = processPixel(pixel, saturation, brightness);
-                        processedImage.setPixel(x, y, processedPixel);
-                    }
-                }
-
-                // Register as dynamic texture
-                ResourceLocation processedLocation = ResourceLocation.fromNamespaceAndPath(KamiGami.MODID,
-                        "dynamic/" + cacheKey);
-                DynamicTexture dynamicTexture = new DynamicTexture(() -> "Processed texture: " + cacheKey,
-                        processedImage);
-                minecraft.getTextureManager().register(processedLocation, dynamicTexture);
+        // Until the processed texture is ready (or if processing fails), use the original texture
+        return generate(cacheKey, vanillaTexture, "Processed texture", resourceManager -> TextureDiskCache
+                .getOrCreate(resourceManager, cacheKey, "desaturate:" + saturation + ":" + brightness,
+                        List.of(vanillaTexture), () -> {
+                            try (NativeImage originalImage = loadTexture(resourceManager, vanillaTexture)) {
+                                // Create new image with same dimensions
+                                NativeImage processed = new NativeImage(originalImage.format(),
+                                        originalImage.getWidth(), originalImage.getHeight(), false);
+
+                                // Process all pixels
+                                PixelKernels.apply(originalImage, processed,
+                                        pixel -> processPixel(pixel, saturation, brightness));
+                                return processed;
+                            }
+                        }));
+    }
 
-                // Cache and return
-                processedTextureCache.put(cacheKey, processedLocation);
-                KamiGami.LOGGER.info("Processed texture: {} -> {} (saturation: {}, brightness: {})", vanillaTexture,
-                        processedLocation, saturation, brightness);
+    /**
+     * Builds a texture with {@code builder} on a background thread and uploads it
+     * on the render thread. Textures are generated once per cache key until the
+     * next resource reload (see {@link ProcessedTextureRegistry}).
+     *
+     * @param cacheKey
+     *            Unique key for caching the processed texture
+     * @param placeholder
+     *            Texture used until the generated one is uploaded, and if
+     *            generation fails
+     * @param description
+     *            Human-readable name used in logs and texture debug output
+     * @param builder
+     *            Creates the image; called off the render thread
+     * @return Handle to the texture
+     */
+    private static ProcessedTexture generate(String cacheKey, ResourceLocation placeholder, String description,
+            ImageBuilder builder) {
+        return ProcessedTextureRegistry.INSTANCE.getOrCreate(cacheKey, key -> {
+            // Each handle gets its own location so releasing an evicted handle never unregisters its successor
+            ResourceLocation location = ResourceLocation.fromNamespaceAndPath(KamiGami.MODID,
+                    "dynamic/" + key + "_" + NEXT_TEXTURE_ID.getAndIncrement());
+            ProcessedTexture texture = new ProcessedTexture(placeholder, location, description);
+            startGeneration(texture, key, description, builder);
+            return texture;
+        });
+    }
 
-                originalImage.close();
-                return processedLocation;
+    private static void startGeneration(ProcessedTexture texture, String cacheKey, String description,
+            ImageBuilder builder) {
+        // The generation job holds its own reference until it has uploaded or dropped the image
+        texture.retain();
+
+        Minecraft minecraft = Minecraft.getInstance();
+        ResourceManager resourceManager = minecraft.getResourceManager();
+        CompletableFuture.supplyAsync(() -> {
+            try {
+                return builder.build(resourceManager);
+            } catch (IOException e) {
+                throw new CompletionException(e);
             }
-        } catch (IOException e) {
-            KamiGami.LOGGER.error("Failed to process texture: {}", vanillaTexture, e);
-            // Fallback to original texture
-            return vanillaTexture;
-        }
+        }, Util.backgroundExecutor()).whenCompleteAsync((image, error) -> {
+            try {
+                if (error != null) {
+                    KamiGami.LOGGER.error("Failed to create {} '{}', using {}", description, cacheKey,
+                            texture.placeholder(), error);
+                } else if (texture.upload(image)) {
+                    KamiGami.LOGGER.info("Created {}: {}", description, texture.location());
+                }
+            } finally {
+                texture.release();
+            }
+        }, minecraft);
+    }
+
+    /**
+     * Creates the image of a generated texture.
+     */
+    @FunctionalInterface
+    private interface ImageBuilder {
+        NativeImage build(ResourceManager resourceManager) throws IOException;
     }
 
     /**
@@ -97,7 +141,7 @@ public class TextureProcessor {
      *            Brightness adjustment (-255 to 255)
      * @return Processed pixel in ABGR format
      */
-    private static int processPixel(int pixel, float saturation, int brightness) {
+    static int processPixel(int pixel, float saturation, int brightness) {
         // Extract ABGR components
         int a = (pixel >> 24) & 0xFF;
         int b = (pixel >> 16) & 0xFF;
@@ -130,161 +174,52 @@ public class TextureProcessor {
     /**
      * Creates a texture atlas for Tatari Tree entity by combining vanilla textures.
      * The atlas is 256x256 pixels and contains textures for trunk, head, branches,
-     * and leaves.
+     * and leaves. The layout is defined by the {@code kamigami:tatari_tree_atlas}
+     * texture recipe.
      *
      * @param cacheKey
      *            Unique key for caching the processed texture
-     * @return ResourceLocation of the processed texture atlas
+     * @return Handle to the texture atlas
      */
-    public static ResourceLocation createTatariTreeAtlas(String cacheKey) {
-        // Check cache first
-        if (processedTextureCache.containsKey(cacheKey)) {
-            return processedTextureCache.get(cacheKey);
-        }
+    public static ProcessedTexture createTatariTreeAtlas(String cacheKey) {
+        // Until the atlas is ready (or if building it fails), use the plain oak log texture
+        return fromRecipe(TATARI_TREE_ATLAS_RECIPE, OAK_LOG, cacheKey);
+    }
 
-        try {
-            Minecraft minecraft = Minecraft.getInstance();
-            ResourceManager resourceManager = minecraft.getResourceManager();
-
-            // Load vanilla textures and apply color inversion + brightness adjustment
-            NativeImage logSide = processTextureImage(
-                    loadTexture(resourceManager, ResourceLocation.withDefaultNamespace("textures/block/oak_log.png")),
-                    true, -50); // Invert hue, -50 brightness
-            NativeImage logTop = processTextureImage(loadTexture(resourceManager,
-                    ResourceLocation.withDefaultNamespace("textures/block/oak_log_top.png")), true, -50);
-            NativeImage pumpkinFace = processTextureImage(loadTexture(resourceManager,
-                    ResourceLocation.withDefaultNamespace("textures/block/carved_pumpkin.png")), true, -50);
-            NativeImage pumpkinSide = processTextureImage(loadTexture(resourceManager,
-                    ResourceLocation.withDefaultNamespace("textures/block/pumpkin_side.png")), true, -50);
-            NativeImage pumpkinTop = processTextureImage(loadTexture(resourceManager,
-                    ResourceLocation.withDefaultNamespace("textures/block/pumpkin_top.png")), true, -50);
-            NativeImage leaves = processTextureImage(loadTexture(resourceManager,
-                    ResourceLocation.withDefaultNamespace("textures/block/oak_leaves.png")), true, -50);
-
-            // Create 256x256 atlas
-            NativeImage atlas = new NativeImage(logSide.format(), 256, 256, false);
-
-            // Fill with transparent pixels
-            for (int y = 0; y < 256; y++) {
-                for (int x = 0; x < 256; x++) {
-                    atlas.setPixel(x, y, 0); // Transparent
-                }
-            }
+    /**
+     * Generates a texture from a texture recipe
+     * ({@code assets/<namespace>/texture_recipes/<path>.json}, see
+     * {@link TextureRecipe}). Resource packs can override or add recipes.
+     *
+     * @param recipeId
+     *            ID of the recipe
+     * @param placeholder
+     *            Texture used until the generated one is ready, and if the recipe
+     *            fails
+     * @return Handle to the generated texture
+     */
+    public static ProcessedTexture fromRecipe(ResourceLocation recipeId, ResourceLocation placeholder) {
+        return fromRecipe(recipeId, placeholder,
+                "recipe_" + recipeId.getNamespace() + "_" + recipeId.getPath().replace('/', '_'));
+    }
 
-            // 1. Trunk (texOffs(0, 0)) - 16x96x16 box
-            // Using corrected UV mapping based on actual model requirements:
-            // (0,0)-(0,5) = (0, 0)-(0, 80) = log side (front)
-            // (1,0) = (16, 0) = log TOP
-            // (1,1)-(1,5) = (16, 16)-(16, 80) = log side
-            // (2,0) = (32, 0) = log TOP
-            // (2,1)-(2,5) = (32, 16)-(32, 80) = log side
-            // (3,0)-(3,5) = (48, 0)-(48, 80) = log side (left)
-            // (0,6)-(3,6) = (0, 96)-(48, 96) = log side
-
-            // Front face column (0, 0) - tiles 0-5 vertically
-            for (int i = 0; i < 6; i++) {
-                copyResized(logSide, atlas, 0, i * 16, 16, 16);
-            }
-            // Column x=16: top at (1,0), then log side at (1,1)-(1,5)
-            copyResized(logTop, atlas, 16, 0, 16, 16); // (1,0)
-            for (int i = 1; i < 6; i++) { // (1,1)-(1,5)
-                copyResized(logSide, atlas, 16, i * 16, 16, 16);
-            }
-            // Column x=32: top at (2,0), then log side at (2,1)-(2,5)
-            copyResized(logTop, atlas, 32, 0, 16, 16); // (2,0)
-            for (int i = 1; i < 6; i++) { // (2,1)-(2,5)
-                copyResized(logSide, atlas, 32, i * 16, 16, 16);
-            }
-            // Left face column (48, 0) - tiles 0-5 vertically
-            for (int i = 0; i < 6; i++) {
-                copyResized(logSide, atlas, 48, i * 16, 16, 16);
-            }
-            // Row at y=96 (0,6)-(3,6) should all be log side
-            copyResized(logSide, atlas, 0, 96, 16, 16); // (0,6)
-            copyResized(logSide, atlas, 16, 96, 16, 16); // (1,6)
-            copyResized(logSide, atlas, 32, 96, 16, 16); // (2,6)
-            copyResized(logSide, atlas, 48, 96, 16, 16); // (3,6)
-
-            // 2. Head (Jack-o-Lantern) (texOffs(0, 112)) - 16x16x16 box
-            // Using corrected UV mapping based on actual model requirements:
-            // (0,7) = (0, 112) = pumpkin side
-            // (1,7) = (16, 112) = pumpkin TOP
-            // (2,7) = (32, 112) = pumpkin TOP
-            // (3,7) = (48, 112) = pumpkin side
-            // (0,8) = (0, 128) = pumpkin top
-            // (1,8) = (16, 128) = face
-            // (2,8) = (32, 128) = pumpkin side
-            copyResized(pumpkinSide, atlas, 0, 112, 16, 16); // (0,7)
-            copyResized(pumpkinTop, atlas, 16, 112, 16, 16); // (1,7)
-            copyResized(pumpkinTop, atlas, 32, 112, 16, 16); // (2,7)
-            copyResized(pumpkinSide, atlas, 48, 112, 16, 16); // (3,7)
-            copyResized(pumpkinTop, atlas, 0, 128, 16, 16); // (0,8)
-            copyResized(pumpkinFace, atlas, 16, 128, 16, 16); // (1,8) - face
-            copyResized(pumpkinSide, atlas, 32, 128, 16, 16); // (2,8)
-
-            // 3. Branches (texOffs(64, 0)) - 32x8x8 box
-            // Using corrected UV mapping:
-            // (7,0) and (8,0) = (112, 0) and (128, 0) should be branch
-            // Front face (64, 0) - 32x8 spans (4,0) and (5,0)
-            copyResized(logSide, atlas, 64, 0, 32, 8);
-            // Right face (96, 0) - 8x8 at (6,0)
-            copyResized(logSide, atlas, 96, 0, 8, 8);
-            // Additional branch texture at (112, 0) - 16x8 at (7,0)
-            copyResized(logSide, atlas, 112, 0, 16, 8);
-            // Back face (128, 0) - 32x8 spans (8,0) and (9,0) ✓
-            copyResized(logSide, atlas, 128, 0, 32, 8);
-            // Left face (160, 0) - 8x8 at (10,0)
-            copyResized(logSide, atlas, 160, 0, 8, 8);
-            // Top face (64, 8) - 32x8
-            copyResized(logTop, atlas, 64, 8, 32, 8);
-            // Bottom face (96, 8) - 32x8
-            copyResized(logTop, atlas, 96, 8, 32, 8);
-
-            // 4. Leaves (texOffs(64, 16)) - 16x16x16 box
-            // Using corrected UV mapping:
-            // (6,2) and (7,2) = (96, 32) and (112, 32) should be leaves
-            copyResized(leaves, atlas, 64, 16, 16, 16); // (4,1)
-            copyResized(leaves, atlas, 80, 16, 16, 16); // (5,1)
-            copyResized(leaves, atlas, 96, 16, 16, 16); // (6,1)
-            copyResized(leaves, atlas, 112, 16, 16, 16); // (7,1)
-            copyResized(leaves, atlas, 64, 32, 16, 16); // (4,2)
-            copyResized(leaves, atlas, 80, 32, 16, 16); // (5,2)
-            copyResized(leaves, atlas, 96, 32, 16, 16); // (6,2) - leaves ✓
-            copyResized(leaves, atlas, 112, 32, 16, 16); // (7,2) - leaves ✓
-
-            // DEBUG: Uncomment to draw coordinate grid for debugging
-            // drawDebugGrid(atlas);
-
-            // Register as dynamic texture
-            ResourceLocation atlasLocation = ResourceLocation.fromNamespaceAndPath(KamiGami.MODID,
-                    "dynamic/" + cacheKey);
-            DynamicTexture dynamicTexture = new DynamicTexture(() -> "Tatari Tree atlas: " + cacheKey, atlas);
-            minecraft.getTextureManager().register(atlasLocation, dynamicTexture);
-
-            // Cache and return
-            processedTextureCache.put(cacheKey, atlasLocation);
-            KamiGami.LOGGER.info("Created Tatari Tree texture atlas: {}", atlasLocation);
-
-            // Close source images
-            logSide.close();
-            logTop.close();
-            pumpkinFace.close();
-            pumpkinSide.close();
-            pumpkinTop.close();
-            leaves.close();
-
-            return atlasLocation;
-        } catch (IOException e) {
-            KamiGami.LOGGER.error("Failed to create Tatari Tree texture atlas", e);
-            // Fallback to original texture if it exists
-            return ResourceLocation.fromNamespaceAndPath(KamiGami.MODID, "textures/entity/tatari_tree/tatari_tree.png");
-        }
+    private static ProcessedTexture fromRecipe(ResourceLocation recipeId, ResourceLocation placeholder,
+            String cacheKey) {
+        return generate(cacheKey, placeholder, "Texture recipe " + recipeId, resourceManager -> {
+            TextureRecipe recipe = TextureRecipe.load(resourceManager, recipeId);
+            // The recipe file itself is hashed too, so editing it invalidates the disk cache
+            List<ResourceLocation> inputs = new ArrayList<>();
+            inputs.add(TextureRecipe.fileLocation(recipeId));
+            inputs.addAll(recipe.textures());
+            return TextureDiskCache.getOrCreate(resourceManager, cacheKey, "recipe", inputs,
+                    () -> TextureRecipeExecutor.execute(resourceManager, recipe));
+        });
     }
 
     /**
      * Loads a texture from the resource manager.
      */
-    private static NativeImage loadTexture(ResourceManager resourceManager, ResourceLocation location)
+    static NativeImage loadTexture(ResourceManager resourceManager, ResourceLocation location)
             throws IOException {
         Resource resource = resourceManager.getResource(location)
                 .orElseThrow(() -> new IOException("Texture not found: " + location));
@@ -294,61 +229,42 @@ public class TextureProcessor {
     }
 
     /**
-     * Processes a NativeImage by rotating hue and adjusting brightness.
+     * Adjusts the brightness of a single pixel, keeping its alpha.
      *
-     * @param source
-     *            Source image to process
-     * @param rotateHue
-     *            Whether to rotate hue to green tones
+     * @param pixel
+     *            Original pixel (ARGB)
      * @param brightness
      *            Brightness adjustment (-255 to 255)
-     * @return New processed image (original is not modified)
+     * @return Processed pixel (ARGB)
      */
-    private static NativeImage processTextureImage(NativeImage source, boolean rotateHue, int brightness) {
-        NativeImage processed = new NativeImage(source.format(), source.getWidth(), source.getHeight(), false);
-
-        for (int y = 0; y < source.getHeight(); y++) {
-            for (int x = 0; x < source.getWidth(); x++) {
-                int pixel = source.getPixel(x, y);
-
-                // Extract ABGR components
-                int a = (pixel >> 24) & 0xFF;
-                int r = (pixel >> 16) & 0xFF;
-                int g = (pixel >> 8) & 0xFF;
-                int b = pixel & 0xFF;
-
-                if (rotateHue) {
-                    // Convert RGB to HSV for hue rotation
-                    float[] hsv = rgbToHsv(r, g, b);
-
-                    // Rotate hue: orange/red (0-30°) -> green (120°)
-                    // Subtract 90° to shift warm colors to green tones
-                    // (orange at 30° - 90° = -60° = 300° (wraps around))
-                    hsv[0] = (hsv[0] + 60.0f + 360.0f) % 360.0f;
-
-                    // Convert back to RGB
-                    int[] rgb = hsvToRgb(hsv[0], hsv[1], hsv[2]);
-                    r = rgb[0];
-                    g = rgb[1];
-                    b = rgb[2];
-                }
-
-                // Apply brightness adjustment
-                r = clamp(r + brightness);
-                g = clamp(g + brightness);
-                b = clamp(b + brightness);
+    static int processPixelBrightness(int pixel, int brightness) {
+        // Extract ARGB components (callers convert from the NativeImage ABGR layout first)
+        int a = (pixel >> 24) & 0xFF;
+        int r = clamp(((pixel >> 16) & 0xFF) + brightness);
+        int g = clamp(((pixel >> 8) & 0xFF) + brightness);
+        int b = clamp((pixel & 0xFF) + brightness);
 
-                // Reconstruct ABGR pixel
-                int processedPixel = (a << 24) | (r << 16) | (g << 8) | b;
-                processed.setPixel(x, y, processedPixel);
-            }
-        }
+        // Reconstruct ARGB pixel
+        return (a << 24) | (r << 16) | (g << 8) | b;
+    }
 
-        return processed;
+    /**
+     * Rotates the hue of a single pixel, keeping its alpha.
+     *
+     * @param pixel
+     *            Original pixel
+     * @param degrees
+     *            Hue rotation in degrees
+     * @return Processed pixel
+     */
+    static int processPixelRotateHue(int pixel, float degrees) {
+        int rgb = shiftHue((pixel >> 16) & 0xFF, (pixel >> 8) & 0xFF, pixel & 0xFF, degrees);
+        return (pixel & 0xFF000000) | rgb;
     }
 
     /**
-     * Converts RGB to HSV color space.
+     * Rotates the hue of an RGB color by converting to HSV and back. Works on
+     * locals only so it can run per pixel without allocating.
      *
      * @param r
      *            Red (0-255)
@@ -356,9 +272,12 @@ public class TextureProcessor {
      *            Green (0-255)
      * @param b
      *            Blue (0-255)
-     * @return HSV array [hue (0-360), saturation (0-1), value (0-1)]
+     * @param degrees
+     *            Hue rotation in degrees
+     * @return Rotated color packed as 0xRRGGBB
      */
-    private static float[] rgbToHsv(int r, int g, int b) {
+    private static int shiftHue(int r, int g, int b, float degrees) {
+        // RGB -> HSV
         float rf = r / 255.0f;
         float gf = g / 255.0f;
         float bf = b / 255.0f;
@@ -385,94 +304,44 @@ public class TextureProcessor {
             h += 360;
         }
 
-        return new float[]{h, s, v};
-    }
+        h = (h + degrees + 360.0f) % 360.0f;
 
-    /**
-     * Converts HSV to RGB color space.
-     *
-     * @param h
-     *            Hue (0-360)
-     * @param s
-     *            Saturation (0-1)
-     * @param v
-     *            Value (0-1)
-     * @return RGB array [r, g, b] (0-255)
-     */
-    private static int[] hsvToRgb(float h, float s, float v) {
+        // HSV -> RGB
         float c = v * s;
         float x = c * (1 - Math.abs(((h / 60) % 2) - 1));
         float m = v - c;
 
-        float rf, gf, bf;
+        float ro, go, bo;
         if (h < 60) {
-            rf = c;
-            gf = x;
-            bf = 0;
+            ro = c;
+            go = x;
+            bo = 0;
         } else if (h < 120) {
-            rf = x;
-            gf = c;
-            bf = 0;
+            ro = x;
+            go = c;
+            bo = 0;
         } else if (h < 180) {
-            rf = 0;
-            gf = c;
-            bf = x;
+            ro = 0;
+            go = c;
+            bo = x;
         } else if (h < 240) {
-            rf = 0;
-            gf = x;
-            bf = c;
+            ro = 0;
+            go = x;
+            bo = c;
         } else if (h < 300) {
-            rf = x;
-            gf = 0;
-            bf = c;
+            ro = x;
+            go = 0;
+            bo = c;
         } else {
-            rf = c;
-            gf = 0;
-            bf = x;
+            ro = c;
+            go = 0;
+            bo = x;
         }
 
-        int r = Math.round((rf + m) * 255);
-        int g = Math.round((gf + m) * 255);
-        int b = Math.round((bf + m) * 255);
-
-        return new int[]{r, g, b};
-    }
-
-    /**
-     * Copies and resizes a source image to a destination image at a specific
-     * position. Uses nearest-neighbor filtering to maintain pixel art style.
-     *
-     * @param source
-     *            Source image
-     * @param dest
-     *            Destination image
-     * @param destX
-     *            X position in destination
-     * @param destY
-     *            Y position in destination
-     * @param width
-     *            Target width
-     * @param height
-     *            Target height
-     */
-    private static void copyResized(NativeImage source, NativeImage dest, int destX, int destY, int width, int height) {
-        int srcWidth = source.getWidth();
-        int srcHeight = source.getHeight();
-
-        for (int y = 0; y < height; y++) {
-            for (int x = 0; x < width; x++) {
-                // Nearest-neighbor sampling
-                int srcX = (x * srcWidth) / width;
-                int srcY = (y * srcHeight) / height;
-
-                // Clamp to valid range
-                srcX = Math.min(srcX, srcWidth - 1);
-                srcY = Math.min(srcY, srcHeight - 1);
-
-                int pixel = source.getPixel(srcX, srcY);
-                dest.setPixel(destX + x, destY + y, pixel);
-            }
-        }
+        int outR = Math.round((ro + m) * 255);
+        int outG = Math.round((go + m) * 255);
+        int outB = Math.round((bo + m) * 255);
+        return (outR << 16) | (outG << 8) | outB;
     }
 
     /**
@@ -483,7 +352,7 @@ public class TextureProcessor {
      *            The atlas image to draw on
      */
     @SuppressWarnings("unused")
-    private static void drawDebugGrid(NativeImage atlas) {
+    static void drawDebugGrid(NativeImage atlas) {
         // White color for text (ABGR format)
         int white = 0xFFFFFFFF;
 
@@ -576,46 +445,18 @@ public class TextureProcessor {
      *
      * @param cacheKey
      *            Unique key for caching the processed texture
-     * @return ResourceLocation of the processed texture
+     * @return Handle to the processed texture
      */
-    public static ResourceLocation createFireGolemTexture(String cacheKey) {
-        // Check cache first
-        if (processedTextureCache.containsKey(cacheKey)) {
-            return processedTextureCache.get(cacheKey);
-        }
-
-        try {
-            Minecraft minecraft = Minecraft.getInstance();
-            ResourceManager resourceManager = minecraft.getResourceManager();
-
-            // Load vanilla iron golem texture
-            ResourceLocation vanillaTexture = ResourceLocation
-                    .withDefaultNamespace("textures/entity/iron_golem/iron_golem.png");
-            NativeImage ironGolemTexture = loadTexture(resourceManager, vanillaTexture);
-
-            // Process texture: shift hue to red/orange (fire) tones
-            NativeImage fireGolemTexture = processTextureImageForFire(ironGolemTexture);
-
-            // Register as dynamic texture
-            ResourceLocation fireGolemLocation = ResourceLocation.fromNamespaceAndPath(KamiGami.MODID,
-                    "dynamic/" + cacheKey);
-            DynamicTexture dynamicTexture = new DynamicTexture(() -> "Fire Golem texture: " + cacheKey,
-                    fireGolemTexture);
-            minecraft.getTextureManager().register(fireGolemLocation, dynamicTexture);
-
-            // Cache and return
-            processedTextureCache.put(cacheKey, fireGolemLocation);
-            KamiGami.LOGGER.info("Created Fire Golem texture: {}", fireGolemLocation);
-
-            // Close source image
-            ironGolemTexture.close();
-
-            return fireGolemLocation;
-        } catch (IOException e) {
-            KamiGami.LOGGER.error("Failed to create Fire Golem texture, using fallback", e);
-            // Fallback to vanilla iron golem texture
-            return ResourceLocation.withDefaultNamespace("textures/entity/iron_golem/iron_golem.png");
-        }
+    public static ProcessedTexture createFireGolemTexture(String cacheKey) {
+        // Until the texture is ready (or if processing fails), use the vanilla iron golem texture
+        return generate(cacheKey, IRON_GOLEM, "Fire Golem texture",
+                resourceManager -> TextureDiskCache.getOrCreate(resourceManager, cacheKey, "fire",
+                        List.of(IRON_GOLEM), () -> {
+                            // Shift the hue of the vanilla iron golem texture to red/orange (fire) tones
+                            try (NativeImage ironGolemTexture = loadTexture(resourceManager, IRON_GOLEM)) {
+                                return processTextureImageForFire(ironGolemTexture);
+                            }
+                        }));
     }
 
     /**
@@ -629,43 +470,59 @@ public class TextureProcessor {
     private static NativeImage processTextureImageForFire(NativeImage source) {
         NativeImage processed = new NativeImage(source.format(), source.getWidth(), source.getHeight(), false);
 
-        // Target fire color: RGB(255, 64, 64)
-        final int targetR = 255;
-        final int targetG = 64;
-        final int targetB = 0;
-        final float weight = 0.75f; // 75% interpolation
-
-        for (int y = 0; y < source.getHeight(); y++) {
-            for (int x = 0; x < source.getWidth(); x++) {
-                int pixel = source.getPixel(x, y);
-
-                // Extract ABGR components
-                int a = (pixel >> 24) & 0xFF;
-                int r = (pixel >> 16) & 0xFF;
-                int g = (pixel >> 8) & 0xFF;
-                int b = pixel & 0xFF;
-
-                // Linear interpolation (50% internal division point) between original and
-                // target
-                // newColor = original * (1 - weight) + target * weight
-                int newR = (int) (r * (1 - weight) + targetR * weight);
-                int newG = (int) (g * (1 - weight) + targetG * weight);
-                int newB = (int) (b * (1 - weight) + targetB * weight);
-
-                // Reconstruct ABGR pixel
-                int processedPixel = (a << 24) | (newR << 16) | (newG << 8) | newB;
-                processed.setPixel(x, y, processedPixel);
-            }
-        }
+        PixelKernels.apply(source, processed, TextureProcessor::processPixelFire);
 
         return processed;
     }
 
     /**
-     * Clears the texture cache. Call this when resources are reloaded.
+     * Processes a single pixel for {@link #processTextureImageForFire} by
+     * interpolating it towards the fire color.
+     *
+     * @param pixel
+     *            Original pixel
+     * @return Processed pixel
+     */
+    static int processPixelFire(int pixel) {
+        // 75% interpolation towards orange-red (255, 64, 0)
+        return processPixelTint(pixel, 0xFF4000, 0.75f);
+    }
+
+    /**
+     * Interpolates a pixel towards a fixed colour, keeping its alpha.
+     *
+     * @param pixel
+     *            Original pixel
+     * @param color
+     *            Target colour as 0xRRGGBB
+     * @param weight
+     *            Interpolation weight (0.0 = original, 1.0 = target colour)
+     * @return Processed pixel
+     */
+    static int processPixelTint(int pixel, int color, float weight) {
+        int targetR = (color >> 16) & 0xFF;
+        int targetG = (color >> 8) & 0xFF;
+        int targetB = color & 0xFF;
+
+        int a = (pixel >> 24) & 0xFF;
+        int r = (pixel >> 16) & 0xFF;
+        int g = (pixel >> 8) & 0xFF;
+        int b = pixel & 0xFF;
+
+        int newR = (int) (r * (1 - weight) + targetR * weight);
+        int newG = (int) (g * (1 - weight) + targetG * weight);
+        int newB = (int) (b * (1 - weight) + targetB * weight);
+
+        return (a << 24) | (newR << 16) | (newG << 8) | newB;
+    }
+
+    /**
+     * Releases all processed textures. Handles held by existing renderers fall
+     * back to their placeholders; textures are generated again when renderers are
+     * rebuilt. Resource reloads do this automatically. Must be called on the
+     * render thread.
      */
     public static void clearCache() {
-        processedTextureCache.clear();
-        KamiGami.LOGGER.info("Texture processor cache cleared");
+        ProcessedTextureRegistry.INSTANCE.clear();
     }
 }
@@ -0,0 +1,149 @@
+package com.hydryhydra.kamigami.client.util;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
+import com.mojang.serialization.Codec;
+import com.mojang.serialization.DataResult;
+import com.mojang.serialization.JsonOps;
+import com.mojang.serialization.codecs.RecordCodecBuilder;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.server.packs.resources.Resource;
+import net.minecraft.server.packs.resources.ResourceManager;
+
+/**
+ * Declarative description of a generated texture, loaded from
+ * {@code assets/<namespace>/texture_recipes/<path>.json}.
+ *
+ * A recipe names its source textures, the colour operations applied to each
+ * source, and optionally where each source is placed in an atlas:
+ *
+ * <pre>
+ * {
+ *   "width": 256, "height": 256,
+ *   "sources": {
+ *     "log_side": {
+ *       "texture": "minecraft:textures/block/oak_log.png",
+ *       "ops": [{"type": "hue_rotate", "degrees": 60}, {"type": "brightness", "amount": -50}]
+ *     }
+ *   },
+ *   "placements": [{"source": "log_side", "x": 0, "y": 0, "width": 16, "height": 16}]
+ * }
+ * </pre>
+ *
+ * Without placements the recipe must have exactly one source, and the result
+ * is that source after its operations, at its original size. Placement sizes
+ * default to the size of the source. See {@link TextureRecipeExecutor} for how
+ * recipes are built.
+ *
+ * @param width
+ *            Atlas width (required when there are placements)
+ * @param height
+ *            Atlas height (required when there are placements)
+ * @param sources
+ *            Source textures by name
+ * @param placements
+ *            Atlas placements, applied in order
+ */
+record TextureRecipe(Optional<Integer> width, Optional<Integer> height, Map<String, Source> sources,
+        List<Placement> placements) {
+
+    private static final String DIRECTORY = "texture_recipes";
+
+    /**
+     * A source texture and the operations applied to it.
+     */
+    record Source(ResourceLocation texture, List<TextureOp> ops) {
+        static final Codec<Source> CODEC = RecordCodecBuilder.create(instance -> instance
+                .group(ResourceLocation.CODEC.fieldOf("texture").forGetter(Source::texture),
+                        TextureOp.CODEC.listOf().optionalFieldOf("ops", List.of()).forGetter(Source::ops))
+                .apply(instance, Source::new));
+    }
+
+    /**
+     * Places a processed source at a position in the atlas.
+     */
+    record Placement(String source, int x, int y, Optional<Integer> width, Optional<Integer> height) {
+        static final Codec<Placement> CODEC = RecordCodecBuilder.create(instance -> instance
+                .group(Codec.STRING.fieldOf("source").forGetter(Placement::source),
+                        Codec.intRange(0, 4096).fieldOf("x").forGetter(Placement::x),
+                        Codec.intRange(0, 4096).fieldOf("y").forGetter(Placement::y),
+                        Codec.intRange(1, 4096).optionalFieldOf("width").forGetter(Placement::width),
+                        Codec.intRange(1, 4096).optionalFieldOf("height").forGetter(Placement::height))
+                .apply(instance, Placement::new));
+    }
+
+    static final Codec<TextureRecipe> CODEC = RecordCodecBuilder
+            .<TextureRecipe>create(instance -> instance
+                    .group(Codec.intRange(1, 4096).optionalFieldOf("width").forGetter(TextureRecipe::width),
+                            Codec.intRange(1, 4096).optionalFieldOf("height").forGetter(TextureRecipe::height),
+                            Codec.unboundedMap(Codec.STRING, Source.CODEC).fieldOf("sources")
+                                    .forGetter(TextureRecipe::sources),
+                            Placement.CODEC.listOf().optionalFieldOf("placements", List.of())
+                                    .forGetter(TextureRecipe::placements))
+                    .apply(instance, TextureRecipe::new))
+            .validate(TextureRecipe::validate);
+
+    private static DataResult<TextureRecipe> validate(TextureRecipe recipe) {
+        if (recipe.sources().isEmpty()) {
+            return DataResult.error(() -> "Texture recipe has no sources");
+        }
+        if (recipe.placements().isEmpty()) {
+            return recipe.sources().size() == 1
+                    ? DataResult.success(recipe)
+                    : DataResult.error(() -> "Texture recipe without placements must have exactly one source");
+        }
+        if (recipe.width().isEmpty() || recipe.height().isEmpty()) {
+            return DataResult.error(() -> "Texture recipe with placements needs width and height");
+        }
+        for (Placement placement : recipe.placements()) {
+            if (!recipe.sources().containsKey(placement.source())) {
+                return DataResult.error(() -> "Unknown source in placement: " + placement.source());
+            }
+        }
+        return DataResult.success(recipe);
+    }
+
+    /**
+     * Returns the resource location of the recipe file for a recipe ID.
+     */
+    static ResourceLocation fileLocation(ResourceLocation id) {
+        return id.withPath(path -> DIRECTORY + "/" + path + ".json");
+    }
+
+    /**
+     * Loads and parses a recipe from the resource manager.
+     *
+     * @throws IOException
+     *             If the recipe file is missing or invalid
+     */
+    static TextureRecipe load(ResourceManager resourceManager, ResourceLocation id) throws IOException {
+        ResourceLocation file = fileLocation(id);
+        Resource resource = resourceManager.getResource(file)
+                .orElseThrow(() -> new IOException("Texture recipe not found: " + file));
+        JsonElement json;
+        try (Reader reader = resource.openAsReader()) {
+            json = JsonParser.parseReader(reader);
+        } catch (RuntimeException e) {
+            throw new IOException("Failed to read texture recipe " + file, e);
+        }
+        return CODEC.parse(JsonOps.INSTANCE, json)
+                .getOrThrow(message -> new IOException("Invalid texture recipe " + file + ": " + message));
+    }
+
+    /**
+     * Returns all source textures, in the order they are listed.
+     */
+    List<ResourceLocation> textures() {
+        List<ResourceLocation> textures = new ArrayList<>(sources.size());
+        for (Source source : sources.values()) {
+            textures.add(source.texture());
+        }
+        return textures;
+    }
+}
@@ -0,0 +1,62 @@
+package com.hydryhydra.kamigami.client.util;
+
+import com.mojang.blaze3d.platform.NativeImage;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import net.minecraft.server.packs.resources.ResourceManager;
+
+/**
+ * Builds the image described by a {@link TextureRecipe}.
+ *
+ * Each source is decoded once and all of its colour operations run as a single
+ * fused pass in place (see {@link TextureOp#fuse}). Placements are then copied
+ * straight from the processed sources into a zero-initialized atlas, so no
+ * intermediate per-tile images are created.
+ */
+final class TextureRecipeExecutor {
+    private TextureRecipeExecutor() {
+    }
+
+    /**
+     * Builds the recipe. The caller owns the returned image.
+     *
+     * @throws IOException
+     *             If a source texture is missing or cannot be decoded
+     */
+    static NativeImage execute(ResourceManager resourceManager, TextureRecipe recipe) throws IOException {
+        Map<String, NativeImage> processed = new HashMap<>();
+        try {
+            for (Map.Entry<String, TextureRecipe.Source> entry : recipe.sources().entrySet()) {
+                TextureRecipe.Source source = entry.getValue();
+                NativeImage image = TextureProcessor.loadTexture(resourceManager, source.texture());
+                processed.put(entry.getKey(), image);
+                if (!source.ops().isEmpty()) {
+                    PixelKernels.apply(image, image, TextureOp.fuse(source.ops()));
+                }
+            }
+
+            if (recipe.placements().isEmpty()) {
+                // Single-source recipe: the processed source is the result
+                String name = recipe.sources().keySet().iterator().next();
+                return processed.remove(name);
+            }
+
+            NativeImage atlas = new NativeImage(NativeImage.Format.RGBA, recipe.width().orElseThrow(),
+                    recipe.height().orElseThrow(), true);
+            try {
+                for (TextureRecipe.Placement placement : recipe.placements()) {
+                    NativeImage source = processed.get(placement.source());
+                    PixelKernels.blitScaled(source, atlas, placement.x(), placement.y(),
+                            placement.width().orElse(source.getWidth()), placement.height().orElse(source.getHeight()));
+                }
+            } catch (IllegalArgumentException e) {
+                atlas.close();
+                throw new IOException("Invalid placement in texture recipe", e);
+            }
+            return atlas;
+        } finally {
+            processed.values().forEach(NativeImage::close);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.hydryhydra.kamigami.command;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+import com.hydryhydra.kamigami.KamiGami;
+import com.hydryhydra.kamigami.curse.CurseProfiler;
+import com.mojang.brigadier.CommandDispatcher;
+import com.mojang.brigadier.builder.LiteralArgumentBuilder;
+import com.mojang.brigadier.context.CommandContext;
+
+import net.minecraft.commands.CommandSourceStack;
+import net.minecraft.commands.Commands;
+import net.minecraft.network.chat.Component;
+import net.neoforged.bus.api.SubscribeEvent;
+import net.neoforged.fml.common.EventBusSubscriber;
+import net.neoforged.neoforge.event.RegisterCommandsEvent;
+
+/**
+ * /kamigami コマンド（管理者用）
+ *
+ * - /kamigami profile start|stop|reset: 祟りプロファイラの制御 - /kamigami profile show: 実行時間の大きいレシピを表示 -
+ * /kamigami profile dump: 集計を JSON ファイルに書き出す
+ */
+@EventBusSubscriber(modid = KamiGami.MODID)
+public class KamiGamiCommands {
+    // show で表示するレシピ数
+    private static final int SHOW_LIMIT = 10;
+
+    @SubscribeEvent
+    public static void onRegisterCommands(RegisterCommandsEvent event) {
+        register(event.getDispatcher());
+    }
+
+    private static void register(CommandDispatcher<CommandSourceStack> dispatcher) {
+        dispatcher.register(Commands.literal(KamiGami.MODID).requires(source -> source.hasPermission(2))
+                .then(profileCommand()));
+    }
+
+    private static LiteralArgumentBuilder<CommandSourceStack> profileCommand() {
+        return Commands.literal("profile").then(Commands.literal("start").executes(ctx -> {
+            CurseProfiler.setEnabled(true);
+            ctx.getSource().sendSuccess(() -> Component.literal("Curse profiler started"), true);
+            return 1;
+        })).then(Commands.literal("stop").executes(ctx -> {
+            CurseProfiler.setEnabled(false);
+            ctx.getSource().sendSuccess(() -> Component.literal("Curse profiler stopped"), true);
+            return 1;
+        })).then(Commands.literal("reset").executes(ctx -> {
+            CurseProfiler.reset();
+            ctx.getSource().sendSuccess(() -> Component.literal("Curse profiler reset"), true);
+            return 1;
+        })).then(Commands.literal("show").executes(KamiGamiCommands::showProfile))
+                .then(Commands.literal("dump").executes(KamiGamiCommands::dumpProfile));
+    }
+
+    private static int showProfile(CommandContext<CommandSourceStack> ctx) {
+        CommandSourceStack source = ctx.getSource();
+        List<CurseProfiler.RecipeStats> stats = CurseProfiler.snapshot();
+        source.sendSuccess(() -> Component.literal("Curse profiler (" + (CurseProfiler.isEnabled() ? "on" : "off")
+                + "), " + stats.size() + " recipes:"), false);
+
+        for (CurseProfiler.RecipeStats recipe : stats.subList(0, Math.min(SHOW_LIMIT, stats.size()))) {
+            String line = String.format("%s: %d calls, %.2f ms, %d positions, %d blocks, %d entities", recipe.id(),
+                    recipe.calls(), recipe.nanos() / 1_000_000.0, recipe.positions(), recipe.blocksChanged(),
+                    recipe.entitiesSpawned());
+            source.sendSuccess(() -> Component.literal(line), false);
+        }
+        return stats.size();
+    }
+
+    private static int dumpProfile(CommandContext<CommandSourceStack> ctx) {
+        CommandSourceStack source = ctx.getSource();
+        Path directory = source.getServer().getServerDirectory().resolve(KamiGami.MODID).resolve("profiles");
+        try {
+            Path file = CurseProfiler.dump(directory);
+            source.sendSuccess(() -> Component.literal("Curse profile written to " + file), true);
+            return 1;
+        } catch (IOException e) {
+            KamiGami.LOGGER.error("Failed to write curse profile", e);
+            source.sendFailure(Component.literal("Failed to write curse profile: " + e.getMessage()));
+            return 0;
+        }
+    }
+}
@@ -7,10 +7,15 @@ import net.minecraft.server.level.ServerLevel;
 import net.minecraft.util.RandomSource;
 import net.minecraft.world.entity.player.Player;
 import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.level.block.state.BlockState;
 
 /**
  * アクション実行時のコンテキスト情報を保持するレコード。
  *
+ * 範囲の実行中は {@link #frame} で作った1つのコンテキストを全座標で使い回す。 その場合 origin は書き換えられるカーソル、
+ * random はシードし直される生成器なので、perform から戻った後まで座標やコンテキストを保持するアクションは
+ * {@link #immutable()} で固定したものを保持すること。
+ *
  * @param level
  *            サーバーレベル（ワールド）
  * @param origin
@@ -21,7 +26,66 @@ import net.minecraft.world.item.ItemStack;
  *            祠に入っていたアイテム（呪いの対象）
  * @param random
  *            乱数生成器（再現性のあるシード付き）
+ * @param seed
+ *            祟り1回の実行ごとのシード（範囲内の座標ごとの乱数の元。 {@link PositionalRandom#curseSeed} を参照）
+ * @param edits
+ *            ブロック変更の書き込み先（null の場合はワールドへ直接書き込む）
  */
 public record ActionContext(ServerLevel level, BlockPos origin, @Nullable Player player, ItemStack cursedItem,
-        RandomSource random) {
+        RandomSource random, long seed, @Nullable BlockEditBuffer edits) {
+
+    public ActionContext(ServerLevel level, BlockPos origin, @Nullable Player player, ItemStack cursedItem,
+            RandomSource random, long seed) {
+        this(level, origin, player, cursedItem, random, seed, null);
+    }
+
+    /**
+     * 範囲の実行フレームを作成する。 呼び出し側が座標ごとに cursor を動かし posRandom をシードし直すことで、
+     * 座標ごとに ActionContext や BlockPos を作らずに同じフレームを渡し続けられる。 シードは引き継ぐ。
+     *
+     * @param cursor
+     *            現在の座標（フレームの origin になる）
+     * @param posRandom
+     *            座標ごとにシードし直す乱数生成器
+     * @param posEdits
+     *            ブロック変更の書き込み先
+     * @return 実行フレーム
+     */
+    public ActionContext frame(BlockPos.MutableBlockPos cursor, RandomSource posRandom,
+            @Nullable BlockEditBuffer posEdits) {
+        return new ActionContext(level, cursor, player, cursedItem, posRandom, seed, posEdits);
+    }
+
+    /**
+     * 現在の座標と乱数の状態を固定したコンテキストを返す。 フレームでない場合はそのまま返す。
+     *
+     * 返したコンテキストはフレームの座標・乱数と共有しないため、perform の後まで保持してよい。 書き込み先は共有したままなので、
+     * 範囲の処理が終わった後に使う場合は書き込み先を持たないコンテキストを別途作ること。
+     */
+    public ActionContext immutable() {
+        if (!(origin instanceof BlockPos.MutableBlockPos)) {
+            return this;
+        }
+        RandomSource fixedRandom = random instanceof PositionalRandom positional ? positional.copy() : random;
+        return new ActionContext(level, origin.immutable(), player, cursedItem, fixedRandom, seed, edits);
+    }
+
+    /**
+     * 未適用の変更を考慮してブロック状態を取得する。
+     */
+    public BlockState getBlockState(BlockPos pos) {
+        return edits != null ? edits.getBlockState(pos) : level.getBlockState(pos);
+    }
+
+    /**
+     * ブロックを変更する。 バッファがある場合は追記のみ行い、まとめて適用する。
+     */
+    public void setBlock(BlockPos pos, BlockState state) {
+        if (edits != null) {
+            // 変更数はバッファの適用時に数える
+            edits.setBlock(pos, state);
+        } else if (level.setBlock(pos, state, 3)) {
+            CurseProfiler.recordBlockChange();
+        }
+    }
 }
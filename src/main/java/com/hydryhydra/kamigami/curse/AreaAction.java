@@ -1,13 +1,15 @@
 package com.hydryhydra.kamigami.curse;
 
+import javax.annotation.Nullable;
+
 import com.hydryhydra.kamigami.KamiGami;
 import com.mojang.serialization.Codec;
 import com.mojang.serialization.MapCodec;
 import com.mojang.serialization.codecs.RecordCodecBuilder;
 
 import net.minecraft.core.BlockPos;
-import net.minecraft.util.Mth;
-import net.minecraft.util.RandomSource;
+import net.minecraft.world.level.LevelReader;
+import net.minecraft.world.level.levelgen.structure.BoundingBox;
 import net.minecraft.world.phys.Vec3;
 
 /**
@@ -28,16 +30,24 @@ import net.minecraft.world.phys.Vec3;
  *   }
  * }
  * </pre>
+ *
+ * shape は "type" で球・円柱・地表などの形状も指定できる（{@link AreaShapes} を参照）。 形状に含まれる座標だけを訪れるため、
+ * 大きな Box と ChanceAction で球や輪を近似するより処理する座標が少ない。
+ *
+ * <pre>
+ * "shape": {"type": "surface", "radius": 8, "depth": 1}
+ * </pre>
  */
-public record AreaAction(Box shape, CurseAction perPosition) implements CurseAction {
+public record AreaAction(AreaShape shape, CurseAction perPosition) implements CurseAction {
 
     /**
-     * 3D矩形範囲を表すレコード。 座標は起点（祠の位置）からの相対座標。
+     * 3D矩形範囲を表すレコード。 座標は起点（祠の位置）からの相対座標。 JSON では "type" を省略できる（"type": "box" も可）。
      */
-    public record Box(Vec3 min, Vec3 max) {
-        public static final Codec<Box> CODEC = RecordCodecBuilder.create(instance -> instance
+    public record Box(Vec3 min, Vec3 max) implements AreaShape {
+        public static final MapCodec<Box> MAP_CODEC = RecordCodecBuilder.mapCodec(instance -> instance
                 .group(Vec3.CODEC.fieldOf("min").forGetter(Box::min), Vec3.CODEC.fieldOf("max").forGetter(Box::max))
                 .apply(instance, Box::new));
+        public static final Codec<Box> CODEC = MAP_CODEC.codec();
 
         /**
          * この範囲内の全ブロック座標を起点からの相対座標として反復する。
@@ -56,10 +66,87 @@ public record AreaAction(Box shape, CurseAction perPosition) implements CurseAct
 
             return BlockPos.betweenClosed(minX, minY, minZ, maxX, maxY, maxZ);
         }
+
+        /**
+         * 起点を基準にした範囲の絶対座標を返す。
+         *
+         * @param origin
+         *            起点座標（祠の位置）
+         * @return 範囲を囲むバウンディングボックス（両端を含む）
+         */
+        public BoundingBox bounds(BlockPos origin) {
+            return new BoundingBox(origin.getX() + (int) Math.floor(min.x), origin.getY() + (int) Math.floor(min.y),
+                    origin.getZ() + (int) Math.floor(min.z), origin.getX() + (int) Math.floor(max.x),
+                    origin.getY() + (int) Math.floor(max.y), origin.getZ() + (int) Math.floor(max.z));
+        }
+
+        /**
+         * 範囲内の座標数を返す。
+         */
+        public int volume() {
+            long sizeX = (long) Math.floor(max.x) - (long) Math.floor(min.x) + 1;
+            long sizeY = (long) Math.floor(max.y) - (long) Math.floor(min.y) + 1;
+            long sizeZ = (long) Math.floor(max.z) - (long) Math.floor(min.z) + 1;
+            if (sizeX <= 0 || sizeY <= 0 || sizeZ <= 0) {
+                return 0;
+            }
+            return (int) Math.min(Integer.MAX_VALUE, sizeX * sizeY * sizeZ);
+        }
+
+        /**
+         * iterate と同じ順序（X → Y → Z）で index 番目の座標を求める。 分割実行で途中から再開するために使う。
+         *
+         * @param origin
+         *            起点座標（祠の位置）
+         * @param index
+         *            0 以上 volume() 未満の通し番号
+         * @param out
+         *            結果を書き込む座標
+         * @return out
+         */
+        public BlockPos.MutableBlockPos positionAt(BlockPos origin, int index, BlockPos.MutableBlockPos out) {
+            int minX = (int) Math.floor(min.x);
+            int minY = (int) Math.floor(min.y);
+            int minZ = (int) Math.floor(min.z);
+            int sizeX = (int) Math.floor(max.x) - minX + 1;
+            int sizeY = (int) Math.floor(max.y) - minY + 1;
+
+            int dx = index % sizeX;
+            int rest = index / sizeX;
+            int dy = rest % sizeY;
+            int dz = rest / sizeY;
+            return out.set(origin.getX() + minX + dx, origin.getY() + minY + dy, origin.getZ() + minZ + dz);
+        }
+
+        @Override
+        public Iterable<BlockPos> iterate(@Nullable LevelReader level, BlockPos origin) {
+            return iterate(origin);
+        }
+
+        @Override
+        public BlockPos.MutableBlockPos positionAt(@Nullable LevelReader level, BlockPos origin, int index,
+                BlockPos.MutableBlockPos out) {
+            return positionAt(origin, index, out);
+        }
+
+        @Override
+        public boolean contains(@Nullable LevelReader level, BlockPos origin, BlockPos pos) {
+            return volume() > 0 && bounds(origin).isInside(pos);
+        }
+
+        @Override
+        public BoundingBox bounds(@Nullable LevelReader level, BlockPos origin) {
+            return bounds(origin);
+        }
+
+        @Override
+        public MapCodec<Box> codec() {
+            return MAP_CODEC;
+        }
     }
 
     public static final MapCodec<AreaAction> CODEC = RecordCodecBuilder.mapCodec(instance -> instance
-            .group(Box.CODEC.fieldOf("shape").forGetter(AreaAction::shape),
+            .group(AreaShapes.CODEC.fieldOf("shape").forGetter(AreaAction::shape),
                     CurseActions.ACTION_CODEC.fieldOf("per_position").forGetter(AreaAction::perPosition))
             .apply(instance, AreaAction::new));
 
@@ -68,46 +155,38 @@ public record AreaAction(Box shape, CurseAction perPosition) implements CurseAct
         boolean anyExecuted = false;
         int positionCount = 0;
 
-        for (BlockPos pos : shape.iterate(ctx.origin())) {
+        // 範囲内のブロック変更はバッファにまとめ、最後にセクション単位で適用する
+        // （外側の AreaAction がバッファを持っている場合はそれを共有する）
+        boolean ownsBuffer = ctx.edits() == null;
+        BlockEditBuffer edits = ownsBuffer ? new BlockEditBuffer(ctx.level()) : ctx.edits();
+        // 座標・乱数・コンテキストは1つのフレームを使い回す（座標ごとにオブジェクトを作らない）
+        BlockPos.MutableBlockPos cursor = new BlockPos.MutableBlockPos();
+        PositionalRandom posRandom = new PositionalRandom(0L);
+        ActionContext frame = ctx.frame(cursor, posRandom, edits);
+
+        for (BlockPos pos : shape.iterate(ctx.level(), ctx.origin())) {
             positionCount++;
             try {
-                // 各座標に対して再現性のある乱数を生成
-                RandomSource posRandom = createDeterministicRandom(ctx, pos);
+                // 各座標に対して再現性のある乱数を設定
+                cursor.set(pos);
+                posRandom.setSeed(PositionalRandom.positionSeed(ctx.seed(), ctx.origin(), cursor));
 
-                // 新しいコンテキストを作成（座標と乱数を更新）
-                ActionContext posContext = new ActionContext(ctx.level(), pos, ctx.player(), ctx.cursedItem(),
-                        posRandom);
-
-                boolean executed = perPosition.perform(posContext);
+                boolean executed = perPosition.perform(frame);
                 anyExecuted |= executed;
             } catch (Exception e) {
-                KamiGami.LOGGER.error("Error executing action at position {}", pos, e);
+                KamiGami.LOGGER.error("Error executing action at position {}", cursor.immutable(), e);
             }
         }
 
+        if (ownsBuffer) {
+            edits.apply();
+        }
+
+        CurseProfiler.recordPositions(positionCount);
         KamiGami.LOGGER.debug("AreaAction processed {} positions", positionCount);
         return anyExecuted;
     }
 
-    /**
-     * 座標ベースの決定論的な乱数生成器を作成する。 マルチプレイでクライアント・サーバー間の同期を保証するため。
-     *
-     * @param ctx
-     *            元のコンテキスト
-     * @param pos
-     *            現在の座標
-     * @return 決定論的な乱数生成器
-     */
-    @SuppressWarnings("deprecation")
-    private RandomSource createDeterministicRandom(ActionContext ctx, BlockPos pos) {
-        // ワールドシード + 座標 + 元の乱数のシード から新しいシードを生成
-        long worldSeed = ctx.level().getSeed();
-        long posSeed = Mth.getSeed(pos);
-        long combinedSeed = worldSeed ^ posSeed ^ 0x9E3779B97F4A7C15L; // ゴールデンレシオハッシュ
-
-        return RandomSource.create(combinedSeed);
-    }
-
     @Override
     public MapCodec<? extends CurseAction> codec() {
         return CODEC;
@@ -0,0 +1,81 @@
+package com.hydryhydra.kamigami.curse;
+
+import javax.annotation.Nullable;
+
+import com.mojang.serialization.MapCodec;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.level.LevelReader;
+import net.minecraft.world.level.levelgen.structure.BoundingBox;
+
+/**
+ * AreaAction が処理する範囲の形状。 座標はすべて起点（祠の位置）からの相対で定義する。
+ *
+ * 形状に含まれる座標だけを決まった順序（Z → Y → X、X が最内）で列挙し、通し番号でも取り出せる（分割実行の再開用）。
+ * 列挙は座標ごとにオブジェクトを作らず、1つのカーソルを書き換えて返す。
+ *
+ * 地形に沿う形状（{@link SurfaceShape}）以外はワールドを参照しないため、level に null を渡してよい。
+ * 登録済みの形状は {@link AreaShapes} を参照。
+ */
+public interface AreaShape {
+    /**
+     * 形状に含まれる座標数を返す。
+     */
+    int volume();
+
+    /**
+     * 形状に含まれる座標を順に列挙する。 返される BlockPos は使い回されるカーソルなので、保持する場合は immutable() すること。
+     *
+     * @param level
+     *            ワールド（{@link #readsLevel()} が false の場合は null でよい）
+     * @param origin
+     *            起点座標（祠の位置）
+     * @return 座標の列挙
+     */
+    Iterable<BlockPos> iterate(@Nullable LevelReader level, BlockPos origin);
+
+    /**
+     * iterate と同じ順序で index 番目の座標を求める。
+     *
+     * @param level
+     *            ワールド（{@link #readsLevel()} が false の場合は null でよい）
+     * @param origin
+     *            起点座標（祠の位置）
+     * @param index
+     *            0 以上 volume() 未満の通し番号
+     * @param out
+     *            結果を書き込む座標
+     * @return out
+     */
+    BlockPos.MutableBlockPos positionAt(@Nullable LevelReader level, BlockPos origin, int index,
+            BlockPos.MutableBlockPos out);
+
+    /**
+     * 座標が形状に含まれるかを返す。 まず外接ボックスで判定するため、範囲外の座標はすぐに false になる。
+     */
+    boolean contains(@Nullable LevelReader level, BlockPos origin, BlockPos pos);
+
+    /**
+     * 形状を囲むボックス（絶対座標、両端を含む）を返す。
+     */
+    BoundingBox bounds(@Nullable LevelReader level, BlockPos origin);
+
+    /**
+     * 座標の決定にワールドを読むか（true の場合、ワーカースレッドで座標を求めてはいけない）
+     */
+    default boolean readsLevel() {
+        return false;
+    }
+
+    /**
+     * 分割実行で中断してよい通し番号の間隔を返す。 分割実行は通し番号がこの値の倍数のところでしか中断しない。
+     */
+    default int sliceUnit() {
+        return 1;
+    }
+
+    /**
+     * この形状の Codec を返す。
+     */
+    MapCodec<? extends AreaShape> codec();
+}
@@ -0,0 +1,77 @@
+package com.hydryhydra.kamigami.curse;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import com.mojang.datafixers.util.Pair;
+import com.mojang.serialization.Codec;
+import com.mojang.serialization.DataResult;
+import com.mojang.serialization.DynamicOps;
+import com.mojang.serialization.MapCodec;
+
+/**
+ * AreaAction の形状の一覧と、形状の多相 Codec。
+ *
+ * JSON では "type" フィールドで形状を選ぶ。 "type" を持たない形状は従来どおり Box（min / max）として読む。
+ *
+ * - box: 直方体（{@link AreaAction.Box}） - sphere: 球 - shell: 球殻 - cylinder: 縦向きの円柱 - disc: 水平な円盤 -
+ * surface: 地表に沿う層
+ *
+ * 新しい形状を追加する場合は TYPES に追加する。
+ */
+public final class AreaShapes {
+    // 半径と高さの上限（デコード時に作る表の大きさを抑える）
+    public static final double MAX_RADIUS = 64.0;
+    public static final int MAX_HEIGHT = 384;
+
+    // 形状タイプ名 -> Codec
+    private static final Map<String, MapCodec<? extends AreaShape>> TYPES = Map.of("box", AreaAction.Box.MAP_CODEC,
+            "sphere", SphereShape.CODEC, "shell", ShellShape.CODEC, "cylinder", CylinderShape.CODEC, "disc",
+            DiscShape.CODEC, "surface", SurfaceShape.CODEC);
+    // Codec -> 形状タイプ名（エンコード時の逆引き）
+    private static final Map<MapCodec<? extends AreaShape>, String> NAMES = TYPES.entrySet().stream().collect(
+            Collectors.toMap(Map.Entry::getValue, Map.Entry::getKey, (a, b) -> a, IdentityHashMap::new));
+
+    private static final Codec<AreaShape> TYPED_CODEC = Codec.STRING
+            .validate(type -> TYPES.containsKey(type)
+                    ? DataResult.success(type)
+                    : DataResult.error(() -> "Unknown area shape type: " + type))
+            .dispatch("type", shape -> typeName(shape.codec()), TYPES::get);
+
+    /**
+     * 形状の Codec。 Box は後方互換のため "type" なしで書き出す。
+     *
+     * "type" の有無で読み方を決める（Codec.either だと両方の読み方のエラーが混ざり、どちらの書き方の誤りか分からなくなるため）。
+     */
+    public static final Codec<AreaShape> CODEC = new Codec<>() {
+        @Override
+        public <T> DataResult<Pair<AreaShape, T>> decode(DynamicOps<T> ops, T input) {
+            boolean typed = ops.getMap(input).result().map(map -> map.get("type") != null).orElse(false);
+            if (typed) {
+                return TYPED_CODEC.decode(ops, input);
+            }
+            return AreaAction.Box.CODEC.decode(ops, input)
+                    .map(pair -> Pair.<AreaShape, T>of(pair.getFirst(), pair.getSecond()))
+                    .mapError(error -> "Invalid box area shape (use \"type\" for other shapes): " + error);
+        }
+
+        @Override
+        public <T> DataResult<T> encode(AreaShape shape, DynamicOps<T> ops, T prefix) {
+            return shape instanceof AreaAction.Box box
+                    ? AreaAction.Box.CODEC.encode(box, ops, prefix)
+                    : TYPED_CODEC.encode(shape, ops, prefix);
+        }
+    };
+
+    private AreaShapes() {
+    }
+
+    private static String typeName(MapCodec<? extends AreaShape> codec) {
+        String name = NAMES.get(codec);
+        if (name == null) {
+            throw new IllegalStateException("Unregistered area shape codec: " + codec);
+        }
+        return name;
+    }
+}
@@ -0,0 +1,165 @@
+package com.hydryhydra.kamigami.curse;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.annotation.Nullable;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectLinkedOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.shorts.ShortOpenHashSet;
+import it.unimi.dsi.fastutil.shorts.ShortSet;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.SectionPos;
+import net.minecraft.network.protocol.game.ClientboundSectionBlocksUpdatePacket;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.world.level.BlockGetter;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.chunk.LevelChunk;
+import net.minecraft.world.level.chunk.LevelChunkSection;
+
+/**
+ * ブロック変更をまとめて適用するためのバッファ。
+ *
+ * アクションは setBlock で変更を追記し、getBlockState は未適用の変更を優先して返す（同じ座標への後続アクションが
+ * 直前の変更を見られるようにするため）。 apply で変更をチャンクセクションごとにまとめて書き込み、
+ *
+ * - クライアントへはセクションごとに1つの ClientboundSectionBlocksUpdatePacket を送る - 隣接ブロックの更新と形状更新は全セクションの
+ * 書き込みが終わってから一度だけ行う - 光源の再計算は LevelChunk がライトエンジンに積むため、tick 内で後からまとめて処理される
+ */
+public final class BlockEditBuffer {
+    // 書き込み時は隣接更新・形状更新・クライアント通知を行わない（apply の最後にまとめて行う）
+    private static final int DEFERRED_FLAGS = Block.UPDATE_KNOWN_SHAPE;
+
+    @Nullable
+    private final ServerLevel level;
+    // 未変更の座標の読み取り元（通常は level 自身）
+    private final BlockGetter reader;
+    // 座標 (BlockPos#asLong) -> 変更後のブロック状態。 同じ座標への変更は後勝ち
+    private final Long2ObjectLinkedOpenHashMap<BlockState> pending = new Long2ObjectLinkedOpenHashMap<>();
+
+    public BlockEditBuffer(ServerLevel level) {
+        this(level, level);
+    }
+
+    /**
+     * 読み取り元を指定してバッファを作成する。 level が null の場合は apply できない（ベンチマークなどワールド外での実行用）。
+     */
+    BlockEditBuffer(@Nullable ServerLevel level, BlockGetter reader) {
+        this.level = level;
+        this.reader = reader;
+    }
+
+    /**
+     * 未適用の変更を考慮してブロック状態を取得する。
+     */
+    public BlockState getBlockState(BlockPos pos) {
+        BlockState state = pending.get(pos.asLong());
+        return state != null ? state : reader.getBlockState(pos);
+    }
+
+    /**
+     * ブロック変更を追記する。 実際の書き込みは apply まで行われない。
+     */
+    public void setBlock(BlockPos pos, BlockState state) {
+        pending.put(pos.asLong(), state);
+    }
+
+    public boolean isEmpty() {
+        return pending.isEmpty();
+    }
+
+    public int size() {
+        return pending.size();
+    }
+
+    /**
+     * 追記された変更をセクション単位で適用し、バッファを空にする。
+     *
+     * @return 実際に変化したブロック数
+     */
+    public int apply() {
+        if (pending.isEmpty()) {
+            return 0;
+        }
+        if (level == null) {
+            throw new IllegalStateException("Cannot apply edits without a level");
+        }
+
+        // セクションごとに変更をまとめる（追記順は維持）
+        Long2ObjectOpenHashMap<List<BlockPos>> bySection = new Long2ObjectOpenHashMap<>();
+        for (Long2ObjectMap.Entry<BlockState> entry : pending.long2ObjectEntrySet()) {
+            long packedPos = entry.getLongKey();
+            bySection.computeIfAbsent(SectionPos.blockToSection(packedPos), k -> new ArrayList<>())
+                    .add(BlockPos.of(packedPos));
+        }
+
+        List<Change> changed = new ArrayList<>(pending.size());
+        for (Long2ObjectMap.Entry<List<BlockPos>> section : bySection.long2ObjectEntrySet()) {
+            applySection(SectionPos.of(section.getLongKey()), section.getValue(), changed);
+        }
+
+        // 全セクションの書き込み後に、隣接ブロックの更新と形状更新をまとめて行う。 更新元には Level#setBlock と同じく
+        // 置き換えられた（変更前の）ブロックを渡す
+        for (Change change : changed) {
+            BlockPos pos = change.pos();
+            BlockState state = level.getBlockState(pos);
+            level.updateNeighborsAt(pos, change.previous().getBlock());
+            change.previous().updateIndirectNeighbourShapes(level, pos, Block.UPDATE_CLIENTS);
+            state.updateNeighbourShapes(level, pos, Block.UPDATE_CLIENTS);
+            state.updateIndirectNeighbourShapes(level, pos, Block.UPDATE_CLIENTS);
+        }
+
+        pending.clear();
+        CurseProfiler.recordBlockChanges(changed.size());
+        return changed.size();
+    }
+
+    private void applySection(SectionPos sectionPos, List<BlockPos> positions, List<Change> changed) {
+        LevelChunk chunk = level.getChunk(sectionPos.x(), sectionPos.z());
+        ShortSet changedInSection = new ShortOpenHashSet();
+        int firstChanged = changed.size();
+        boolean hasBlockEntity = false;
+
+        for (BlockPos pos : positions) {
+            BlockState state = pending.get(pos.asLong());
+            BlockState previous = chunk.getBlockState(pos);
+            if (level.setBlock(pos, state, DEFERRED_FLAGS)) {
+                changed.add(new Change(pos, previous));
+                changedInSection.add(SectionPos.sectionRelativePos(pos));
+                hasBlockEntity |= state.hasBlockEntity();
+            }
+        }
+        if (changedInSection.isEmpty()) {
+            return;
+        }
+
+        if (hasBlockEntity) {
+            // ブロックエンティティのデータ同期が必要なため、バニラのチャンク変更追跡に任せる
+            for (Change change : changed.subList(firstChanged, changed.size())) {
+                level.getChunkSource().blockChanged(change.pos());
+            }
+            return;
+        }
+
+        // セクション単位で1パケットにまとめて送信
+        LevelChunkSection section = chunk.getSection(chunk.getSectionIndexFromSectionY(sectionPos.y()));
+        ClientboundSectionBlocksUpdatePacket packet = new ClientboundSectionBlocksUpdatePacket(sectionPos,
+                changedInSection, section);
+        for (ServerPlayer player : level.getChunkSource().chunkMap.getPlayers(new ChunkPos(sectionPos.x(),
+                sectionPos.z()), false)) {
+            player.connection.send(packet);
+        }
+    }
+
+    /**
+     * 適用済みの変更。 隣接更新の更新元に使うため、変更前のブロック状態を持つ。
+     */
+    private record Change(BlockPos pos, BlockState previous) {
+    }
+}
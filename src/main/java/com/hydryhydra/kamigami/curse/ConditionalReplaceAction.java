@@ -50,7 +50,7 @@ public record ConditionalReplaceAction(Optional<TagKey<Block>> matchTag, Optiona
     @Override
     public boolean perform(ActionContext ctx) {
         try {
-            BlockState currentState = ctx.level().getBlockState(ctx.origin());
+            BlockState currentState = ctx.getBlockState(ctx.origin());
 
             // マッチング判定
             boolean matches = false;
@@ -66,7 +66,7 @@ public record ConditionalReplaceAction(Optional<TagKey<Block>> matchTag, Optiona
             }
 
             // ブロックを置換
-            ctx.level().setBlock(ctx.origin(), replaceWith, 3);
+            ctx.setBlock(ctx.origin(), replaceWith);
 
             // アイテムをドロップ（オプション）
             if (dropItem.isPresent()) {
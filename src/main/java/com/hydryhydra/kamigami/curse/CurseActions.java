@@ -1,98 +1,102 @@
 package com.hydryhydra.kamigami.curse;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.function.Function;
 
 import com.hydryhydra.kamigami.KamiGami;
 import com.mojang.serialization.Codec;
 import com.mojang.serialization.MapCodec;
 
+import net.minecraft.core.Registry;
+import net.minecraft.resources.ResourceKey;
 import net.minecraft.resources.ResourceLocation;
+import net.neoforged.bus.api.IEventBus;
+import net.neoforged.neoforge.registries.DeferredHolder;
+import net.neoforged.neoforge.registries.DeferredRegister;
 
 /**
  * 全てのアクションタイプを登録・管理するレジストリ。
  *
+ * アクションタイプは NeoForge のレジストリ（kamigami:curse_action_type）に登録する。 レジストリは各タイプに整数 ID と
+ * Codec からの逆引き（同一性による）を持つため、エンコード時の線形探索がなく、バイナリ形式では文字列の代わりに ID を使える。
+ * 他の Mod も同じレジストリに DeferredRegister でアクションを追加できる。
+ *
  * 新しいアクションタイプを追加する場合は、ここに register を追加する。
  */
 public class CurseActions {
-    // アクションタイプのマップ（名前 -> Codec）
-    private static final Map<ResourceLocation, MapCodec<? extends CurseAction>> ACTION_TYPES = new HashMap<>();
+    public static final ResourceKey<Registry<MapCodec<? extends CurseAction>>> REGISTRY_KEY = ResourceKey
+            .createRegistryKey(ResourceLocation.fromNamespaceAndPath(KamiGami.MODID, "curse_action_type"));
+
+    private static final DeferredRegister<MapCodec<? extends CurseAction>> ACTION_TYPES = DeferredRegister
+            .create(REGISTRY_KEY, KamiGami.MODID);
+
+    // アクションタイプのレジストリ（ID はクライアントと同期する）
+    public static final Registry<MapCodec<? extends CurseAction>> REGISTRY = ACTION_TYPES
+            .makeRegistry(builder -> builder.sync(true));
 
     // アクションの多相 Codec（JSON で "type" フィールドを使って判別）
-    public static final Codec<CurseAction> ACTION_CODEC = ResourceLocation.CODEC.dispatch("type",
-            action -> getTypeId(action.codec()), CurseActions::getCodec);
+    public static final Codec<CurseAction> ACTION_CODEC = REGISTRY.byNameCodec().dispatch("type",
+            CurseAction::codec, Function.identity());
 
     // ========================================
     // アクションタイプの登録
     // ========================================
 
     // 合成アクション
-    public static final MapCodec<SequenceAction> SEQUENCE = register("sequence", SequenceAction.CODEC);
+    public static final DeferredHolder<MapCodec<? extends CurseAction>, MapCodec<SequenceAction>> SEQUENCE = ACTION_TYPES
+            .register("sequence", () -> SequenceAction.CODEC);
 
     // Phase 1: 基本アクション
-    public static final MapCodec<SpawnEntityAction> SPAWN_ENTITY = register("spawn_entity", SpawnEntityAction.CODEC);
-    public static final MapCodec<PlayEffectsAction> PLAY_EFFECTS = register("play_effects",
-            PlayEffectsAction.CODEC_SIMPLE);
+    public static final DeferredHolder<MapCodec<? extends CurseAction>, MapCodec<SpawnEntityAction>> SPAWN_ENTITY = ACTION_TYPES
+            .register("spawn_entity", () -> SpawnEntityAction.CODEC);
+    public static final DeferredHolder<MapCodec<? extends CurseAction>, MapCodec<PlayEffectsAction>> PLAY_EFFECTS = ACTION_TYPES
+            .register("play_effects", () -> PlayEffectsAction.CODEC_SIMPLE);
 
     // Phase 2: ブロック操作アクション
-    public static final MapCodec<ReplaceBlockAction> REPLACE_BLOCK = register("replace_block",
-            ReplaceBlockAction.CODEC);
-    public static final MapCodec<AreaAction> AREA = register("area", AreaAction.CODEC);
-    public static final MapCodec<ChanceAction> CHANCE = register("chance", ChanceAction.CODEC);
-    public static final MapCodec<DropItemAction> DROP_ITEM = register("drop_item", DropItemAction.CODEC);
-    public static final MapCodec<ConditionalReplaceAction> CONDITIONAL_REPLACE = register("conditional_replace",
-            ConditionalReplaceAction.CODEC);
+    public static final DeferredHolder<MapCodec<? extends CurseAction>, MapCodec<ReplaceBlockAction>> REPLACE_BLOCK = ACTION_TYPES
+            .register("replace_block", () -> ReplaceBlockAction.CODEC);
+    public static final DeferredHolder<MapCodec<? extends CurseAction>, MapCodec<AreaAction>> AREA = ACTION_TYPES
+            .register("area", () -> AreaAction.CODEC);
+    public static final DeferredHolder<MapCodec<? extends CurseAction>, MapCodec<ChanceAction>> CHANCE = ACTION_TYPES
+            .register("chance", () -> ChanceAction.CODEC);
+    public static final DeferredHolder<MapCodec<? extends CurseAction>, MapCodec<DropItemAction>> DROP_ITEM = ACTION_TYPES
+            .register("drop_item", () -> DropItemAction.CODEC);
+    public static final DeferredHolder<MapCodec<? extends CurseAction>, MapCodec<ConditionalReplaceAction>> CONDITIONAL_REPLACE = ACTION_TYPES
+            .register("conditional_replace", () -> ConditionalReplaceAction.CODEC);
 
     // ========================================
     // ヘルパーメソッド
     // ========================================
 
     /**
-     * アクションタイプを登録する。
+     * アクションタイプの DeferredRegister を Mod のイベントバスに登録する（レジストリ自体の作成も含む）。
      *
-     * @param name
-     *            アクション名（例: "spawn_entity"）
-     * @param codec
-     *            アクションの Codec
-     * @return 登録された Codec
+     * @param modEventBus
+     *            Mod のイベントバス
      */
-    private static <T extends CurseAction> MapCodec<T> register(String name, MapCodec<T> codec) {
-        ResourceLocation id = ResourceLocation.fromNamespaceAndPath(KamiGami.MODID, name);
-        if (ACTION_TYPES.containsKey(id)) {
-            throw new IllegalStateException("Duplicate action type registration: " + id);
-        }
-        ACTION_TYPES.put(id, codec);
-        return codec;
+    public static void register(IEventBus modEventBus) {
+        ACTION_TYPES.register(modEventBus);
     }
 
     /**
-     * Codec から対応する ResourceLocation を取得する。
-     *
-     * @param codec
-     *            アクションの Codec
-     * @return 対応する ResourceLocation
+     * アクションのタイプ名（ID のパス部分）を返す。 プロファイルやログの表示用。
      */
-    private static ResourceLocation getTypeId(MapCodec<? extends CurseAction> codec) {
-        for (Map.Entry<ResourceLocation, MapCodec<? extends CurseAction>> entry : ACTION_TYPES.entrySet()) {
-            if (entry.getValue() == codec) {
-                return entry.getKey();
-            }
+    public static String typeName(CurseAction action) {
+        ResourceLocation id = REGISTRY.getKey(action.codec());
+        if (id == null) {
+            throw new IllegalArgumentException("Unknown action codec: " + action.codec());
         }
-        throw new IllegalArgumentException("Unknown action codec: " + codec);
+        return id.getPath();
     }
 
     /**
-     * ResourceLocation から対応する Codec を取得する。
+     * アクションタイプの整数 ID を返す。 バイナリ形式の種別タグに使う。 ID は Mod 構成ごとに決まり、
+     * マルチプレイではサーバーの ID がクライアントに同期される。
      *
-     * @param id
-     *            アクションタイプの ID
-     * @return 対応する Codec
+     * @param codec
+     *            アクションの Codec
+     * @return 整数 ID（未登録の場合は -1）
      */
-    private static MapCodec<? extends CurseAction> getCodec(ResourceLocation id) {
-        MapCodec<? extends CurseAction> codec = ACTION_TYPES.get(id);
-        if (codec == null) {
-            throw new IllegalArgumentException("Unknown action type: " + id);
-        }
-        return codec;
+    public static int typeId(MapCodec<? extends CurseAction> codec) {
+        return REGISTRY.getId(codec);
     }
 }
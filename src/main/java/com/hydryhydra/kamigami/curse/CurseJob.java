@@ -0,0 +1,91 @@
+package com.hydryhydra.kamigami.curse;
+
+import java.util.Optional;
+import java.util.UUID;
+
+import com.hydryhydra.kamigami.curse.plan.CursePlan;
+import com.mojang.serialization.Codec;
+import com.mojang.serialization.codecs.RecordCodecBuilder;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.UUIDUtil;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.world.item.ItemStack;
+
+/**
+ * 複数 tick に分けて実行中の祟り。
+ *
+ * プラン自体は保存せず、レシピ ID から再取得する。 進行状況は命令列の位置なので、プランの指紋も保存しておき、
+ * リロードでレシピの内容が変わっていた場合は続きを実行しない。 プレイヤーは UUID で保持し、実行時にオンラインであれば解決する。
+ */
+public final class CurseJob {
+    public static final Codec<CurseJob> CODEC = RecordCodecBuilder.create(instance -> instance
+            .group(ResourceLocation.CODEC.fieldOf("recipe").forGetter(job -> job.recipeId),
+                    BlockPos.CODEC.fieldOf("origin").forGetter(job -> job.origin),
+                    UUIDUtil.CODEC.optionalFieldOf("player").forGetter(job -> Optional.ofNullable(job.playerId)),
+                    ItemStack.OPTIONAL_CODEC.optionalFieldOf("cursed_item", ItemStack.EMPTY)
+                            .forGetter(job -> job.cursedItem),
+                    Codec.LONG.fieldOf("seed").forGetter(job -> job.seed),
+                    Codec.INT.fieldOf("plan").forGetter(job -> job.planFingerprint),
+                    Codec.INT.optionalFieldOf("pc", 0).forGetter(job -> job.progress.pc()),
+                    Codec.INT.optionalFieldOf("area_index", 0).forGetter(job -> job.progress.areaIndex()))
+            .apply(instance, (recipeId, origin, playerId, cursedItem, seed, planFingerprint, pc,
+                    areaIndex) -> new CurseJob(recipeId, origin, playerId.orElse(null), cursedItem, seed,
+                            planFingerprint, new CursePlan.Progress(pc, areaIndex))));
+
+    private final ResourceLocation recipeId;
+    private final BlockPos origin;
+    private final UUID playerId;
+    private final ItemStack cursedItem;
+    private final long seed;
+    private final int planFingerprint;
+    private final CursePlan.Progress progress;
+
+    public CurseJob(ResourceLocation recipeId, BlockPos origin, UUID playerId, ItemStack cursedItem, long seed,
+            int planFingerprint, CursePlan.Progress progress) {
+        this.recipeId = recipeId;
+        this.origin = origin.immutable();
+        this.playerId = playerId;
+        this.cursedItem = cursedItem.copy();
+        this.seed = seed;
+        this.planFingerprint = planFingerprint;
+        this.progress = progress;
+    }
+
+    public ResourceLocation recipeId() {
+        return recipeId;
+    }
+
+    public BlockPos origin() {
+        return origin;
+    }
+
+    /**
+     * 祟りを引き起こしたプレイヤーの UUID（null の場合あり）
+     */
+    public UUID playerId() {
+        return playerId;
+    }
+
+    public ItemStack cursedItem() {
+        return cursedItem;
+    }
+
+    /**
+     * 祟りシード。 保存して再開後も同じ乱数列で続きを実行する。
+     */
+    public long seed() {
+        return seed;
+    }
+
+    /**
+     * ジョブを作ったときのプランの指紋（{@link CursePlan#fingerprint()}）。 進行状況はこのプランの命令列を指す。
+     */
+    public int planFingerprint() {
+        return planFingerprint;
+    }
+
+    public CursePlan.Progress progress() {
+        return progress;
+    }
+}
@@ -0,0 +1,154 @@
+package com.hydryhydra.kamigami.curse;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Optional;
+
+import com.hydryhydra.kamigami.KamiGami;
+import com.hydryhydra.kamigami.KamiGamiConfig;
+import com.hydryhydra.kamigami.KamiGamiDiagnostics;
+import com.hydryhydra.kamigami.KamiGamiDiagnostics.Category;
+import com.hydryhydra.kamigami.curse.plan.CursePlan;
+import com.mojang.serialization.Codec;
+
+import net.minecraft.core.SectionPos;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.entity.player.Player;
+import net.minecraft.world.level.levelgen.structure.BoundingBox;
+import net.minecraft.world.level.saveddata.SavedData;
+import net.minecraft.world.level.saveddata.SavedDataType;
+import net.neoforged.bus.api.SubscribeEvent;
+import net.neoforged.fml.common.EventBusSubscriber;
+import net.neoforged.neoforge.event.tick.LevelTickEvent;
+
+/**
+ * レベルごとの祟りジョブのキュー。
+ *
+ * 範囲の大きな祟りはここに積まれ、毎 tick 設定された予算（座標数と時間）の範囲で先頭から順に実行される。
+ * 進行状況はワールドデータとして保存されるため、サーバーを再起動しても途中から再開する。
+ */
+@EventBusSubscriber(modid = KamiGami.MODID)
+public class CurseJobQueue extends SavedData {
+    private static final Codec<CurseJobQueue> CODEC = CurseJob.CODEC.listOf().xmap(CurseJobQueue::new,
+            queue -> List.copyOf(queue.jobs));
+
+    public static final SavedDataType<CurseJobQueue> TYPE = new SavedDataType<>("kamigami_curse_jobs",
+            CurseJobQueue::new, CODEC, null);
+
+    private final Deque<CurseJob> jobs = new ArrayDeque<>();
+
+    public CurseJobQueue() {
+    }
+
+    private CurseJobQueue(List<CurseJob> jobs) {
+        this.jobs.addAll(jobs);
+    }
+
+    /**
+     * 指定されたレベルのキューを取得する（存在しない場合は作成する）。
+     */
+    public static CurseJobQueue get(ServerLevel level) {
+        return level.getDataStorage().computeIfAbsent(TYPE);
+    }
+
+    /**
+     * ジョブを末尾に追加する。 実行は次の tick から始まる。
+     */
+    public void enqueue(CurseJob job) {
+        jobs.addLast(job);
+        setDirty();
+        KamiGamiDiagnostics.log(Category.CURSE,
+                "Queued curse job: {} at {} ({} jobs pending)", job.recipeId(), job.origin(),
+                jobs.size());
+    }
+
+    public int size() {
+        return jobs.size();
+    }
+
+    @SubscribeEvent
+    public static void onLevelTick(LevelTickEvent.Post event) {
+        if (event.getLevel() instanceof ServerLevel serverLevel) {
+            CurseJobQueue queue = get(serverLevel);
+            if (!queue.jobs.isEmpty()) {
+                queue.tick(serverLevel);
+            }
+        }
+    }
+
+    /**
+     * 予算の範囲でジョブを先頭から実行する。 予算は同じ tick の全ジョブで共有する。 処理する範囲のチャンクが読み込まれていない
+     * ジョブは、同期的なチャンク読み込みを避けるためキューに残したまま飛ばす。
+     */
+    private void tick(ServerLevel level) {
+        long micros = KamiGamiConfig.CURSE_JOB_MICROS_PER_TICK.get();
+        long deadline = micros > 0 ? System.nanoTime() + micros * 1000L : 0L;
+        CursePlan.Budget budget = new CursePlan.Budget(KamiGamiConfig.CURSE_JOB_BLOCKS_PER_TICK.get(), deadline);
+
+        // 実行中の祟りが新しいジョブを積んでもよいように、この tick 開始時点のジョブを順に処理する
+        for (CurseJob job : List.copyOf(jobs)) {
+            if (budget.exhausted()) {
+                break;
+            }
+            Optional<ShrineCurseRecipes.LoadedRecipe> recipe = ShrineCurseRecipes.getRecipe(job.recipeId());
+            if (recipe.isEmpty()) {
+                // リロードでレシピが削除された場合は続きを実行できない
+                KamiGami.LOGGER.warn("Dropping curse job for missing recipe: {}", job.recipeId());
+                jobs.remove(job);
+                continue;
+            }
+            CursePlan plan = recipe.get().plan();
+            if (plan.fingerprint() != job.planFingerprint()) {
+                // リロードでレシピが書き換えられた場合、保存された進行状況は別の命令列を指している
+                KamiGami.LOGGER.warn("Dropping curse job for changed recipe: {}", job.recipeId());
+                jobs.remove(job);
+                continue;
+            }
+            if (!isLoaded(level, plan, job)) {
+                continue;
+            }
+
+            Player player = job.playerId() != null ? level.getPlayerByUUID(job.playerId()) : null;
+            ActionContext ctx = new ActionContext(level, job.origin(), player, job.cursedItem(), level.getRandom(),
+                    job.seed());
+            boolean finished;
+            // プロファイル上はスライスごとに1回の呼び出しとして数える
+            long profileStart = CurseProfiler.beginRecipe(job.recipeId());
+            try {
+                // 命令ごとに、次に処理する範囲が読み込まれていることを確かめながら進める
+                do {
+                    finished = plan.executeSlice(ctx, job.progress(), budget);
+                } while (!finished && !budget.exhausted() && isLoaded(level, plan, job));
+            } catch (Exception e) {
+                KamiGami.LOGGER.error("Error executing curse job: {}", job.recipeId(), e);
+                finished = true;
+            } finally {
+                CurseProfiler.endRecipe(profileStart);
+            }
+
+            if (finished) {
+                jobs.remove(job);
+                KamiGamiDiagnostics.log(Category.CURSE, "Curse job finished: {} at {}", job.recipeId(), job.origin());
+            }
+        }
+        setDirty();
+    }
+
+    /**
+     * ジョブが次に処理する範囲に掛かるチャンクがすべて読み込まれているかを返す。
+     */
+    private static boolean isLoaded(ServerLevel level, CursePlan plan, CurseJob job) {
+        BoundingBox bounds = plan.pendingBounds(level, job.origin(), job.progress());
+        for (int chunkX = SectionPos.blockToSectionCoord(bounds.minX()); chunkX <= SectionPos
+                .blockToSectionCoord(bounds.maxX()); chunkX++) {
+            for (int chunkZ = SectionPos.blockToSectionCoord(bounds.minZ()); chunkZ <= SectionPos
+                    .blockToSectionCoord(bounds.maxZ()); chunkZ++) {
+                if (!level.hasChunk(chunkX, chunkZ)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,241 @@
+package com.hydryhydra.kamigami.curse;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+
+import net.minecraft.resources.ResourceLocation;
+
+/**
+ * 祟りレシピの実行プロファイラ。
+ *
+ * レシピ ID ごとに呼び出し回数・処理座標数・変更ブロック数・スポーンしたエンティティ数・実行時間を、 さらにアクションタイプごとに
+ * 呼び出し回数と実行時間を LongAdder で集計する。 デフォルトでは無効で、無効な間の計測箇所は volatile の読み取り1回だけになる。
+ *
+ * 実行中のレシピは beginRecipe / endRecipe で設定する（サーバースレッドからのみ呼ぶ）。 アクションの時間はネストした
+ * アクションの時間を含む（Area の時間には範囲内の処理がすべて含まれる）。
+ */
+public final class CurseProfiler {
+    private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
+    private static final DateTimeFormatter FILE_TIME = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    private static volatile boolean enabled;
+    private static volatile long enabledAtNanos;
+    private static final Map<ResourceLocation, RecipeStats> RECIPES = new ConcurrentHashMap<>();
+    // 実行中のレシピの集計先（プロファイル無効時やレシピ外では null）
+    private static RecipeStats current;
+
+    private CurseProfiler() {
+    }
+
+    /**
+     * レシピ1件分の集計
+     */
+    public static final class RecipeStats {
+        private final ResourceLocation id;
+        private final LongAdder calls = new LongAdder();
+        private final LongAdder nanos = new LongAdder();
+        private final LongAdder positions = new LongAdder();
+        private final LongAdder blocksChanged = new LongAdder();
+        private final LongAdder entitiesSpawned = new LongAdder();
+        private final Map<String, ActionStats> actions = new ConcurrentHashMap<>();
+
+        private RecipeStats(ResourceLocation id) {
+            this.id = id;
+        }
+
+        public ResourceLocation id() {
+            return id;
+        }
+
+        public long calls() {
+            return calls.sum();
+        }
+
+        public long nanos() {
+            return nanos.sum();
+        }
+
+        public long positions() {
+            return positions.sum();
+        }
+
+        public long blocksChanged() {
+            return blocksChanged.sum();
+        }
+
+        public long entitiesSpawned() {
+            return entitiesSpawned.sum();
+        }
+    }
+
+    /**
+     * アクションタイプ1件分の集計
+     */
+    private static final class ActionStats {
+        private final LongAdder calls = new LongAdder();
+        private final LongAdder nanos = new LongAdder();
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * プロファイルの有効・無効を切り替える。 有効にしても既存の集計は消さない。
+     */
+    public static void setEnabled(boolean value) {
+        if (value && !enabled) {
+            enabledAtNanos = System.nanoTime();
+        }
+        enabled = value;
+        if (!value) {
+            current = null;
+        }
+    }
+
+    /**
+     * 集計をすべて破棄する。
+     */
+    public static void reset() {
+        RECIPES.clear();
+        enabledAtNanos = System.nanoTime();
+    }
+
+    /**
+     * レシピの実行開始を記録する。
+     *
+     * @return endRecipe に渡す開始時刻（無効時は 0）
+     */
+    public static long beginRecipe(ResourceLocation id) {
+        if (!enabled) {
+            return 0L;
+        }
+        current = RECIPES.computeIfAbsent(id, RecipeStats::new);
+        current.calls.increment();
+        return System.nanoTime();
+    }
+
+    /**
+     * レシピの実行終了を記録する。
+     */
+    public static void endRecipe(long startNanos) {
+        RecipeStats stats = current;
+        if (stats != null && startNanos != 0L) {
+            stats.nanos.add(System.nanoTime() - startNanos);
+        }
+        current = null;
+    }
+
+    /**
+     * 実行中のレシピについて、アクション1回分の時間を記録する。
+     */
+    public static void recordAction(String type, long nanos) {
+        RecipeStats stats = current;
+        if (stats != null) {
+            ActionStats action = stats.actions.computeIfAbsent(type, k -> new ActionStats());
+            action.calls.increment();
+            action.nanos.add(nanos);
+        }
+    }
+
+    public static void recordPositions(int count) {
+        RecipeStats stats = current;
+        if (stats != null) {
+            stats.positions.add(count);
+        }
+    }
+
+    public static void recordBlockChange() {
+        RecipeStats stats = current;
+        if (stats != null) {
+            stats.blocksChanged.increment();
+        }
+    }
+
+    public static void recordBlockChanges(int count) {
+        RecipeStats stats = current;
+        if (stats != null) {
+            stats.blocksChanged.add(count);
+        }
+    }
+
+    public static void recordEntitySpawn() {
+        RecipeStats stats = current;
+        if (stats != null) {
+            stats.entitiesSpawned.increment();
+        }
+    }
+
+    /**
+     * 実行時間の合計が大きい順にレシピの集計を返す。
+     */
+    public static List<RecipeStats> snapshot() {
+        List<RecipeStats> list = new ArrayList<>(RECIPES.values());
+        list.sort(Comparator.comparingLong(RecipeStats::nanos).reversed());
+        return list;
+    }
+
+    /**
+     * 集計を JSON に変換する。
+     */
+    public static JsonObject toJson() {
+        JsonObject root = new JsonObject();
+        root.addProperty("enabled", enabled);
+        root.addProperty("elapsed_ms", (System.nanoTime() - enabledAtNanos) / 1_000_000L);
+
+        JsonArray recipes = new JsonArray();
+        for (RecipeStats stats : snapshot()) {
+            JsonObject recipe = new JsonObject();
+            recipe.addProperty("id", stats.id.toString());
+            recipe.addProperty("calls", stats.calls());
+            recipe.addProperty("nanos", stats.nanos());
+            recipe.addProperty("positions", stats.positions());
+            recipe.addProperty("blocks_changed", stats.blocksChanged());
+            recipe.addProperty("entities_spawned", stats.entitiesSpawned());
+
+            JsonObject actions = new JsonObject();
+            stats.actions.entrySet().stream().sorted(Map.Entry.comparingByKey()).forEach(entry -> {
+                JsonObject action = new JsonObject();
+                action.addProperty("calls", entry.getValue().calls.sum());
+                action.addProperty("nanos", entry.getValue().nanos.sum());
+                actions.add(entry.getKey(), action);
+            });
+            recipe.add("actions", actions);
+            recipes.add(recipe);
+        }
+        root.add("recipes", recipes);
+        return root;
+    }
+
+    /**
+     * 集計を JSON ファイルに書き出す。
+     *
+     * @param directory
+     *            出力先ディレクトリ（存在しない場合は作成する）
+     * @return 書き出したファイル
+     */
+    public static Path dump(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        Path file = directory.resolve("curse-profile-" + LocalDateTime.now().format(FILE_TIME) + ".json");
+        try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            GSON.toJson(toJson(), writer);
+        }
+        return file;
+    }
+}
@@ -0,0 +1,53 @@
+package com.hydryhydra.kamigami.curse;
+
+import com.mojang.serialization.Codec;
+import com.mojang.serialization.MapCodec;
+import com.mojang.serialization.codecs.RecordCodecBuilder;
+
+import net.minecraft.core.BlockPos;
+
+/**
+ * 縦向きの円柱。 中心の高さから上へ height 段、水平距離が radius 以下のブロックを含む。
+ *
+ * JSON例:
+ *
+ * <pre>
+ * {"type": "cylinder", "radius": 6, "height": 4, "center": [0, -3, 0]}
+ * </pre>
+ */
+public final class CylinderShape extends SpanShape {
+    public static final MapCodec<CylinderShape> CODEC = RecordCodecBuilder.mapCodec(instance -> instance
+            .group(Codec.doubleRange(0.0, AreaShapes.MAX_RADIUS).fieldOf("radius")
+                            .forGetter(CylinderShape::radius),
+                    Codec.intRange(1, AreaShapes.MAX_HEIGHT).fieldOf("height").forGetter(CylinderShape::height),
+                    BlockPos.CODEC.optionalFieldOf("center", BlockPos.ZERO).forGetter(CylinderShape::center))
+            .apply(instance, CylinderShape::new));
+
+    private final double radius;
+    private final int height;
+    private final BlockPos center;
+
+    public CylinderShape(double radius, int height, BlockPos center) {
+        super(SpanTable.cylinder(radius, height, center));
+        this.radius = radius;
+        this.height = height;
+        this.center = center;
+    }
+
+    public double radius() {
+        return radius;
+    }
+
+    public int height() {
+        return height;
+    }
+
+    public BlockPos center() {
+        return center;
+    }
+
+    @Override
+    public MapCodec<CylinderShape> codec() {
+        return CODEC;
+    }
+}
@@ -0,0 +1,46 @@
+package com.hydryhydra.kamigami.curse;
+
+import com.mojang.serialization.Codec;
+import com.mojang.serialization.MapCodec;
+import com.mojang.serialization.codecs.RecordCodecBuilder;
+
+import net.minecraft.core.BlockPos;
+
+/**
+ * 水平な円盤（高さ1の円柱）。 中心と同じ高さで、水平距離が radius 以下のブロックを含む。
+ *
+ * JSON例:
+ *
+ * <pre>
+ * {"type": "disc", "radius": 5, "center": [0, -1, 0]}
+ * </pre>
+ */
+public final class DiscShape extends SpanShape {
+    public static final MapCodec<DiscShape> CODEC = RecordCodecBuilder.mapCodec(instance -> instance
+            .group(Codec.doubleRange(0.0, AreaShapes.MAX_RADIUS).fieldOf("radius")
+                            .forGetter(DiscShape::radius),
+                    BlockPos.CODEC.optionalFieldOf("center", BlockPos.ZERO).forGetter(DiscShape::center))
+            .apply(instance, DiscShape::new));
+
+    private final double radius;
+    private final BlockPos center;
+
+    public DiscShape(double radius, BlockPos center) {
+        super(SpanTable.cylinder(radius, 1, center));
+        this.radius = radius;
+        this.center = center;
+    }
+
+    public double radius() {
+        return radius;
+    }
+
+    public BlockPos center() {
+        return center;
+    }
+
+    @Override
+    public MapCodec<DiscShape> codec() {
+        return CODEC;
+    }
+}
@@ -0,0 +1,145 @@
+package com.hydryhydra.kamigami.curse;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.util.RandomSource;
+import net.minecraft.world.level.levelgen.MarsagliaPolarGaussian;
+import net.minecraft.world.level.levelgen.PositionalRandomFactory;
+import net.minecraft.world.level.levelgen.XoroshiroRandomSource;
+
+/**
+ * 座標ごとの乱数に使う軽量な乱数生成器（SplitMix64）。
+ *
+ * 状態は long 1つだけで、setSeed で何度でも初期化し直せる。 AreaAction などは範囲ごとに1つだけ作成し、座標ごとに
+ * {@link #positionSeed} で求めたシードを設定して使い回す（座標ごとにオブジェクトを作らない）。
+ *
+ * シードは「祟りシード」（ワールドシード・レシピ ID・実行ごとのノンスから {@link #curseSeed} で作る）と、
+ * 範囲の起点・座標を混ぜて求める。 同じ祟りの実行内では座標ごとに決定論的で処理順序に依存しないため、 分割実行や並列実行でも結果は変わらない。
+ * 一方、祟りを実行するたびにノンスが変わるので、同じ場所でも毎回違う結果になる。
+ */
+public final class PositionalRandom implements RandomSource {
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    private long state;
+    private final MarsagliaPolarGaussian gaussian = new MarsagliaPolarGaussian(this);
+
+    public PositionalRandom(long seed) {
+        this.state = seed;
+    }
+
+    /**
+     * 祟り1回の実行ごとのシードを作る。
+     *
+     * @param worldSeed
+     *            ワールドシード
+     * @param recipeId
+     *            実行するレシピの ID
+     * @param nonce
+     *            実行ごとに異なる値（通常はレベルの乱数から取る）
+     * @return 祟りシード
+     */
+    public static long curseSeed(long worldSeed, ResourceLocation recipeId, long nonce) {
+        // String#hashCode は仕様で決まっているため、JVM をまたいでも同じ値になる
+        return mix64(mix64(worldSeed + GOLDEN_GAMMA * recipeId.toString().hashCode()) ^ nonce);
+    }
+
+    /**
+     * 範囲内の1座標用のシードを作る。
+     *
+     * @param curseSeed
+     *            祟りシード（ActionContext#seed）
+     * @param origin
+     *            範囲の起点（入れ子の範囲で外側と同じ乱数列にならないようにする）
+     * @param pos
+     *            座標
+     * @return 座標のシード
+     */
+    public static long positionSeed(long curseSeed, BlockPos origin, BlockPos pos) {
+        return mix64(curseSeed + mix64(origin.asLong() + GOLDEN_GAMMA) + pos.asLong() * GOLDEN_GAMMA);
+    }
+
+    /**
+     * 分割実行するプランの命令1つ用のシードを作る（Chance の判定を中断・再開しても同じ結果にする）。
+     *
+     * @param curseSeed
+     *            祟りシード（ActionContext#seed）
+     * @param pc
+     *            命令の位置
+     * @return 命令のシード
+     */
+    public static long opSeed(long curseSeed, int pc) {
+        return mix64(mix64(curseSeed ^ GOLDEN_GAMMA) + pc * GOLDEN_GAMMA);
+    }
+
+    /**
+     * SplitMix64 の出力関数（Stafford の Mix13）
+     */
+    private static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * 現在の状態をそのまま持つ生成器を作る（元の乱数列を消費しない）
+     */
+    public PositionalRandom copy() {
+        return new PositionalRandom(state);
+    }
+
+    @Override
+    public RandomSource fork() {
+        return new PositionalRandom(nextLong());
+    }
+
+    @Override
+    public PositionalRandomFactory forkPositional() {
+        return new XoroshiroRandomSource(nextLong()).forkPositional();
+    }
+
+    @Override
+    public void setSeed(long seed) {
+        this.state = seed;
+        gaussian.reset();
+    }
+
+    @Override
+    public long nextLong() {
+        state += GOLDEN_GAMMA;
+        return mix64(state);
+    }
+
+    @Override
+    public int nextInt() {
+        return (int) (nextLong() >>> 32);
+    }
+
+    @Override
+    public int nextInt(int bound) {
+        if (bound <= 0) {
+            throw new IllegalArgumentException("Bound must be positive");
+        }
+        // 上位32ビットと bound の積の上位32ビット（偏りは 2^-32 程度で無視できる）
+        return (int) (((nextLong() >>> 32) * bound) >>> 32);
+    }
+
+    @Override
+    public boolean nextBoolean() {
+        return nextLong() < 0;
+    }
+
+    @Override
+    public float nextFloat() {
+        return (nextLong() >>> 40) * 0x1.0p-24F;
+    }
+
+    @Override
+    public double nextDouble() {
+        return (nextLong() >>> 11) * 0x1.0p-53;
+    }
+
+    @Override
+    public double nextGaussian() {
+        return gaussian.nextGaussian();
+    }
+}
@@ -1,9 +1,13 @@
 package com.hydryhydra.kamigami.curse;
 
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 
+import javax.annotation.Nullable;
+
 import com.hydryhydra.kamigami.KamiGami;
+import com.hydryhydra.kamigami.curse.plan.WeightedPalette;
 import com.mojang.serialization.Codec;
 import com.mojang.serialization.MapCodec;
 import com.mojang.serialization.codecs.RecordCodecBuilder;
@@ -39,9 +43,11 @@ import net.minecraft.world.level.block.state.BlockState;
  *   "chance": 0.4
  * }
  * </pre>
+ *
+ * パレットは作成時に {@link WeightedPalette}（エイリアステーブル）に変換しておき、座標ごとの選択は O(1) で行う。
+ * テーブルは内部にだけ持ち、{@link #palette()} は元のエントリのリストを返す。
  */
-public record ReplaceBlockAction(Optional<BlockState> with, Optional<List<PaletteEntry>> palette, float chance,
-        boolean whenAir) implements CurseAction {
+public final class ReplaceBlockAction implements CurseAction {
 
     /**
      * パレットエントリ（ブロック状態と重み）
@@ -56,11 +62,67 @@ public record ReplaceBlockAction(Optional<BlockState> with, Optional<List<Palett
     public static final MapCodec<ReplaceBlockAction> CODEC = RecordCodecBuilder
             .mapCodec(instance -> instance
                     .group(BlockState.CODEC.optionalFieldOf("with").forGetter(ReplaceBlockAction::with),
-                            PaletteEntry.CODEC.listOf().optionalFieldOf("palette")
-                                    .forGetter(ReplaceBlockAction::palette),
+                            WeightedPalette.CODEC.optionalFieldOf("palette")
+                                    .forGetter(ReplaceBlockAction::weightedPalette),
                             Codec.FLOAT.optionalFieldOf("chance", 1.0F).forGetter(ReplaceBlockAction::chance),
                             Codec.BOOL.optionalFieldOf("when_air", false).forGetter(ReplaceBlockAction::whenAir))
-                    .apply(instance, ReplaceBlockAction::new));
+                    .apply(instance, (with, palette, chance, whenAir) -> new ReplaceBlockAction(with,
+                            palette.orElse(null), chance, whenAir)));
+
+    private final Optional<BlockState> with;
+    private final Optional<List<PaletteEntry>> palette;
+    // palette から作ったエイリアステーブル（パレットがない場合は null）
+    @Nullable
+    private final WeightedPalette table;
+    private final float chance;
+    private final boolean whenAir;
+
+    /**
+     * @param with
+     *            置換先のブロック状態
+     * @param palette
+     *            重み付きパレット（with がない場合に使う。 空のリストは不可）
+     * @param chance
+     *            置換する確率
+     * @param whenAir
+     *            空気ブロックのみ置換するか
+     */
+    public ReplaceBlockAction(Optional<BlockState> with, Optional<List<PaletteEntry>> palette, float chance,
+            boolean whenAir) {
+        this(with, palette.map(WeightedPalette::of).orElse(null), chance, whenAir);
+    }
+
+    private ReplaceBlockAction(Optional<BlockState> with, @Nullable WeightedPalette table, float chance,
+            boolean whenAir) {
+        this.with = with;
+        this.palette = table != null ? Optional.of(table.entries()) : Optional.empty();
+        this.table = table;
+        this.chance = chance;
+        this.whenAir = whenAir;
+    }
+
+    public Optional<BlockState> with() {
+        return with;
+    }
+
+    public Optional<List<PaletteEntry>> palette() {
+        return palette;
+    }
+
+    /**
+     * パレットのエイリアステーブルを返す（パレットがない場合は空）。 コンパイル済みプランも同じテーブルを使う。
+     */
+    public Optional<WeightedPalette> weightedPalette() {
+        return Optional.ofNullable(table);
+    }
+
+    public float chance() {
+        return chance;
+    }
+
+    public boolean whenAir() {
+        return whenAir;
+    }
 
     @Override
     public boolean perform(ActionContext ctx) {
@@ -70,7 +132,7 @@ public record ReplaceBlockAction(Optional<BlockState> with, Optional<List<Palett
                 return false;
             }
 
-            BlockState currentState = ctx.level().getBlockState(ctx.origin());
+            BlockState currentState = ctx.getBlockState(ctx.origin());
 
             // 条件チェック: when_air が true の場合、空気ブロックのみ対象
             if (whenAir && !currentState.isAir()) {
@@ -81,8 +143,8 @@ public record ReplaceBlockAction(Optional<BlockState> with, Optional<List<Palett
             BlockState targetState = null;
             if (with.isPresent()) {
                 targetState = with.get();
-            } else if (palette.isPresent()) {
-                targetState = pickFromPalette(palette.get(), ctx);
+            } else if (table != null) {
+                targetState = table.pick(ctx.random());
             }
 
             if (targetState == null) {
@@ -91,7 +153,7 @@ public record ReplaceBlockAction(Optional<BlockState> with, Optional<List<Palett
             }
 
             // ブロックを置換
-            ctx.level().setBlock(ctx.origin(), targetState, 3);
+            ctx.setBlock(ctx.origin(), targetState);
             KamiGami.LOGGER.debug("Replaced block at {} with {}", ctx.origin(), targetState.getBlock());
             return true;
         } catch (Exception e) {
@@ -100,44 +162,25 @@ public record ReplaceBlockAction(Optional<BlockState> with, Optional<List<Palett
         }
     }
 
-    /**
-     * パレットから重み付きでランダムに1つ選択する。
-     *
-     * @param paletteList
-     *            パレットエントリのリスト
-     * @param ctx
-     *            アクションコンテキスト
-     * @return 選択されたブロック状態
-     */
-    private BlockState pickFromPalette(List<PaletteEntry> paletteList, ActionContext ctx) {
-        if (paletteList.isEmpty()) {
-            return null;
-        }
-
-        // 重みの合計を計算
-        int totalWeight = paletteList.stream().mapToInt(PaletteEntry::weight).sum();
-        if (totalWeight <= 0) {
-            // 重みがすべて0以下の場合は最初のエントリを返す
-            return paletteList.get(0).state();
-        }
-
-        // ランダムに重みを選択
-        int randomWeight = ctx.random().nextInt(totalWeight);
-        int currentWeight = 0;
+    @Override
+    public MapCodec<? extends CurseAction> codec() {
+        return CODEC;
+    }
 
-        for (PaletteEntry entry : paletteList) {
-            currentWeight += entry.weight();
-            if (randomWeight < currentWeight) {
-                return entry.state();
-            }
-        }
+    @Override
+    public boolean equals(Object obj) {
+        return obj instanceof ReplaceBlockAction other && with.equals(other.with) && palette.equals(other.palette)
+                && Float.compare(chance, other.chance) == 0 && whenAir == other.whenAir;
+    }
 
-        // フォールバック（通常ここには到達しない）
-        return paletteList.get(0).state();
+    @Override
+    public int hashCode() {
+        return Objects.hash(with, palette, chance, whenAir);
     }
 
     @Override
-    public MapCodec<? extends CurseAction> codec() {
-        return CODEC;
+    public String toString() {
+        return "ReplaceBlockAction[with=" + with + ", palette=" + palette + ", chance=" + chance + ", whenAir="
+                + whenAir + "]";
     }
 }
@@ -0,0 +1,56 @@
+package com.hydryhydra.kamigami.curse;
+
+import com.mojang.serialization.Codec;
+import com.mojang.serialization.MapCodec;
+import com.mojang.serialization.codecs.RecordCodecBuilder;
+
+import net.minecraft.core.BlockPos;
+
+/**
+ * 球殻。 中心からの距離が radius - thickness より大きく radius 以下のブロックを含む（中身を訪れない）。 thickness が radius
+ * 以上の場合は中心を含む球になる。
+ *
+ * JSON例:
+ *
+ * <pre>
+ * {"type": "shell", "radius": 8, "thickness": 1.5}
+ * </pre>
+ */
+public final class ShellShape extends SpanShape {
+    public static final MapCodec<ShellShape> CODEC = RecordCodecBuilder.mapCodec(instance -> instance
+            .group(Codec.doubleRange(0.0, AreaShapes.MAX_RADIUS).fieldOf("radius")
+                            .forGetter(ShellShape::radius),
+                    Codec.doubleRange(0.0, AreaShapes.MAX_RADIUS).optionalFieldOf("thickness", 1.0)
+                            .forGetter(ShellShape::thickness),
+                    BlockPos.CODEC.optionalFieldOf("center", BlockPos.ZERO).forGetter(ShellShape::center))
+            .apply(instance, ShellShape::new));
+
+    private final double radius;
+    private final double thickness;
+    private final BlockPos center;
+
+    public ShellShape(double radius, double thickness, BlockPos center) {
+        // 内側の半径が 0 だと中心（距離 0）が外れるため、厚さが半径以上なら中身の詰まった球にする
+        super(SpanTable.sphere(radius, thickness >= radius ? -1.0 : radius - thickness, center));
+        this.radius = radius;
+        this.thickness = thickness;
+        this.center = center;
+    }
+
+    public double radius() {
+        return radius;
+    }
+
+    public double thickness() {
+        return thickness;
+    }
+
+    public BlockPos center() {
+        return center;
+    }
+
+    @Override
+    public MapCodec<ShellShape> codec() {
+        return CODEC;
+    }
+}
@@ -26,7 +26,11 @@ import net.minecraft.world.level.Level;
  * レシピは以下の要素で構成される: - trigger: トリガータイプ ("on_break", "on_insert", "on_tick" など) -
  * ingredient: 祠内部のアイテム（Optional<Ingredient> で一致判定、空の場合は空アイテムにのみマッチ） -
  * requireNoSilkTouch: シルクタッチなしを必須とするか（破壊時のみ） - actions: 実行するアクションのリスト -
- * priority: 複数レシピがマッチした場合の優先度（高い方が優先）
+ * priority: 複数レシピがマッチした場合の優先度（高い方が優先） - interval: on_tick の実行間隔（tick） -
+ * jitter: on_tick の実行ごとに間隔へ加える乱数の最大値（tick）
+ *
+ * on_tick のレシピは ShrineScheduler が祠ごとに実行する。 最初の実行は 1〜interval tick 後のランダムな時点になるため、
+ * 同時に読み込まれた祠が同じ tick に揃って実行されることはない。
  *
  * JSON例:
  *
@@ -47,7 +51,10 @@ import net.minecraft.world.level.Level;
  * </pre>
  */
 public record ShrineCurseRecipe(TriggerType trigger, Optional<Ingredient> ingredient, boolean requireNoSilkTouch,
-        CurseAction actions, int priority) implements Recipe<RecipeInput> {
+        CurseAction actions, int priority, int interval, int jitter) implements Recipe<RecipeInput> {
+    // on_tick の実行間隔の既定値（200tick = 10秒）と上限（1日）
+    public static final int DEFAULT_INTERVAL = 200;
+    public static final int MAX_INTERVAL = 24000;
 
     /**
      * トリガータイプ
@@ -76,9 +83,20 @@ public record ShrineCurseRecipe(TriggerType trigger, Optional<Ingredient> ingred
                     Codec.BOOL.optionalFieldOf("require_no_silk_touch", false)
                             .forGetter(ShrineCurseRecipe::requireNoSilkTouch),
                     CurseActions.ACTION_CODEC.fieldOf("actions").forGetter(ShrineCurseRecipe::actions),
-                    Codec.INT.optionalFieldOf("priority", 0).forGetter(ShrineCurseRecipe::priority))
+                    Codec.INT.optionalFieldOf("priority", 0).forGetter(ShrineCurseRecipe::priority),
+                    Codec.intRange(1, MAX_INTERVAL).optionalFieldOf("interval", DEFAULT_INTERVAL)
+                            .forGetter(ShrineCurseRecipe::interval),
+                    Codec.intRange(0, MAX_INTERVAL).optionalFieldOf("jitter", 0).forGetter(ShrineCurseRecipe::jitter))
             .apply(instance, ShrineCurseRecipe::new));
 
+    /**
+     * tick で実行しないレシピ用（interval と jitter は既定値）
+     */
+    public ShrineCurseRecipe(TriggerType trigger, Optional<Ingredient> ingredient, boolean requireNoSilkTouch,
+            CurseAction actions, int priority) {
+        this(trigger, ingredient, requireNoSilkTouch, actions, priority, DEFAULT_INTERVAL, 0);
+    }
+
     /**
      * このレシピが指定されたアイテムにマッチするか判定する。
      *
@@ -0,0 +1,444 @@
+package com.hydryhydra.kamigami.curse;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import com.mojang.serialization.DataResult;
+import com.mojang.serialization.MapCodec;
+
+import io.netty.buffer.Unpooled;
+
+import net.minecraft.core.Registry;
+import net.minecraft.core.particles.ParticleOptions;
+import net.minecraft.core.particles.SimpleParticleType;
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.core.registries.Registries;
+import net.minecraft.nbt.NbtOps;
+import net.minecraft.nbt.Tag;
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.sounds.SoundEvent;
+import net.minecraft.tags.TagKey;
+import net.minecraft.world.item.Item;
+import net.minecraft.world.item.crafting.Ingredient;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.block.state.properties.Property;
+import net.minecraft.world.level.levelgen.Heightmap;
+import net.minecraft.world.phys.Vec3;
+
+/**
+ * 祟りレシピのバイナリ形式。 {@link ShrineCurseRecipeCache} がディスクに保存する。
+ *
+ * Codec を経由せず、アクションはタイプのレジストリの整数 ID（varint）、形状は1バイトのタグに続けてフィールドを順に書く。
+ * 読み込み時はレコードを直接組み立てるため、JSON からのデコードで行うフィールド名の照合や DataResult の生成が要らない。
+ * ここに書き方のないアクション（他の Mod が登録したものなど）は、ID に続けてそのアクションの Codec で NBT として書く。
+ * ブロック状態はブロックの ID とプロパティの名前・値で書く。 アクションタイプは数値 ID で書くため、Mod 構成が同じ場合にしか読めない
+ * （キャッシュのキーに Mod 構成を含めている）。
+ *
+ * 以下を含むレシピは書けない（{@link #isCacheable} が false）。 その場合は通常どおり JSON からデコードする。
+ *
+ * - タグやカスタムの Ingredient（タグの中身はリロードで変わる） - SimpleParticleType 以外のパーティクル - ここに書き方のない
+ * 形状 - 未登録のアクション、または Codec で NBT に書けないアクション
+ */
+final class ShrineCurseRecipeBinary {
+    // 形状のタグ
+    private static final byte BOX = 0;
+    private static final byte SPHERE = 1;
+    private static final byte SHELL = 2;
+    private static final byte CYLINDER = 3;
+    private static final byte DISC = 4;
+    private static final byte SURFACE = 5;
+
+    private ShrineCurseRecipeBinary() {
+    }
+
+    /**
+     * レシピをバイナリ形式で表せるかを返す。 書き出す前に確かめ、表せないレシピは例外を作らずにキャッシュの対象から外す。
+     */
+    static boolean isCacheable(ShrineCurseRecipe recipe) {
+        return recipe.ingredient().map(ShrineCurseRecipeIndex::isDirectItemIngredient).orElse(true)
+                && isCacheable(recipe.actions());
+    }
+
+    private static boolean isCacheable(CurseAction action) {
+        if (CurseActions.typeId(action.codec()) < 0) {
+            return false;
+        }
+        return switch (action) {
+            case SequenceAction sequence -> sequence.steps().stream().allMatch(ShrineCurseRecipeBinary::isCacheable);
+            case PlayEffectsAction effects -> effects.particle().map(particle -> particle instanceof SimpleParticleType)
+                    .orElse(true);
+            case AreaAction area -> isCacheable(area.shape()) && isCacheable(area.perPosition());
+            case ChanceAction chance -> isCacheable(chance.action());
+            case SpawnEntityAction spawn -> true;
+            case ReplaceBlockAction replace -> true;
+            case DropItemAction drop -> true;
+            case ConditionalReplaceAction conditional -> true;
+            default -> encodeWithCodec(action).isSuccess();
+        };
+    }
+
+    private static boolean isCacheable(AreaShape shape) {
+        return shape instanceof AreaAction.Box || shape instanceof SphereShape || shape instanceof ShellShape
+                || shape instanceof CylinderShape || shape instanceof DiscShape || shape instanceof SurfaceShape;
+    }
+
+    /**
+     * レシピをバイト列に書き出す。
+     *
+     * @param recipe
+     *            {@link #isCacheable} が true のレシピ
+     * @throws IllegalArgumentException
+     *             バイナリ形式で表せないレシピの場合
+     */
+    static byte[] write(ShrineCurseRecipe recipe) {
+        FriendlyByteBuf buf = new FriendlyByteBuf(Unpooled.buffer());
+        buf.writeEnum(recipe.trigger());
+        writeIngredient(buf, recipe.ingredient());
+        buf.writeBoolean(recipe.requireNoSilkTouch());
+        writeAction(buf, recipe.actions());
+        buf.writeVarInt(recipe.priority());
+        buf.writeVarInt(recipe.interval());
+        buf.writeVarInt(recipe.jitter());
+
+        byte[] bytes = new byte[buf.readableBytes()];
+        buf.readBytes(bytes);
+        return bytes;
+    }
+
+    /**
+     * バイト列からレシピを読み込む。
+     *
+     * @throws RuntimeException
+     *             バイト列が壊れている場合や、書き出した時点のレジストリの要素が見つからない場合
+     */
+    static ShrineCurseRecipe read(byte[] bytes) {
+        FriendlyByteBuf buf = new FriendlyByteBuf(Unpooled.wrappedBuffer(bytes));
+        ShrineCurseRecipe recipe = new ShrineCurseRecipe(buf.readEnum(ShrineCurseRecipe.TriggerType.class),
+                readIngredient(buf), buf.readBoolean(), readAction(buf), buf.readVarInt(), buf.readVarInt(),
+                buf.readVarInt());
+        if (buf.isReadable()) {
+            throw new IllegalStateException("Trailing bytes in cached recipe: " + buf.readableBytes());
+        }
+        return recipe;
+    }
+
+    // ========================================
+    // Ingredient
+    // ========================================
+
+    private static void writeIngredient(FriendlyByteBuf buf, Optional<Ingredient> ingredient) {
+        if (ingredient.isEmpty()) {
+            buf.writeVarInt(-1);
+            return;
+        }
+        if (!ShrineCurseRecipeIndex.isDirectItemIngredient(ingredient.get())) {
+            throw new IllegalArgumentException("Only item ingredients can be cached");
+        }
+        List<Item> items = ingredient.get().items().map(holder -> holder.value()).toList();
+        buf.writeVarInt(items.size());
+        for (Item item : items) {
+            writeId(buf, BuiltInRegistries.ITEM, item);
+        }
+    }
+
+    private static Optional<Ingredient> readIngredient(FriendlyByteBuf buf) {
+        int count = buf.readVarInt();
+        if (count < 0) {
+            return Optional.empty();
+        }
+        List<Item> items = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            items.add(readValue(buf, BuiltInRegistries.ITEM));
+        }
+        return Optional.of(Ingredient.of(items.stream()));
+    }
+
+    // ========================================
+    // アクション
+    // ========================================
+
+    private static void writeAction(FriendlyByteBuf buf, CurseAction action) {
+        int typeId = CurseActions.typeId(action.codec());
+        if (typeId < 0) {
+            throw new IllegalArgumentException("Unregistered action type: " + action.codec());
+        }
+        buf.writeVarInt(typeId);
+        switch (action) {
+            case SequenceAction sequence -> {
+                buf.writeVarInt(sequence.steps().size());
+                for (CurseAction step : sequence.steps()) {
+                    writeAction(buf, step);
+                }
+            }
+            case SpawnEntityAction spawn -> {
+                writeId(buf, BuiltInRegistries.ENTITY_TYPE, spawn.entityType());
+                writeVec3(buf, spawn.offset());
+                buf.writeBoolean(spawn.nbt().isPresent());
+                spawn.nbt().ifPresent(buf::writeNbt);
+            }
+            case PlayEffectsAction effects -> {
+                buf.writeBoolean(effects.sound().isPresent());
+                effects.sound().ifPresent(sound -> writeId(buf, BuiltInRegistries.SOUND_EVENT, sound));
+                buf.writeFloat(effects.soundVolume());
+                buf.writeFloat(effects.soundPitch());
+                buf.writeBoolean(effects.particle().isPresent());
+                if (effects.particle().isPresent()) {
+                    if (!(effects.particle().get() instanceof SimpleParticleType particle)) {
+                        throw new IllegalArgumentException("Only simple particles can be cached");
+                    }
+                    writeId(buf, BuiltInRegistries.PARTICLE_TYPE, particle);
+                }
+                buf.writeVarInt(effects.particleCount());
+                writeVec3(buf, effects.offset());
+            }
+            case ReplaceBlockAction replace -> {
+                buf.writeBoolean(replace.with().isPresent());
+                replace.with().ifPresent(state -> writeState(buf, state));
+                buf.writeBoolean(replace.palette().isPresent());
+                if (replace.palette().isPresent()) {
+                    List<ReplaceBlockAction.PaletteEntry> entries = replace.palette().get();
+                    buf.writeVarInt(entries.size());
+                    for (ReplaceBlockAction.PaletteEntry entry : entries) {
+                        writeState(buf, entry.state());
+                        buf.writeInt(entry.weight());
+                    }
+                }
+                buf.writeFloat(replace.chance());
+                buf.writeBoolean(replace.whenAir());
+            }
+            case AreaAction area -> {
+                writeShape(buf, area.shape());
+                writeAction(buf, area.perPosition());
+            }
+            case ChanceAction chance -> {
+                buf.writeFloat(chance.probability());
+                writeAction(buf, chance.action());
+            }
+            case DropItemAction drop -> {
+                writeId(buf, BuiltInRegistries.ITEM, drop.item());
+                buf.writeInt(drop.count());
+            }
+            case ConditionalReplaceAction conditional -> {
+                buf.writeBoolean(conditional.matchTag().isPresent());
+                conditional.matchTag().ifPresent(tag -> buf.writeResourceLocation(tag.location()));
+                buf.writeBoolean(conditional.matchState().isPresent());
+                conditional.matchState().ifPresent(state -> writeState(buf, state));
+                writeState(buf, conditional.replaceWith());
+                buf.writeBoolean(conditional.dropItem().isPresent());
+                conditional.dropItem().ifPresent(item -> writeId(buf, BuiltInRegistries.ITEM, item));
+                buf.writeInt(conditional.dropCount());
+            }
+            // 書き方のないアクションはそのアクションの Codec で書く
+            default -> buf.writeNbt(encodeWithCodec(action).getOrThrow());
+        }
+    }
+
+    private static CurseAction readAction(FriendlyByteBuf buf) {
+        int typeId = buf.readVarInt();
+        MapCodec<? extends CurseAction> type = CurseActions.REGISTRY.byId(typeId);
+        if (type == null) {
+            throw new IllegalStateException("Unknown action type id in cached recipe: " + typeId);
+        }
+        if (type == CurseActions.SEQUENCE.get()) {
+            int count = buf.readVarInt();
+            List<CurseAction> steps = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                steps.add(readAction(buf));
+            }
+            return new SequenceAction(List.copyOf(steps));
+        }
+        if (type == CurseActions.SPAWN_ENTITY.get()) {
+            return new SpawnEntityAction(readValue(buf, BuiltInRegistries.ENTITY_TYPE), readVec3(buf),
+                    buf.readBoolean() ? Optional.of(buf.readNbt()) : Optional.empty());
+        }
+        if (type == CurseActions.PLAY_EFFECTS.get()) {
+            Optional<SoundEvent> sound = buf.readBoolean()
+                    ? Optional.of(readValue(buf, BuiltInRegistries.SOUND_EVENT))
+                    : Optional.empty();
+            float volume = buf.readFloat();
+            float pitch = buf.readFloat();
+            Optional<ParticleOptions> particle = buf.readBoolean() ? Optional.of(readParticle(buf)) : Optional.empty();
+            return new PlayEffectsAction(sound, volume, pitch, particle, buf.readVarInt(), readVec3(buf));
+        }
+        if (type == CurseActions.REPLACE_BLOCK.get()) {
+            Optional<BlockState> with = buf.readBoolean() ? Optional.of(readState(buf)) : Optional.empty();
+            Optional<List<ReplaceBlockAction.PaletteEntry>> palette = Optional.empty();
+            if (buf.readBoolean()) {
+                int count = buf.readVarInt();
+                List<ReplaceBlockAction.PaletteEntry> entries = new ArrayList<>(count);
+                for (int i = 0; i < count; i++) {
+                    entries.add(new ReplaceBlockAction.PaletteEntry(readState(buf), buf.readInt()));
+                }
+                palette = Optional.of(entries);
+            }
+            return new ReplaceBlockAction(with, palette, buf.readFloat(), buf.readBoolean());
+        }
+        if (type == CurseActions.AREA.get()) {
+            return new AreaAction(readShape(buf), readAction(buf));
+        }
+        if (type == CurseActions.CHANCE.get()) {
+            return new ChanceAction(buf.readFloat(), readAction(buf));
+        }
+        if (type == CurseActions.DROP_ITEM.get()) {
+            return new DropItemAction(readValue(buf, BuiltInRegistries.ITEM), buf.readInt());
+        }
+        if (type == CurseActions.CONDITIONAL_REPLACE.get()) {
+            Optional<TagKey<Block>> matchTag = buf.readBoolean()
+                    ? Optional.of(TagKey.create(Registries.BLOCK, buf.readResourceLocation()))
+                    : Optional.empty();
+            Optional<BlockState> matchState = buf.readBoolean() ? Optional.of(readState(buf)) : Optional.empty();
+            BlockState replaceWith = readState(buf);
+            Optional<Item> dropItem = buf.readBoolean()
+                    ? Optional.of(readValue(buf, BuiltInRegistries.ITEM))
+                    : Optional.empty();
+            return new ConditionalReplaceAction(matchTag, matchState, replaceWith, dropItem, buf.readInt());
+        }
+        // 書き方のないタイプは、そのタイプの Codec で NBT として書いてある
+        return type.codec().parse(NbtOps.INSTANCE, buf.readNbt()).getOrThrow();
+    }
+
+    /**
+     * アクションをそのタイプの Codec で NBT にエンコードする（"type" フィールドは含まない）。
+     */
+    @SuppressWarnings("unchecked")
+    private static <A extends CurseAction> DataResult<Tag> encodeWithCodec(CurseAction action) {
+        return ((MapCodec<A>) action.codec()).codec().encodeStart(NbtOps.INSTANCE, (A) action);
+    }
+
+    // ========================================
+    // 形状
+    // ========================================
+
+    private static void writeShape(FriendlyByteBuf buf, AreaShape shape) {
+        switch (shape) {
+            case AreaAction.Box box -> {
+                buf.writeByte(BOX);
+                writeVec3(buf, box.min());
+                writeVec3(buf, box.max());
+            }
+            case SphereShape sphere -> {
+                buf.writeByte(SPHERE);
+                buf.writeDouble(sphere.radius());
+                buf.writeBlockPos(sphere.center());
+            }
+            case ShellShape shell -> {
+                buf.writeByte(SHELL);
+                buf.writeDouble(shell.radius());
+                buf.writeDouble(shell.thickness());
+                buf.writeBlockPos(shell.center());
+            }
+            case CylinderShape cylinder -> {
+                buf.writeByte(CYLINDER);
+                buf.writeDouble(cylinder.radius());
+                buf.writeVarInt(cylinder.height());
+                buf.writeBlockPos(cylinder.center());
+            }
+            case DiscShape disc -> {
+                buf.writeByte(DISC);
+                buf.writeDouble(disc.radius());
+                buf.writeBlockPos(disc.center());
+            }
+            case SurfaceShape surface -> {
+                buf.writeByte(SURFACE);
+                buf.writeDouble(surface.radius());
+                buf.writeEnum(surface.heightmap());
+                buf.writeInt(surface.yOffset());
+                buf.writeVarInt(surface.depth());
+                buf.writeBlockPos(surface.center());
+            }
+            default -> throw new IllegalArgumentException("No binary form for area shape: " + shape);
+        }
+    }
+
+    private static AreaShape readShape(FriendlyByteBuf buf) {
+        byte tag = buf.readByte();
+        return switch (tag) {
+            case BOX -> new AreaAction.Box(readVec3(buf), readVec3(buf));
+            case SPHERE -> new SphereShape(buf.readDouble(), buf.readBlockPos());
+            case SHELL -> new ShellShape(buf.readDouble(), buf.readDouble(), buf.readBlockPos());
+            case CYLINDER -> new CylinderShape(buf.readDouble(), buf.readVarInt(), buf.readBlockPos());
+            case DISC -> new DiscShape(buf.readDouble(), buf.readBlockPos());
+            case SURFACE -> new SurfaceShape(buf.readDouble(), buf.readEnum(Heightmap.Types.class), buf.readInt(),
+                    buf.readVarInt(), buf.readBlockPos());
+            default -> throw new IllegalStateException("Unknown shape tag in cached recipe: " + tag);
+        };
+    }
+
+    // ========================================
+    // 値
+    // ========================================
+
+    private static <T> void writeId(FriendlyByteBuf buf, Registry<T> registry, T value) {
+        ResourceLocation id = registry.getKey(value);
+        if (id == null) {
+            throw new IllegalArgumentException("Unregistered value: " + value);
+        }
+        buf.writeResourceLocation(id);
+    }
+
+    private static <T> T readValue(FriendlyByteBuf buf, Registry<T> registry) {
+        ResourceLocation id = buf.readResourceLocation();
+        return registry.getOptional(id)
+                .orElseThrow(() -> new IllegalStateException("Unknown " + registry.key().location() + ": " + id));
+    }
+
+    private static SimpleParticleType readParticle(FriendlyByteBuf buf) {
+        if (readValue(buf, BuiltInRegistries.PARTICLE_TYPE) instanceof SimpleParticleType particle) {
+            return particle;
+        }
+        // 書き出し時は SimpleParticleType だったので、レジストリが変わっている
+        throw new IllegalStateException("Cached particle is no longer a simple particle");
+    }
+
+    /**
+     * ブロック状態はブロックの ID とプロパティの名前・値で書く。 数値 ID は登録順で変わり、違う状態を黙って読んでしまうため使わない。
+     */
+    private static void writeState(FriendlyByteBuf buf, BlockState state) {
+        writeId(buf, BuiltInRegistries.BLOCK, state.getBlock());
+        buf.writeVarInt(state.getProperties().size());
+        for (Property<?> property : state.getProperties()) {
+            buf.writeUtf(property.getName());
+            buf.writeUtf(valueName(state, property));
+        }
+    }
+
+    private static BlockState readState(FriendlyByteBuf buf) {
+        Block block = readValue(buf, BuiltInRegistries.BLOCK);
+        BlockState state = block.defaultBlockState();
+        int count = buf.readVarInt();
+        for (int i = 0; i < count; i++) {
+            String name = buf.readUtf();
+            String value = buf.readUtf();
+            Property<?> property = block.getStateDefinition().getProperty(name);
+            if (property == null) {
+                throw new IllegalStateException("Unknown property in cached recipe: " + block + "[" + name + "]");
+            }
+            state = withValue(state, property, value);
+        }
+        return state;
+    }
+
+    private static <T extends Comparable<T>> String valueName(BlockState state, Property<T> property) {
+        return property.getName(state.getValue(property));
+    }
+
+    private static <T extends Comparable<T>> BlockState withValue(BlockState state, Property<T> property,
+            String value) {
+        T parsed = property.getValue(value).orElseThrow(() -> new IllegalStateException(
+                "Unknown value in cached recipe: " + state.getBlock() + "[" + property.getName() + "=" + value + "]"));
+        return state.setValue(property, parsed);
+    }
+
+    private static void writeVec3(FriendlyByteBuf buf, Vec3 vec) {
+        buf.writeDouble(vec.x);
+        buf.writeDouble(vec.y);
+        buf.writeDouble(vec.z);
+    }
+
+    private static Vec3 readVec3(FriendlyByteBuf buf) {
+        return new Vec3(buf.readDouble(), buf.readDouble(), buf.readDouble());
+    }
+}
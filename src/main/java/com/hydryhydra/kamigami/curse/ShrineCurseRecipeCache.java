@@ -0,0 +1,252 @@
+package com.hydryhydra.kamigami.curse;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import com.google.gson.JsonElement;
+import com.hydryhydra.kamigami.KamiGami;
+import com.hydryhydra.kamigami.KamiGamiConfig;
+import com.mojang.serialization.DataResult;
+import com.mojang.serialization.DynamicOps;
+import com.mojang.serialization.MapCodec;
+import com.mojang.serialization.MapLike;
+import com.mojang.serialization.RecordBuilder;
+
+import net.neoforged.fml.ModList;
+import net.neoforged.fml.loading.FMLPaths;
+import net.neoforged.neoforgespi.language.IModInfo;
+
+/**
+ * 祟りレシピのデコード結果のディスクキャッシュ。
+ *
+ * RecipeManager が JSON からレシピをデコードするときに {@link #wrap} した Codec を通し、レシピの JSON の内容のハッシュで
+ * {@code <game dir>/kamigami/recipe_cache/shrine_curse.bin} を引く。 ヒットした場合は {@link ShrineCurseRecipeBinary}
+ * から直接組み立て、再帰的な ACTION_CODEC のディスパッチを行わない。 ミスした場合は通常どおりデコードし、結果をバイナリ形式で
+ * 記録する。
+ *
+ * キーにはレシピの JSON のほか、形式のバージョンと Mod 構成（ID とバージョン）を含めるため、データパック・Mod の
+ * どちらが変わっても古いエントリは使われない。 ファイルはリロードの完了時に、そのリロードで使ったエントリだけで書き直す。
+ */
+public final class ShrineCurseRecipeCache {
+    // バイナリ形式を変えたら上げる（古いファイルは丸ごと捨てられる）
+    private static final int FORMAT_VERSION = 4;
+    private static final int MAGIC = 0x4B475243; // "KGRC"
+
+    // ディスクから読んだ（または前回保存した）エントリ。 null は未読み込み
+    private static Map<String, byte[]> stored;
+    // 今回のリロードで使ったエントリ
+    private static final Map<String, byte[]> used = new HashMap<>();
+    private static String fingerprint;
+    private static int hits;
+    private static int misses;
+
+    private ShrineCurseRecipeCache() {
+    }
+
+    /**
+     * JSON からのデコードをキャッシュする MapCodec を作る。 JSON 以外（NBT など）からのデコードとエンコードは
+     * そのまま codec に任せる。
+     */
+    public static MapCodec<ShrineCurseRecipe> wrap(MapCodec<ShrineCurseRecipe> codec) {
+        return new MapCodec<>() {
+            @Override
+            public <T> Stream<T> keys(DynamicOps<T> ops) {
+                return codec.keys(ops);
+            }
+
+            @Override
+            public <T> DataResult<ShrineCurseRecipe> decode(DynamicOps<T> ops, MapLike<T> input) {
+                if (!KamiGamiConfig.RECIPE_DISK_CACHE.get() || !(ops.empty() instanceof JsonElement)) {
+                    return codec.decode(ops, input);
+                }
+                String key = key(ops.createMap(input.entries()).toString());
+                ShrineCurseRecipe cached = lookup(key);
+                if (cached != null) {
+                    return DataResult.success(cached);
+                }
+                DataResult<ShrineCurseRecipe> result = codec.decode(ops, input);
+                result.ifSuccess(recipe -> store(key, recipe));
+                return result;
+            }
+
+            @Override
+            public <T> RecordBuilder<T> encode(ShrineCurseRecipe input, DynamicOps<T> ops, RecordBuilder<T> prefix) {
+                return codec.encode(input, ops, prefix);
+            }
+
+            @Override
+            public String toString() {
+                return "Cached[" + codec + "]";
+            }
+        };
+    }
+
+    private static synchronized ShrineCurseRecipe lookup(String key) {
+        if (stored == null) {
+            stored = load();
+        }
+        byte[] bytes = stored.get(key);
+        if (bytes == null) {
+            return null;
+        }
+        try {
+            ShrineCurseRecipe recipe = ShrineCurseRecipeBinary.read(bytes);
+            used.put(key, bytes);
+            hits++;
+            return recipe;
+        } catch (RuntimeException e) {
+            KamiGami.LOGGER.warn("Discarding unreadable cached shrine curse recipe {}", key, e);
+            stored.remove(key);
+            return null;
+        }
+    }
+
+    private static synchronized void store(String key, ShrineCurseRecipe recipe) {
+        misses++;
+        if (!ShrineCurseRecipeBinary.isCacheable(recipe)) {
+            // バイナリ形式で表せないレシピは毎回 JSON からデコードする
+            return;
+        }
+        try {
+            used.put(key, ShrineCurseRecipeBinary.write(recipe));
+        } catch (RuntimeException e) {
+            // キャッシュは最適化にすぎないため、書けなくてもデコード結果はそのまま使う
+            KamiGami.LOGGER.warn("Failed to cache shrine curse recipe {}", key, e);
+        }
+    }
+
+    /**
+     * 今回のリロードで使ったエントリをディスクに書き出し、次のリロードに備えて記録をリセットする。 リロードの完了時に呼ぶ。
+     */
+    static synchronized void save() {
+        if (hits + misses == 0) {
+            // キャッシュを通したデコードがなかった（無効化されている場合を含む）
+            return;
+        }
+        KamiGami.LOGGER.info("Shrine curse recipe cache: {} hit(s), {} miss(es)", hits, misses);
+
+        boolean changed = stored == null || !stored.keySet().equals(used.keySet());
+        stored = new HashMap<>(used);
+        used.clear();
+        hits = 0;
+        misses = 0;
+        if (!changed) {
+            return;
+        }
+
+        Path file = file();
+        try {
+            Files.createDirectories(file.getParent());
+            Path temp = Files.createTempFile(file.getParent(), "shrine_curse", ".tmp");
+            try {
+                try (DataOutputStream out = new DataOutputStream(Files.newOutputStream(temp))) {
+                    write(out, stored);
+                }
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        } catch (IOException e) {
+            // キャッシュは最適化にすぎないため、書けなくてもレシピはそのまま使える
+            KamiGami.LOGGER.warn("Failed to write shrine curse recipe cache {}", file, e);
+        }
+    }
+
+    private static Map<String, byte[]> load() {
+        Path file = file();
+        try (DataInputStream in = new DataInputStream(Files.newInputStream(file))) {
+            Map<String, byte[]> entries = read(in);
+            KamiGami.LOGGER.debug("Loaded {} cached shrine curse recipe(s) from {}", entries.size(), file);
+            return entries;
+        } catch (NoSuchFileException e) {
+            return new HashMap<>();
+        } catch (IOException e) {
+            KamiGami.LOGGER.warn("Discarding unreadable shrine curse recipe cache {}", file, e);
+            return new HashMap<>();
+        }
+    }
+
+    private static void write(DataOutputStream out, Map<String, byte[]> entries) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeInt(FORMAT_VERSION);
+        out.writeUTF(fingerprint());
+        out.writeInt(entries.size());
+        for (Map.Entry<String, byte[]> entry : entries.entrySet()) {
+            out.writeUTF(entry.getKey());
+            out.writeInt(entry.getValue().length);
+            out.write(entry.getValue());
+        }
+    }
+
+    private static Map<String, byte[]> read(DataInputStream in) throws IOException {
+        Map<String, byte[]> entries = new HashMap<>();
+        if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION || !in.readUTF().equals(fingerprint())) {
+            // 形式か Mod 構成が変わっているため、すべて作り直す
+            return entries;
+        }
+        int count = in.readInt();
+        for (int i = 0; i < count; i++) {
+            String key = in.readUTF();
+            byte[] bytes = new byte[in.readInt()];
+            in.readFully(bytes);
+            entries.put(key, bytes);
+        }
+        return entries;
+    }
+
+    private static Path file() {
+        return FMLPaths.GAMEDIR.get().resolve(KamiGami.MODID).resolve("recipe_cache").resolve("shrine_curse.bin");
+    }
+
+    /**
+     * レシピの JSON とキャッシュの前提（形式・Mod 構成）からキーを作る。
+     */
+    private static String key(String json) {
+        MessageDigest digest = sha256();
+        digest.update(fingerprint().getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+        digest.update(json.getBytes(StandardCharsets.UTF_8));
+        // 128 ビットあればエントリの区別には十分
+        return HexFormat.of().formatHex(digest.digest(), 0, 16);
+    }
+
+    /**
+     * バイナリ形式が依存する Mod 構成のハッシュ。 アクションタイプの数値 ID は登録順で決まるため、ID と名前の対応も含める。
+     */
+    private static synchronized String fingerprint() {
+        if (fingerprint == null) {
+            MessageDigest digest = sha256();
+            digest.update(("v" + FORMAT_VERSION).getBytes(StandardCharsets.UTF_8));
+            for (MapCodec<? extends CurseAction> type : CurseActions.REGISTRY) {
+                digest.update((";" + CurseActions.typeId(type) + "=" + CurseActions.REGISTRY.getKey(type))
+                        .getBytes(StandardCharsets.UTF_8));
+            }
+            ModList.get().getMods().stream().sorted(Comparator.comparing(IModInfo::getModId))
+                    .forEach(mod -> digest.update((";" + mod.getModId() + "=" + mod.getVersion())
+                            .getBytes(StandardCharsets.UTF_8)));
+            fingerprint = HexFormat.of().formatHex(digest.digest(), 0, 16);
+        }
+        return fingerprint;
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
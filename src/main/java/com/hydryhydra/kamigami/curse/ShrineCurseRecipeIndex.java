@@ -0,0 +1,131 @@
+package com.hydryhydra.kamigami.curse;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.world.item.Item;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.item.crafting.Ingredient;
+import net.minecraft.world.item.crafting.display.SlotDisplay;
+
+/**
+ * 祟りレシピの検索用インデックス。
+ *
+ * トリガータイプごとに以下の3つのバケットを持つ: - byItem: アイテム直接指定の Ingredient をアイテムごとに分類したもの -
+ * emptyItem: ingredient なし（空アイテム専用）のレシピ - fallback: タグやカスタム Ingredient など、事前に分類できないレシピ
+ *
+ * 各バケット内は元のレシピリストの順序（優先度順）を保持する。 インデックスは不変で、レシピの再ロード時に作り直す。
+ */
+final class ShrineCurseRecipeIndex {
+    static final ShrineCurseRecipeIndex EMPTY = new ShrineCurseRecipeIndex(List.of());
+
+    /**
+     * 元のリスト内の順位付きエントリ。 バケットをまたいで優先度を比較するために使う。
+     */
+    private record Entry(int order, ShrineCurseRecipes.LoadedRecipe loaded) {
+    }
+
+    private static final class Bucket {
+        private final Map<Item, List<Entry>> byItem = new HashMap<>();
+        private final List<Entry> emptyItem = new ArrayList<>();
+        private final List<Entry> fallback = new ArrayList<>();
+    }
+
+    private final Map<ShrineCurseRecipe.TriggerType, Bucket> buckets = new EnumMap<>(
+            ShrineCurseRecipe.TriggerType.class);
+    private final Map<ResourceLocation, ShrineCurseRecipes.LoadedRecipe> byId = new HashMap<>();
+
+    /**
+     * 優先度順にソート済みのレシピリストからインデックスを構築する。
+     *
+     * @param sortedRecipes
+     *            優先度順にソート済みのレシピリスト
+     */
+    ShrineCurseRecipeIndex(List<ShrineCurseRecipes.LoadedRecipe> sortedRecipes) {
+        for (int i = 0; i < sortedRecipes.size(); i++) {
+            ShrineCurseRecipes.LoadedRecipe loaded = sortedRecipes.get(i);
+            Entry entry = new Entry(i, loaded);
+            byId.putIfAbsent(loaded.id(), loaded);
+            Bucket bucket = buckets.computeIfAbsent(loaded.recipe().trigger(), t -> new Bucket());
+
+            Optional<Ingredient> ingredient = loaded.recipe().ingredient();
+            if (ingredient.isEmpty()) {
+                bucket.emptyItem.add(entry);
+            } else if (isDirectItemIngredient(ingredient.get())) {
+                // 同じアイテムが Ingredient 内に重複していても1回だけ登録する
+                ingredient.get().items().map(holder -> holder.value()).distinct()
+                        .forEach(item -> bucket.byItem.computeIfAbsent(item, k -> new ArrayList<>()).add(entry));
+            } else {
+                bucket.fallback.add(entry);
+            }
+        }
+    }
+
+    /**
+     * アイテムを直接列挙している Ingredient かどうかを判定する。 タグ指定の Ingredient はタグの中身がリロードで変わり得るため、
+     * カスタム Ingredient はアイテム以外（コンポーネントなど）も判定し得るため、どちらもフォールバック扱いにする。
+     */
+    static boolean isDirectItemIngredient(Ingredient ingredient) {
+        return !ingredient.isCustom() && !(ingredient.display() instanceof SlotDisplay.TagSlotDisplay);
+    }
+
+    /**
+     * ID でレシピを取得する。
+     */
+    Optional<ShrineCurseRecipes.LoadedRecipe> get(ResourceLocation id) {
+        return Optional.ofNullable(byId.get(id));
+    }
+
+    /**
+     * 指定されたトリガーとアイテムにマッチする最も優先度の高いレシピを検索する。
+     *
+     * @param trigger
+     *            トリガータイプ
+     * @param cursedItem
+     *            祠内部のアイテム
+     * @return マッチしたレシピ（見つからない場合は空）
+     */
+    Optional<ShrineCurseRecipes.LoadedRecipe> find(ShrineCurseRecipe.TriggerType trigger, ItemStack cursedItem) {
+        Bucket bucket = buckets.get(trigger);
+        if (bucket == null) {
+            return Optional.empty();
+        }
+
+        // 空アイテムは ingredient なしのレシピにのみマッチする
+        if (cursedItem.isEmpty()) {
+            return bucket.emptyItem.isEmpty()
+                    ? Optional.empty()
+                    : Optional.of(bucket.emptyItem.get(0).loaded());
+        }
+
+        // アイテム直接指定のバケットから最上位の候補を探す
+        Entry candidate = null;
+        List<Entry> itemEntries = bucket.byItem.get(cursedItem.getItem());
+        if (itemEntries != null) {
+            for (Entry entry : itemEntries) {
+                if (entry.loaded().recipe().matches(cursedItem)) {
+                    candidate = entry;
+                    break;
+                }
+            }
+        }
+
+        // フォールバックのうち、候補より優先度の高いものだけを評価する
+        for (Entry entry : bucket.fallback) {
+            if (candidate != null && entry.order() > candidate.order()) {
+                break;
+            }
+            if (entry.loaded().recipe().matches(cursedItem)) {
+                candidate = entry;
+                break;
+            }
+        }
+
+        return candidate == null ? Optional.empty() : Optional.of(candidate.loaded());
+    }
+}
@@ -0,0 +1,71 @@
+package com.hydryhydra.kamigami.curse;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+import com.hydryhydra.kamigami.KamiGami;
+
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.server.packs.resources.PreparableReloadListener;
+import net.minecraft.util.Unit;
+import net.minecraft.world.item.crafting.RecipeManager;
+import net.neoforged.bus.api.SubscribeEvent;
+import net.neoforged.fml.common.EventBusSubscriber;
+import net.neoforged.neoforge.event.AddServerReloadListenersEvent;
+import net.neoforged.neoforge.event.tick.ServerTickEvent;
+import net.neoforged.neoforge.resource.VanillaServerListeners;
+
+/**
+ * データパックのリロード時に祟りレシピのスナップショットを作り直すリスナー。
+ *
+ * RecipeManager の適用が終わった後に、レシピの抽出・プランのコンパイル・インデックスの構築をすべてバックグラウンドの
+ * Executor で行う。 できたスナップショットはこの時点では公開せず、作成元の RecipeManager と組にして保留しておく。
+ * 他のリスナーが失敗するとリロードは取り消されるため、サーバーがその RecipeManager を使い始めたこと（リロードの確定）を
+ * tick の開始時に確かめてから {@link ShrineCurseRecipes#publish} で差し替える。 取り消されたリロードのスナップショットは
+ * 公開されず、次のリロードで上書きされる。 リロード後の最初の tick から新しいレシピが使われる。
+ */
+@EventBusSubscriber(modid = KamiGami.MODID)
+final class ShrineCurseRecipeReloadListener implements PreparableReloadListener {
+    static final ResourceLocation ID = ResourceLocation.fromNamespaceAndPath(KamiGami.MODID, "shrine_curse_recipes");
+
+    // 公開待ちのスナップショット（リロードが確定するまで保持する）
+    private static volatile Pending pending;
+
+    private final RecipeManager recipeManager;
+
+    private record Pending(RecipeManager recipeManager, ShrineCurseRecipes.Snapshot snapshot) {
+    }
+
+    private ShrineCurseRecipeReloadListener(RecipeManager recipeManager) {
+        this.recipeManager = recipeManager;
+    }
+
+    @SubscribeEvent
+    public static void onAddServerReloadListeners(AddServerReloadListenersEvent event) {
+        event.addListener(ID, new ShrineCurseRecipeReloadListener(event.getServerResources().getRecipeManager()));
+        // RecipeManager の適用後に実行する
+        event.addDependency(VanillaServerListeners.RECIPES, ID);
+    }
+
+    @Override
+    public CompletableFuture<Void> reload(PreparableReloadListener.SharedState sharedState, Executor backgroundExecutor,
+            PreparableReloadListener.PreparationBarrier barrier, Executor gameExecutor) {
+        // 準備段階では何もしない（RecipeManager はまだ適用されていない）
+        return barrier.wait(Unit.INSTANCE)
+                .thenApplyAsync(unit -> ShrineCurseRecipes.buildSnapshot(recipeManager), backgroundExecutor)
+                .thenAccept(snapshot -> {
+                    pending = new Pending(recipeManager, snapshot);
+                    // RecipeManager のデコードで使ったキャッシュを次回の起動・リロード用に保存する
+                    ShrineCurseRecipeCache.save();
+                });
+    }
+
+    @SubscribeEvent
+    public static void onServerTick(ServerTickEvent.Pre event) {
+        Pending next = pending;
+        if (next != null && event.getServer().getRecipeManager() == next.recipeManager()) {
+            pending = null;
+            ShrineCurseRecipes.publish(next.snapshot());
+        }
+    }
+}
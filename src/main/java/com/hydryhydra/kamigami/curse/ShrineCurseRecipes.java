@@ -5,13 +5,23 @@ import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
 
+import javax.annotation.Nullable;
+
 import com.hydryhydra.kamigami.KamiGami;
+import com.hydryhydra.kamigami.KamiGamiConfig;
+import com.hydryhydra.kamigami.KamiGamiDiagnostics;
+import com.hydryhydra.kamigami.KamiGamiDiagnostics.Category;
+import com.hydryhydra.kamigami.curse.plan.CursePlan;
+import com.hydryhydra.kamigami.curse.plan.CursePlanCompiler;
 
+import net.minecraft.core.BlockPos;
 import net.minecraft.core.particles.ParticleTypes;
 import net.minecraft.nbt.CompoundTag;
 import net.minecraft.resources.ResourceLocation;
 import net.minecraft.server.level.ServerLevel;
 import net.minecraft.sounds.SoundEvents;
+import net.minecraft.util.RandomSource;
+import net.minecraft.world.entity.player.Player;
 import net.minecraft.world.item.ItemStack;
 import net.minecraft.world.item.crafting.Ingredient;
 import net.minecraft.world.item.crafting.RecipeHolder;
@@ -21,49 +31,100 @@ import net.minecraft.world.phys.Vec3;
 /**
  * 祠の祟りレシピを管理するクラス。
  *
- * Phase 1 では静的登録のみ。Phase 3 で DataPack ローディングを実装予定。
+ * レシピは優先度順のリストと検索用インデックスを束ねた不変のスナップショットとして保持する。 データパックのリロード時には
+ * {@link ShrineCurseRecipeReloadListener} がバックグラウンドで新しいスナップショットを作り、volatile フィールドの
+ * 差し替え1回で公開する。 読み取り側はロックもコピーも行わず、常に作成済みのスナップショットだけを見る。
  */
 public class ShrineCurseRecipes {
-    private static final List<LoadedRecipe> RECIPES = new ArrayList<>();
+    private static volatile Snapshot snapshot = Snapshot.EMPTY;
+    // スナップショットを公開するたびに増える（読み取り側がレシピの入れ替わりを検出するため）
+    private static volatile int generation;
 
     /**
-     * ロードされたレシピ（ID付き）
+     * ロードされたレシピ（ID付き）。 アクションツリーはロード時に実行プランへコンパイルしておく。
      */
-    public record LoadedRecipe(ResourceLocation id, ShrineCurseRecipe recipe) {
+    public record LoadedRecipe(ResourceLocation id, ShrineCurseRecipe recipe, CursePlan plan) {
+        public LoadedRecipe(ResourceLocation id, ShrineCurseRecipe recipe) {
+            this(id, recipe, CursePlanCompiler.compile(recipe.actions()));
+        }
+
+        /**
+         * レシピを実行する。 範囲の大きな祟りは CurseJobQueue に積み、複数 tick に分けて実行する。
+         *
+         * @param level
+         *            サーバーレベル
+         * @param pos
+         *            祠の座標
+         * @param player
+         *            きっかけになったプレイヤー（tick による実行などでは null）
+         * @param cursedItem
+         *            祠に格納されていたアイテム
+         */
+        public void execute(ServerLevel level, BlockPos pos, @Nullable Player player, ItemStack cursedItem) {
+            KamiGami.LOGGER.debug("Executing shrine curse recipe: {}", id);
+
+            // 実行ごとの祟りシード（同じ場所でも毎回結果が変わり、実行内では座標ごとに決定論的になる）
+            RandomSource random = level.getRandom();
+            long seed = PositionalRandom.curseSeed(level.getSeed(), id, random.nextLong());
+
+            // 範囲の大きな祟りは複数 tick に分けて実行する
+            if (plan.largestAreaVolume() > KamiGamiConfig.CURSE_JOB_THRESHOLD.get()) {
+                CurseJobQueue.get(level).enqueue(new CurseJob(id, pos, player != null ? player.getUUID() : null,
+                        cursedItem, seed, plan.fingerprint(), new CursePlan.Progress(0, 0)));
+                return;
+            }
+
+            // コンパイル済みのプランを実行
+            ActionContext ctx = new ActionContext(level, pos, player, cursedItem, random, seed);
+            long profileStart = CurseProfiler.beginRecipe(id);
+            boolean success;
+            try {
+                success = plan.execute(ctx);
+            } finally {
+                CurseProfiler.endRecipe(profileStart);
+            }
+            if (!success) {
+                // Chance の不成立などでも false になるため、通常の結果として診断ログにだけ出す
+                KamiGamiDiagnostics.log(Category.CURSE, "Recipe execution returned false: {}", id);
+            }
+        }
     }
 
     /**
-     * レシピを登録する（静的登録用）
-     *
-     * @param id
-     *            レシピID
-     * @param recipe
-     *            レシピ
+     * 優先度順のレシピリストと検索用インデックスの組。 作成後は変更しない。
      */
-    public static void register(ResourceLocation id, ShrineCurseRecipe recipe) {
-        RECIPES.add(new LoadedRecipe(id, recipe));
-        KamiGami.LOGGER.info("Registered shrine curse recipe: {}", id);
+    record Snapshot(List<LoadedRecipe> recipes, ShrineCurseRecipeIndex index) {
+        static final Snapshot EMPTY = new Snapshot(List.of(), ShrineCurseRecipeIndex.EMPTY);
+
+        /**
+         * レシピを優先度の高い順に（同じ優先度では元の順序のまま）並べてスナップショットを作る。
+         */
+        static Snapshot of(List<LoadedRecipe> recipes) {
+            List<LoadedRecipe> sorted = new ArrayList<>(recipes);
+            sorted.sort(Comparator.comparingInt((LoadedRecipe r) -> r.recipe().priority()).reversed());
+            return new Snapshot(List.copyOf(sorted), new ShrineCurseRecipeIndex(sorted));
+        }
     }
 
     /**
-     * 登録済みレシピを優先度順にソートする。 初期化時に一度だけ呼ぶ。
+     * スナップショットを公開する。 以降の検索はすべて新しいスナップショットを見る。
      */
-    public static void sortByPriority() {
-        RECIPES.sort(Comparator.comparingInt((LoadedRecipe r) -> r.recipe().priority()).reversed());
-        KamiGami.LOGGER.info("Sorted {} shrine curse recipes by priority", RECIPES.size());
+    static void publish(Snapshot next) {
+        snapshot = next;
+        generation++;
+        KamiGami.LOGGER.info("Published {} shrine curse recipe(s)", next.recipes().size());
     }
 
     /**
-     * RecipeManagerからレシピをロードする（DataPack対応）
+     * RecipeManager のレシピからスナップショットを作る（DataPack対応）。 RecipeManager の適用後であれば、
+     * どのスレッドから呼んでもよい。
      *
-     * @param level
-     *            サーバーレベル（RecipeManagerを取得するため）
+     * @param recipeManager
+     *            リロード済みの RecipeManager
+     * @return 新しいスナップショット（DataPack にレシピがない場合は静的レシピ）
      */
-    public static void loadFromRecipeManager(ServerLevel level) {
-        RecipeManager recipeManager = level.recipeAccess();
-
-        // 既存のレシピをクリア（リロード対応）
-        RECIPES.clear();
+    static Snapshot buildSnapshot(RecipeManager recipeManager) {
+        List<LoadedRecipe> recipes = new ArrayList<>();
 
         // RecipeManagerから全てのShrineCurseRecipeを取得
         // getRecipes()を使用してRecipeType別にフィルタリング
@@ -72,23 +133,22 @@ public class ShrineCurseRecipes {
                 .forEach(holder -> {
                     @SuppressWarnings("unchecked")
                     RecipeHolder<ShrineCurseRecipe> shrineHolder = (RecipeHolder<ShrineCurseRecipe>) holder;
-                    RECIPES.add(new LoadedRecipe(shrineHolder.id().location(), shrineHolder.value()));
+                    recipes.add(new LoadedRecipe(shrineHolder.id().location(), shrineHolder.value()));
                     KamiGami.LOGGER.info("Loaded shrine curse recipe from DataPack: {}", shrineHolder.id().location());
                 });
 
-        // レシピが見つからない場合は静的レシピを登録（後方互換性）
-        if (RECIPES.isEmpty()) {
-            KamiGami.LOGGER.warn("No shrine curse recipes found in DataPacks, registering default recipes...");
-            registerDefaultRecipes();
-        } else {
-            // レシピをソート
-            sortByPriority();
-            KamiGami.LOGGER.info("Loaded {} shrine curse recipe(s) from DataPacks", RECIPES.size());
+        // レシピが見つからない場合は静的レシピを使う（後方互換性）
+        if (recipes.isEmpty()) {
+            KamiGami.LOGGER.warn("No shrine curse recipes found in DataPacks, using default recipes...");
+            return Snapshot.of(defaultRecipes());
         }
+        KamiGami.LOGGER.info("Loaded {} shrine curse recipe(s) from DataPacks", recipes.size());
+        return Snapshot.of(recipes);
     }
 
     /**
-     * 指定されたトリガーとアイテムにマッチする最初のレシピを検索する。
+     * 指定されたトリガーとアイテムにマッチする最初のレシピを検索する。 トリガーとアイテムで分類済みのインデックスを引くため、
+     * レシピ数に比例した線形走査は行わない。
      *
      * @param trigger
      *            トリガータイプ
@@ -97,39 +157,79 @@ public class ShrineCurseRecipes {
      * @return マッチしたレシピ（見つからない場合は空）
      */
     public static Optional<LoadedRecipe> findRecipe(ShrineCurseRecipe.TriggerType trigger, ItemStack cursedItem) {
-        return RECIPES.stream().filter(r -> r.recipe().trigger() == trigger && r.recipe().matches(cursedItem))
-                .findFirst();
+        return snapshot.index().find(trigger, cursedItem);
     }
 
     /**
-     * 全レシピを取得する（デバッグ用）
+     * ID でレシピを取得する。 分割実行中のジョブをロード後に再開するときに使う。
      *
-     * @return 全レシピのリスト
+     * @param id
+     *            レシピID
+     * @return レシピ（見つからない場合は空）
+     */
+    public static Optional<LoadedRecipe> getRecipe(ResourceLocation id) {
+        return snapshot.index().get(id);
+    }
+
+    /**
+     * レシピの世代を返す。 スナップショットが差し替えられるたびに変わるため、レシピの検索結果をキャッシュする側が
+     * 作り直しの要否を判定するのに使う。
+     */
+    public static int generation() {
+        return generation;
+    }
+
+    /**
+     * 全レシピを優先度順に取得する（デバッグ用）
+     *
+     * @return 全レシピの変更不可能なリスト
      */
     public static List<LoadedRecipe> getAllRecipes() {
-        return new ArrayList<>(RECIPES);
+        return snapshot.recipes();
     }
 
     /**
-     * 静的レシピを登録する。 Mod初期化時に一度だけ呼ぶ。
+     * 静的レシピを登録する。 Mod初期化時に一度だけ呼び、サーバーのリロードまではこのレシピを使う。
      */
     public static void registerDefaultRecipes() {
         KamiGami.LOGGER.info("Registering default shrine curse recipes...");
+        publish(Snapshot.of(defaultRecipes()));
+    }
+
+    /**
+     * 静的レシピのリストを作る。
+     */
+    private static List<LoadedRecipe> defaultRecipes() {
+        List<LoadedRecipe> recipes = new ArrayList<>();
 
         // 通常の祠（御神体なし）の破壊時レシピ
-        registerNormalShrineCurse();
+        registerNormalShrineCurse(recipes);
 
         // 沼の神の御神体の破壊時レシピ
-        registerSwampDeityShrineCurse();
+        registerSwampDeityShrineCurse(recipes);
 
         // 豊穣の神の御神体の破壊時レシピ
-        registerFertilityDeityShrineCurse();
+        registerFertilityDeityShrineCurse(recipes);
 
         // 炎の神の御神体の破壊時レシピ
-        registerFireDeityShrineCurse();
+        registerFireDeityShrineCurse(recipes);
+
+        return recipes;
+    }
 
-        // レシピ登録後にソート
-        sortByPriority();
+    /**
+     * 静的レシピをリストに追加する。
+     *
+     * @param recipes
+     *            追加先のリスト
+     * @param id
+     *            レシピID
+     * @param recipe
+     *            レシピ
+     */
+    private static void register(List<LoadedRecipe> recipes, ResourceLocation id, ShrineCurseRecipe recipe) {
+        recipes.add(new LoadedRecipe(id, recipe));
+        KamiGami.LOGGER.info("Registered shrine curse recipe: {}", id);
     }
 
     /**
@@ -137,7 +237,7 @@ public class ShrineCurseRecipes {
      *
      * 注意: Ingredient を Optional.empty() にすることで、空のアイテム専用レシピとして扱われる。
      */
-    private static void registerNormalShrineCurse() {
+    private static void registerNormalShrineCurse(List<LoadedRecipe> recipes) {
         // サイズ1のスライムを召喚するアクション
         CompoundTag slimeNbt = new CompoundTag();
         slimeNbt.putInt("Size", 1);
@@ -155,7 +255,7 @@ public class ShrineCurseRecipes {
                 actions, 0 // 優先度: 最低（他のレシピにマッチしない場合のフォールバック）
         );
 
-        register(ResourceLocation.fromNamespaceAndPath(KamiGami.MODID, "normal_shrine_curse"), recipe);
+        register(recipes, ResourceLocation.fromNamespaceAndPath(KamiGami.MODID, "normal_shrine_curse"), recipe);
     }
 
     /**
@@ -175,7 +275,7 @@ public class ShrineCurseRecipes {
      *
      * 注意: - 植物→骨粉変換は将来的に実装予定。現在は省略。 - サイズ4のSwampTatariSlimeを召喚（分裂しない、独自ドロップ）
      */
-    private static void registerSwampDeityShrineCurse() {
+    private static void registerSwampDeityShrineCurse(List<LoadedRecipe> recipes) {
         // 周囲5x5、祠から2段下〜祠の高さ（-2, 0）の範囲を処理
         CurseAction actions = new SequenceAction(List.of(
                 // 爆発音とエフェクト
@@ -193,7 +293,7 @@ public class ShrineCurseRecipes {
                                 new ReplaceBlockAction.PaletteEntry(
                                         net.minecraft.world.level.block.Blocks.DIRT.defaultBlockState(), 1),
                                 new ReplaceBlockAction.PaletteEntry(
-                                        net.minecraft.world.level.block.Blocks.MOSS_BLOCK.defaultBlockState(), 1))),
+                                        net.minecraft.world.level.block.Blocks.MOSS_BLOCK.defaultBlockState(), 1)))),
                                 1.0F, true // when_air = true
                         ))))),
                 // 沼の祟りスライム（サイズ4固定、分裂なし、独自ドロップ）を召喚
@@ -207,7 +307,7 @@ public class ShrineCurseRecipes {
                 actions, 100 // 優先度: 高（通常の祠より優先）
         );
 
-        register(ResourceLocation.fromNamespaceAndPath(KamiGami.MODID, "swamp_deity_shrine_curse"), recipe);
+        register(recipes, ResourceLocation.fromNamespaceAndPath(KamiGami.MODID, "swamp_deity_shrine_curse"), recipe);
     }
 
     /**
@@ -217,7 +317,7 @@ public class ShrineCurseRecipes {
      * Log、Podzol、Gravel、Sand、Coarse Dirtをランダム選択 4. Tatari of Fertility Deityを召喚 5.
      * 爆発音と爆発エフェクト
      */
-    private static void registerFertilityDeityShrineCurse() {
+    private static void registerFertilityDeityShrineCurse(List<LoadedRecipe> recipes) {
         // 周囲5x5、祠の高さ〜2段下（0, -2）の範囲を処理
         CurseAction actions = new SequenceAction(List.of(
                 // 爆発音とエフェクト（低音）
@@ -239,7 +339,7 @@ public class ShrineCurseRecipes {
                                 new ReplaceBlockAction.PaletteEntry(
                                         net.minecraft.world.level.block.Blocks.SAND.defaultBlockState(), 1),
                                 new ReplaceBlockAction.PaletteEntry(
-                                        net.minecraft.world.level.block.Blocks.COARSE_DIRT.defaultBlockState(), 1))),
+                                        net.minecraft.world.level.block.Blocks.COARSE_DIRT.defaultBlockState(), 1)))),
                                 1.0F, true // when_air = true
                         ))))),
                 // Tatari of Fertility Deityを召喚
@@ -251,7 +351,8 @@ public class ShrineCurseRecipes {
                 actions, 100 // 優先度: 高（通常の祠より優先）
         );
 
-        register(ResourceLocation.fromNamespaceAndPath(KamiGami.MODID, "fertility_deity_shrine_curse"), recipe);
+        register(recipes, ResourceLocation.fromNamespaceAndPath(KamiGami.MODID, "fertility_deity_shrine_curse"),
+                recipe);
     }
 
     /**
@@ -261,7 +362,7 @@ public class ShrineCurseRecipes {
      * 周囲5x5、祠の1段下（dy=-1）には100%、祠と同じ高さ（dy=0）には40%の確率で
      * Gravel、Sand、Netherrack、Basaltをランダムに配置 3. Fire Golemを召喚 4. 爆発音と爆発エフェクト
      */
-    private static void registerFireDeityShrineCurse() {
+    private static void registerFireDeityShrineCurse(List<LoadedRecipe> recipes) {
         // 周囲5x5、祠の高さ〜1段下（0, -1）の範囲を処理
         CurseAction actions = new SequenceAction(List.of(
                 // 爆発音とエフェクト
@@ -271,7 +372,7 @@ public class ShrineCurseRecipes {
                 new AreaAction(new AreaAction.Box(new Vec3(0, -1, 0), new Vec3(0, -1, 0)),
                         new ReplaceBlockAction(Optional.empty(),
                                 Optional.of(List.of(new ReplaceBlockAction.PaletteEntry(
-                                        net.minecraft.world.level.block.Blocks.LAVA.defaultBlockState(), 1))),
+                                        net.minecraft.world.level.block.Blocks.LAVA.defaultBlockState(), 1)))),
                                 1.0F, false)),
                 // 下段（dy=-1）は100%の確率でブロック配置
                 new AreaAction(new AreaAction.Box(new Vec3(-2, -1, -2), new Vec3(2, -1, 2)),
@@ -283,7 +384,7 @@ public class ShrineCurseRecipes {
                                 new ReplaceBlockAction.PaletteEntry(
                                         net.minecraft.world.level.block.Blocks.NETHERRACK.defaultBlockState(), 1),
                                 new ReplaceBlockAction.PaletteEntry(
-                                        net.minecraft.world.level.block.Blocks.BASALT.defaultBlockState(), 1))),
+                                        net.minecraft.world.level.block.Blocks.BASALT.defaultBlockState(), 1)))),
                                 1.0F, true)),
                 // 上段（dy=0）は40%の確率でブロック配置
                 new AreaAction(new AreaAction.Box(new Vec3(-2, 0, -2), new Vec3(2, 0, 2)),
@@ -295,7 +396,7 @@ public class ShrineCurseRecipes {
                                 new ReplaceBlockAction.PaletteEntry(
                                         net.minecraft.world.level.block.Blocks.NETHERRACK.defaultBlockState(), 1),
                                 new ReplaceBlockAction.PaletteEntry(
-                                        net.minecraft.world.level.block.Blocks.BASALT.defaultBlockState(), 1))),
+                                        net.minecraft.world.level.block.Blocks.BASALT.defaultBlockState(), 1)))),
                                 1.0F, true))),
                 // Fire Golemを召喚
                 new SpawnEntityAction(KamiGami.FIRE_GOLEM.get(), new Vec3(0.5, 0.0, 0.5), Optional.empty())));
@@ -306,6 +407,6 @@ public class ShrineCurseRecipes {
                 actions, 100 // 優先度: 高（通常の祠より優先）
         );
 
-        register(ResourceLocation.fromNamespaceAndPath(KamiGami.MODID, "fire_deity_shrine_curse"), recipe);
+        register(recipes, ResourceLocation.fromNamespaceAndPath(KamiGami.MODID, "fire_deity_shrine_curse"), recipe);
     }
 }
@@ -0,0 +1,44 @@
+package com.hydryhydra.kamigami.curse;
+
+import javax.annotation.Nullable;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.level.LevelReader;
+import net.minecraft.world.level.levelgen.structure.BoundingBox;
+
+/**
+ * ワールドに依存しない形状の共通部分。 デコード時に作った {@link SpanTable} で列挙・所属判定を行う。
+ */
+abstract class SpanShape implements AreaShape {
+    private final SpanTable table;
+
+    SpanShape(SpanTable table) {
+        this.table = table;
+    }
+
+    @Override
+    public int volume() {
+        return table.size();
+    }
+
+    @Override
+    public Iterable<BlockPos> iterate(@Nullable LevelReader level, BlockPos origin) {
+        return () -> table.iterator(origin);
+    }
+
+    @Override
+    public BlockPos.MutableBlockPos positionAt(@Nullable LevelReader level, BlockPos origin, int index,
+            BlockPos.MutableBlockPos out) {
+        return table.positionAt(origin, index, out);
+    }
+
+    @Override
+    public boolean contains(@Nullable LevelReader level, BlockPos origin, BlockPos pos) {
+        return table.contains(pos.getX() - origin.getX(), pos.getY() - origin.getY(), pos.getZ() - origin.getZ());
+    }
+
+    @Override
+    public BoundingBox bounds(@Nullable LevelReader level, BlockPos origin) {
+        return table.bounds(origin);
+    }
+}
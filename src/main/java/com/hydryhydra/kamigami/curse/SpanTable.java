@@ -0,0 +1,226 @@
+package com.hydryhydra.kamigami.curse;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.level.levelgen.structure.BoundingBox;
+
+/**
+ * 形状に含まれる座標を、X 方向の連続した区間（スパン）の列として持つ表。
+ *
+ * 形状のデコード時に外接ボックスを一度だけ走査して作る。 スパンは Z → Y の順に並び、各スパンの先頭の通し番号も持つため、
+ *
+ * - 列挙はスパンを順に辿るだけで済み、範囲外の座標を訪れない - index 番目の座標は二分探索で求められる - 所属判定は行（Y, Z）の
+ * スパンだけを調べる
+ *
+ * 座標はすべて起点からの相対。
+ */
+final class SpanTable {
+    /**
+     * 相対座標が形状に含まれるかの判定（表の作成時にだけ使う）
+     */
+    @FunctionalInterface
+    interface CellTest {
+        boolean test(int dx, int dy, int dz);
+    }
+
+    private final int minX;
+    private final int minY;
+    private final int minZ;
+    private final int maxX;
+    private final int maxY;
+    private final int maxZ;
+    private final int sizeY;
+    // 行 r = (dz - minZ) * sizeY + (dy - minY) のスパンは [rowStarts[r], rowStarts[r + 1])
+    private final int[] rowStarts;
+    // スパン i の行と X 区間（両端を含む）
+    private final int[] spanRows;
+    private final int[] spanFromX;
+    private final int[] spanToX;
+    // スパン i の先頭の通し番号（末尾に総数を持つ）
+    private final int[] spanOffsets;
+
+    private SpanTable(int minX, int minY, int minZ, int maxX, int maxY, int maxZ, int[] rowStarts, int[] spanRows,
+            int[] spanFromX, int[] spanToX, int[] spanOffsets) {
+        this.minX = minX;
+        this.minY = minY;
+        this.minZ = minZ;
+        this.maxX = maxX;
+        this.maxY = maxY;
+        this.maxZ = maxZ;
+        this.sizeY = maxY - minY + 1;
+        this.rowStarts = rowStarts;
+        this.spanRows = spanRows;
+        this.spanFromX = spanFromX;
+        this.spanToX = spanToX;
+        this.spanOffsets = spanOffsets;
+    }
+
+    /**
+     * 外接ボックス（相対座標、両端を含む）を走査して表を作る。
+     */
+    static SpanTable build(int minX, int minY, int minZ, int maxX, int maxY, int maxZ, CellTest test) {
+        int sizeY = maxY - minY + 1;
+        int rowCount = sizeY * (maxZ - minZ + 1);
+        int[] rowStarts = new int[rowCount + 1];
+        IntArrayList rows = new IntArrayList();
+        IntArrayList fromX = new IntArrayList();
+        IntArrayList toX = new IntArrayList();
+
+        for (int dz = minZ; dz <= maxZ; dz++) {
+            for (int dy = minY; dy <= maxY; dy++) {
+                int row = (dz - minZ) * sizeY + (dy - minY);
+                rowStarts[row] = rows.size();
+                int runStart = Integer.MIN_VALUE;
+                for (int dx = minX; dx <= maxX + 1; dx++) {
+                    boolean inside = dx <= maxX && test.test(dx, dy, dz);
+                    if (inside && runStart == Integer.MIN_VALUE) {
+                        runStart = dx;
+                    } else if (!inside && runStart != Integer.MIN_VALUE) {
+                        rows.add(row);
+                        fromX.add(runStart);
+                        toX.add(dx - 1);
+                        runStart = Integer.MIN_VALUE;
+                    }
+                }
+            }
+        }
+        rowStarts[rowCount] = rows.size();
+
+        int[] offsets = new int[rows.size() + 1];
+        long total = 0;
+        for (int i = 0; i < rows.size(); i++) {
+            offsets[i] = (int) total;
+            total += toX.getInt(i) - fromX.getInt(i) + 1;
+            if (total > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Shape is too large");
+            }
+        }
+        offsets[rows.size()] = (int) total;
+        return new SpanTable(minX, minY, minZ, maxX, maxY, maxZ, rowStarts, rows.toIntArray(), fromX.toIntArray(),
+                toX.toIntArray(), offsets);
+    }
+
+    /**
+     * 球（innerRadius が負でない場合は球殻）の表を作る。
+     *
+     * @param radius
+     *            外側の半径（この距離を含む）
+     * @param innerRadius
+     *            内側の半径（この距離を含まない）
+     * @param center
+     *            起点からの中心の相対座標
+     */
+    static SpanTable sphere(double radius, double innerRadius, BlockPos center) {
+        int r = (int) Math.floor(radius);
+        double outer = radius * radius;
+        double inner = innerRadius < 0.0 ? -1.0 : innerRadius * innerRadius;
+        return build(center.getX() - r, center.getY() - r, center.getZ() - r, center.getX() + r,
+                center.getY() + r, center.getZ() + r, (dx, dy, dz) -> {
+                    int x = dx - center.getX();
+                    int y = dy - center.getY();
+                    int z = dz - center.getZ();
+                    int distance = x * x + y * y + z * z;
+                    return distance <= outer && distance > inner;
+                });
+    }
+
+    /**
+     * 縦向きの円柱の表を作る。 中心の高さから上へ height 段。
+     */
+    static SpanTable cylinder(double radius, int height, BlockPos center) {
+        int r = (int) Math.floor(radius);
+        double outer = radius * radius;
+        return build(center.getX() - r, center.getY(), center.getZ() - r, center.getX() + r,
+                center.getY() + height - 1, center.getZ() + r, (dx, dy, dz) -> {
+                    int x = dx - center.getX();
+                    int z = dz - center.getZ();
+                    return x * x + z * z <= outer;
+                });
+    }
+
+    /**
+     * 含まれる座標数を返す。
+     */
+    int size() {
+        return spanOffsets[spanOffsets.length - 1];
+    }
+
+    /**
+     * 相対座標が含まれるかを返す。
+     */
+    boolean contains(int dx, int dy, int dz) {
+        if (dx < minX || dx > maxX || dy < minY || dy > maxY || dz < minZ || dz > maxZ) {
+            return false;
+        }
+        int row = (dz - minZ) * sizeY + (dy - minY);
+        for (int i = rowStarts[row]; i < rowStarts[row + 1]; i++) {
+            if (dx >= spanFromX[i] && dx <= spanToX[i]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 列挙順で index 番目の座標を求める。
+     */
+    BlockPos.MutableBlockPos positionAt(BlockPos origin, int index, BlockPos.MutableBlockPos out) {
+        // spanOffsets[span] <= index となる最大の span を探す
+        int low = 0;
+        int high = spanRows.length - 1;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (spanOffsets[mid] <= index) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return set(out, origin, low, spanFromX[low] + (index - spanOffsets[low]));
+    }
+
+    /**
+     * 外接ボックス（絶対座標）を返す。
+     */
+    BoundingBox bounds(BlockPos origin) {
+        return new BoundingBox(origin.getX() + minX, origin.getY() + minY, origin.getZ() + minZ, origin.getX() + maxX,
+                origin.getY() + maxY, origin.getZ() + maxZ);
+    }
+
+    /**
+     * 含まれる座標を順に返すイテレータを作る。 返す BlockPos は使い回すカーソル。
+     */
+    Iterator<BlockPos> iterator(BlockPos origin) {
+        return new Iterator<>() {
+            private final BlockPos.MutableBlockPos cursor = new BlockPos.MutableBlockPos();
+            private int span;
+            private int x = spanFromX.length > 0 ? spanFromX[0] : 0;
+
+            @Override
+            public boolean hasNext() {
+                return span < spanRows.length;
+            }
+
+            @Override
+            public BlockPos next() {
+                if (span >= spanRows.length) {
+                    throw new NoSuchElementException();
+                }
+                set(cursor, origin, span, x);
+                if (++x > spanToX[span] && ++span < spanRows.length) {
+                    x = spanFromX[span];
+                }
+                return cursor;
+            }
+        };
+    }
+
+    private BlockPos.MutableBlockPos set(BlockPos.MutableBlockPos out, BlockPos origin, int span, int dx) {
+        int row = spanRows[span];
+        return out.set(origin.getX() + dx, origin.getY() + minY + row % sizeY, origin.getZ() + minZ + row / sizeY);
+    }
+}
@@ -3,6 +3,8 @@ package com.hydryhydra.kamigami.curse;
 import java.util.Optional;
 
 import com.hydryhydra.kamigami.KamiGami;
+import com.hydryhydra.kamigami.KamiGamiDiagnostics;
+import com.hydryhydra.kamigami.KamiGamiDiagnostics.Category;
 import com.mojang.serialization.MapCodec;
 import com.mojang.serialization.codecs.RecordCodecBuilder;
 
@@ -58,7 +60,8 @@ public record SpawnEntityAction(EntityType<?> entityType, Vec3 offset,
                     if (tag.contains("Size") && entity instanceof net.minecraft.world.entity.monster.Slime slime) {
                         int size = tag.getIntOr("Size", 1);
                         slime.setSize(size, false); // false = HP をリセットしない
-                        KamiGami.LOGGER.info("Applied Size NBT to Slime: {}, Size: {}", entityType.getDescriptionId(),
+                        KamiGamiDiagnostics.log(Category.CURSE,
+                                "Applied Size NBT to Slime: {}, Size: {}", entityType.getDescriptionId(),
                                 size);
                     }
                 } catch (Exception e) {
@@ -73,13 +76,16 @@ public record SpawnEntityAction(EntityType<?> entityType, Vec3 offset,
                 net.minecraft.world.DifficultyInstance difficulty = ctx.level().getCurrentDifficultyAt(pos);
                 @SuppressWarnings({"deprecation", "unused"})
                 var ignored = mob.finalizeSpawn(ctx.level(), difficulty, EntitySpawnReason.TRIGGERED, null);
-                KamiGami.LOGGER.info("Called finalizeSpawn for mob: {}", entityType.getDescriptionId());
+                KamiGamiDiagnostics.log(Category.CURSE,
+                        "Called finalizeSpawn for mob: {}", entityType.getDescriptionId());
             }
 
             // ワールドに追加
             boolean added = ctx.level().addFreshEntity(entity);
             if (added) {
-                KamiGami.LOGGER.info("Spawned entity {} at ({}, {}, {})", entityType.getDescriptionId(), x, y, z);
+                CurseProfiler.recordEntitySpawn();
+                KamiGamiDiagnostics.log(Category.CURSE,
+                        "Spawned entity {} at ({}, {}, {})", entityType.getDescriptionId(), x, y, z);
             } else {
                 KamiGami.LOGGER.warn("Failed to add entity to world: {}", entityType);
             }
@@ -0,0 +1,46 @@
+package com.hydryhydra.kamigami.curse;
+
+import com.mojang.serialization.Codec;
+import com.mojang.serialization.MapCodec;
+import com.mojang.serialization.codecs.RecordCodecBuilder;
+
+import net.minecraft.core.BlockPos;
+
+/**
+ * 球。 中心からの距離が radius 以下のブロックを含む。
+ *
+ * JSON例:
+ *
+ * <pre>
+ * {"type": "sphere", "radius": 4.5, "center": [0, -3, 0]}
+ * </pre>
+ */
+public final class SphereShape extends SpanShape {
+    public static final MapCodec<SphereShape> CODEC = RecordCodecBuilder.mapCodec(instance -> instance
+            .group(Codec.doubleRange(0.0, AreaShapes.MAX_RADIUS).fieldOf("radius")
+                            .forGetter(SphereShape::radius),
+                    BlockPos.CODEC.optionalFieldOf("center", BlockPos.ZERO).forGetter(SphereShape::center))
+            .apply(instance, SphereShape::new));
+
+    private final double radius;
+    private final BlockPos center;
+
+    public SphereShape(double radius, BlockPos center) {
+        super(SpanTable.sphere(radius, 0.0, center));
+        this.radius = radius;
+        this.center = center;
+    }
+
+    public double radius() {
+        return radius;
+    }
+
+    public BlockPos center() {
+        return center;
+    }
+
+    @Override
+    public MapCodec<SphereShape> codec() {
+        return CODEC;
+    }
+}
@@ -0,0 +1,166 @@
+package com.hydryhydra.kamigami.curse;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+import javax.annotation.Nullable;
+
+import com.mojang.serialization.Codec;
+import com.mojang.serialization.MapCodec;
+import com.mojang.serialization.codecs.RecordCodecBuilder;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.level.LevelReader;
+import net.minecraft.world.level.levelgen.Heightmap;
+import net.minecraft.world.level.levelgen.structure.BoundingBox;
+
+/**
+ * 地表に沿う形状。 水平距離が radius 以下の各列について、ハイトマップの高さ + y_offset から下へ depth 段のブロックを含む。
+ *
+ * y_offset の既定値 -1 は地表の最上ブロックを指す（ハイトマップの高さは最上ブロックの1つ上）。 地面の層だけを処理する祟りで、
+ * 高さ方向に大きな Box を使わずに済む。 列挙順は列（Z → X）ごとに上から下。
+ *
+ * 列単位の形状のため、高さは起点や center の Y 座標に依らずハイトマップだけで決まる（center は水平方向のずれにだけ使い、Y は無視する）。
+ *
+ * JSON例:
+ *
+ * <pre>
+ * {"type": "surface", "radius": 12, "heightmap": "WORLD_SURFACE", "y_offset": -1, "depth": 2}
+ * </pre>
+ */
+public final class SurfaceShape implements AreaShape {
+    public static final MapCodec<SurfaceShape> CODEC = RecordCodecBuilder.mapCodec(instance -> instance
+            .group(Codec.doubleRange(0.0, AreaShapes.MAX_RADIUS).fieldOf("radius")
+                            .forGetter(SurfaceShape::radius),
+                    Heightmap.Types.CODEC.optionalFieldOf("heightmap", Heightmap.Types.WORLD_SURFACE)
+                            .forGetter(SurfaceShape::heightmap),
+                    Codec.INT.optionalFieldOf("y_offset", -1).forGetter(SurfaceShape::yOffset),
+                    Codec.intRange(1, AreaShapes.MAX_HEIGHT).optionalFieldOf("depth", 1).forGetter(SurfaceShape::depth),
+                    BlockPos.CODEC.optionalFieldOf("center", BlockPos.ZERO).forGetter(SurfaceShape::center))
+            .apply(instance, SurfaceShape::new));
+
+    private final double radius;
+    private final Heightmap.Types heightmap;
+    private final int yOffset;
+    private final int depth;
+    private final BlockPos center;
+    // 列の表（高さ0の円盤）
+    private final SpanTable columns;
+
+    public SurfaceShape(double radius, Heightmap.Types heightmap, int yOffset, int depth, BlockPos center) {
+        this.radius = radius;
+        this.heightmap = heightmap;
+        this.yOffset = yOffset;
+        this.depth = depth;
+        this.center = center;
+        this.columns = SpanTable.cylinder(radius, 1, new BlockPos(center.getX(), 0, center.getZ()));
+    }
+
+    public double radius() {
+        return radius;
+    }
+
+    public Heightmap.Types heightmap() {
+        return heightmap;
+    }
+
+    public int yOffset() {
+        return yOffset;
+    }
+
+    public int depth() {
+        return depth;
+    }
+
+    public BlockPos center() {
+        return center;
+    }
+
+    /**
+     * 列の最上段の Y 座標を返す。
+     */
+    private int top(LevelReader level, int x, int z) {
+        return level.getHeight(heightmap, x, z) + yOffset;
+    }
+
+    @Override
+    public int volume() {
+        return (int) Math.min(Integer.MAX_VALUE, (long) columns.size() * depth);
+    }
+
+    @Override
+    public Iterable<BlockPos> iterate(@Nullable LevelReader level, BlockPos origin) {
+        LevelReader reader = Objects.requireNonNull(level, "Surface shape needs a level");
+        return () -> new Iterator<>() {
+            private final Iterator<BlockPos> column = columns.iterator(origin);
+            private final BlockPos.MutableBlockPos cursor = new BlockPos.MutableBlockPos();
+            // 現在の列の残り段数
+            private int remaining;
+
+            @Override
+            public boolean hasNext() {
+                return remaining > 0 || column.hasNext();
+            }
+
+            @Override
+            public BlockPos next() {
+                if (remaining == 0) {
+                    if (!column.hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    BlockPos pos = column.next();
+                    cursor.set(pos.getX(), top(reader, pos.getX(), pos.getZ()), pos.getZ());
+                    remaining = depth;
+                } else {
+                    cursor.move(0, -1, 0);
+                }
+                remaining--;
+                return cursor;
+            }
+        };
+    }
+
+    @Override
+    public BlockPos.MutableBlockPos positionAt(@Nullable LevelReader level, BlockPos origin, int index,
+            BlockPos.MutableBlockPos out) {
+        LevelReader reader = Objects.requireNonNull(level, "Surface shape needs a level");
+        columns.positionAt(origin, index / depth, out);
+        return out.setY(top(reader, out.getX(), out.getZ()) - index % depth);
+    }
+
+    @Override
+    public boolean contains(@Nullable LevelReader level, BlockPos origin, BlockPos pos) {
+        if (!columns.contains(pos.getX() - origin.getX(), 0, pos.getZ() - origin.getZ())) {
+            return false;
+        }
+        int top = top(Objects.requireNonNull(level, "Surface shape needs a level"), pos.getX(), pos.getZ());
+        return pos.getY() <= top && pos.getY() > top - depth;
+    }
+
+    @Override
+    public BoundingBox bounds(@Nullable LevelReader level, BlockPos origin) {
+        LevelReader reader = Objects.requireNonNull(level, "Surface shape needs a level");
+        BoundingBox footprint = columns.bounds(origin);
+        return new BoundingBox(footprint.minX(), reader.getMinY(), footprint.minZ(), footprint.maxX(),
+                reader.getMaxY(), footprint.maxZ());
+    }
+
+    @Override
+    public boolean readsLevel() {
+        return true;
+    }
+
+    /**
+     * 列の途中では中断しない。 前のスライスの変更が適用された後に列の残りを求めると、列の最上段がずれるため。
+     */
+    @Override
+    public int sliceUnit() {
+        return depth;
+    }
+
+    @Override
+    public MapCodec<SurfaceShape> codec() {
+        return CODEC;
+    }
+}
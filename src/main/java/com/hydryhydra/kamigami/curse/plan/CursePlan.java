@@ -0,0 +1,392 @@
+package com.hydryhydra.kamigami.curse.plan;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.annotation.Nullable;
+
+import com.hydryhydra.kamigami.KamiGami;
+import com.hydryhydra.kamigami.curse.ActionContext;
+import com.hydryhydra.kamigami.curse.AreaShape;
+import com.hydryhydra.kamigami.curse.BlockEditBuffer;
+import com.hydryhydra.kamigami.curse.CurseActions;
+import com.hydryhydra.kamigami.curse.CurseProfiler;
+import com.hydryhydra.kamigami.curse.PositionalRandom;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.util.RandomSource;
+import net.minecraft.world.Containers;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.level.LevelReader;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.levelgen.structure.BoundingBox;
+
+/**
+ * CurseAction のツリーをフラットな命令列に変換した実行プラン。
+ *
+ * ツリーを辿るインターフェース呼び出しや Optional の展開を座標ごとに繰り返さないよう、 レシピのロード時に CursePlanCompiler
+ * で生成しておき、実行時はこの命令列を順に解釈する。
+ */
+public final class CursePlan {
+    private final PlanOp[] ops;
+    // 最上位の Area 命令のうち最大の座標数（分割実行するかの判定に使う）
+    private final int largestAreaVolume;
+    // 元のアクションツリーの指紋（保存されたジョブが同じプランのものかの判定に使う）
+    private final int fingerprint;
+
+    CursePlan(PlanOp[] ops, int fingerprint) {
+        this.ops = ops;
+        this.fingerprint = fingerprint;
+        int largest = 0;
+        for (PlanOp op : ops) {
+            if (op instanceof PlanOp.Area area) {
+                largest = Math.max(largest, area.shape().volume());
+            }
+        }
+        this.largestAreaVolume = largest;
+    }
+
+    /**
+     * 分割実行の進行状況。 次に実行する命令の位置と、その命令が Area の場合は処理済みの座標数を持つ。 判定済みの Chance の本体を
+     * 実行している間は、pc は本体の中を指す。
+     */
+    public static final class Progress {
+        private int pc;
+        private int areaIndex;
+
+        public Progress(int pc, int areaIndex) {
+            this.pc = pc;
+            this.areaIndex = areaIndex;
+        }
+
+        public int pc() {
+            return pc;
+        }
+
+        public int areaIndex() {
+            return areaIndex;
+        }
+    }
+
+    /**
+     * 1 tick あたりの処理予算。 同じ tick に処理する全ジョブで共有する。
+     */
+    public static final class Budget {
+        private int remainingPositions;
+        // System.nanoTime() の期限（0 の場合は時間制限なし）
+        private final long deadlineNanos;
+
+        public Budget(int positions, long deadlineNanos) {
+            this.remainingPositions = positions;
+            this.deadlineNanos = deadlineNanos;
+        }
+
+        public boolean exhausted() {
+            return remainingPositions <= 0 || timeExceeded();
+        }
+
+        private boolean timeExceeded() {
+            return deadlineNanos != 0 && System.nanoTime() - deadlineNanos >= 0;
+        }
+    }
+
+    /**
+     * プランを実行する。
+     *
+     * @param ctx
+     *            実行コンテキスト
+     * @return いずれかの命令が何らかの効果を発揮した場合は true
+     */
+    public boolean execute(ActionContext ctx) {
+        return run(0, ops.length, ctx);
+    }
+
+    /**
+     * 予算の範囲でプランを途中から実行する。 最上位の Area 命令は座標単位で中断・再開でき、 それ以外の命令は1つずつ実行する。
+     * 最上位の Chance は祟りシードと命令の位置から1回だけ判定し、成功した場合は本体の命令を最上位と同じく1つずつ進める
+     * （本体の Area 命令も座標単位で分割される）。 座標ごとの乱数は祟りシードと座標から決まるため、分割しても結果は変わらない。
+     *
+     * 1回の呼び出しで実行するのは命令1つ分まで。 呼び出し側は次の命令の範囲（{@link #pendingBounds}）を確かめてから
+     * 続きを呼ぶ。
+     *
+     * @param ctx
+     *            実行コンテキスト（edits は null であること）
+     * @param progress
+     *            進行状況（実行に合わせて更新される）
+     * @param budget
+     *            この tick の残り予算
+     * @return 全命令の実行が完了した場合は true
+     */
+    public boolean executeSlice(ActionContext ctx, Progress progress, Budget budget) {
+        if (progress.pc < ops.length && !budget.exhausted()) {
+            switch (ops[progress.pc]) {
+                case PlanOp.Area area -> {
+                    int bodyFrom = progress.pc + 1;
+                    int bodyTo = bodyFrom + area.bodyLength();
+                    if (!runAreaSlice(area, bodyFrom, bodyTo, ctx, progress, budget)) {
+                        return false;
+                    }
+                    progress.pc = bodyTo;
+                    progress.areaIndex = 0;
+                }
+                case PlanOp.Chance chance -> {
+                    // 判定の結果は pc に残る（成功なら本体の先頭、失敗なら本体の次）
+                    PositionalRandom roll = new PositionalRandom(PositionalRandom.opSeed(ctx.seed(), progress.pc));
+                    progress.pc += 1 + (roll.nextFloat() < chance.probability() ? 0 : chance.skip());
+                    budget.remainingPositions--;
+                }
+                default -> {
+                    run(progress.pc, progress.pc + 1, ctx);
+                    progress.pc++;
+                    budget.remainingPositions--;
+                }
+            }
+        }
+        return progress.pc >= ops.length;
+    }
+
+    /**
+     * 最上位 Area 命令のうち最大の座標数を返す。
+     */
+    public int largestAreaVolume() {
+        return largestAreaVolume;
+    }
+
+    /**
+     * プランの指紋を返す。 レシピが書き換えられると変わるため、保存された進行状況がこのプランを指しているかの判定に使う。
+     */
+    public int fingerprint() {
+        return fingerprint;
+    }
+
+    /**
+     * 次に実行する命令が読み書きする範囲（絶対座標）を返す。 Area 命令でない場合は起点だけを囲むボックス。
+     *
+     * @param level
+     *            ワールド（地表に沿う形状の範囲を求めるのに使う）
+     * @param origin
+     *            起点座標
+     * @param progress
+     *            進行状況
+     */
+    public BoundingBox pendingBounds(LevelReader level, BlockPos origin, Progress progress) {
+        List<BoundingBox> boxes = new ArrayList<>();
+        boxes.add(new BoundingBox(origin));
+        if (progress.pc < ops.length && ops[progress.pc] instanceof PlanOp.Area area) {
+            boxes.add(area.shape().bounds(level, origin));
+        }
+        return BoundingBox.encapsulatingBoxes(boxes).orElseThrow();
+    }
+
+    /**
+     * 命令数を返す（デバッグ用）
+     */
+    public int size() {
+        return ops.length;
+    }
+
+    /**
+     * [from, to) の範囲の命令を実行する。
+     */
+    private boolean run(int from, int to, ActionContext ctx) {
+        boolean anyExecuted = false;
+        boolean profiling = CurseProfiler.isEnabled();
+        int pc = from;
+        while (pc < to) {
+            PlanOp op = ops[pc];
+            int next = pc + 1;
+            long start = profiling ? System.nanoTime() : 0L;
+            try {
+                switch (op) {
+                    case PlanOp.Chance chance -> {
+                        if (!(ctx.random().nextFloat() < chance.probability())) {
+                            next += chance.skip();
+                        }
+                    }
+                    case PlanOp.Area area -> {
+                        next += area.bodyLength();
+                        anyExecuted |= runArea(area, pc + 1, next, ctx);
+                    }
+                    case PlanOp.ReplaceBlock replace -> anyExecuted |= replaceBlock(replace, ctx);
+                    case PlanOp.ConditionalReplace conditional -> anyExecuted |= conditionalReplace(conditional, ctx);
+                    case PlanOp.Invoke invoke -> anyExecuted |= invoke.action().perform(ctx);
+                }
+            } catch (Exception e) {
+                KamiGami.LOGGER.error("Error executing plan op: {}", op.getClass().getSimpleName(), e);
+            }
+            if (profiling) {
+                CurseProfiler.recordAction(opType(op), System.nanoTime() - start);
+            }
+            pc = next;
+        }
+        return anyExecuted;
+    }
+
+    /**
+     * プロファイル用の命令の種類名（アクションタイプ名に合わせる）
+     */
+    private static String opType(PlanOp op) {
+        return switch (op) {
+            case PlanOp.Chance chance -> "chance";
+            case PlanOp.Area area -> "area";
+            case PlanOp.ReplaceBlock replace -> "replace_block";
+            case PlanOp.ConditionalReplace conditional -> "conditional_replace";
+            case PlanOp.Invoke invoke -> CurseActions.typeName(invoke.action());
+        };
+    }
+
+    private boolean runArea(PlanOp.Area area, int bodyFrom, int bodyTo, ActionContext ctx) {
+        boolean anyExecuted = false;
+        int positionCount = 0;
+
+        // 範囲内のブロック変更はバッファにまとめ、最後にセクション単位で適用する
+        boolean ownsBuffer = ctx.edits() == null;
+        BlockEditBuffer edits = ownsBuffer ? new BlockEditBuffer(ctx.level()) : ctx.edits();
+
+        // 大きな範囲は座標ごとの判断をワーカースレッドで先に計算する（外側のバッファを共有する場合は直列）
+        int volume = area.shape().volume();
+        if (ownsBuffer && ParallelAreaPlanner.shouldRun(ops, bodyFrom, bodyTo, area.shape(), ctx, volume)) {
+            boolean anyPlanned = ParallelAreaPlanner.run(ops, bodyFrom, bodyTo, area.shape(), ctx, 0, volume, edits);
+            edits.apply();
+            CurseProfiler.recordPositions(volume);
+            return anyPlanned;
+        }
+
+        BlockPos.MutableBlockPos cursor = new BlockPos.MutableBlockPos();
+        PositionalRandom posRandom = new PositionalRandom(0L);
+        ActionContext frame = ctx.frame(cursor, posRandom, edits);
+
+        for (BlockPos pos : area.shape().iterate(ctx.level(), ctx.origin())) {
+            positionCount++;
+            try {
+                // 各座標に対して再現性のある乱数を設定（AreaAction と同じ乱数列）
+                cursor.set(pos);
+                posRandom.setSeed(PositionalRandom.positionSeed(ctx.seed(), ctx.origin(), cursor));
+                anyExecuted |= run(bodyFrom, bodyTo, frame);
+            } catch (Exception e) {
+                KamiGami.LOGGER.error("Error executing action at position {}", cursor.immutable(), e);
+            }
+        }
+
+        if (ownsBuffer) {
+            edits.apply();
+        }
+
+        CurseProfiler.recordPositions(positionCount);
+        KamiGami.LOGGER.debug("Area op processed {} positions", positionCount);
+        return anyExecuted;
+    }
+
+    /**
+     * Area 命令を progress.areaIndex 番目の座標から予算の範囲で実行する。
+     *
+     * @return 範囲内の全座標を処理し終えた場合は true
+     */
+    private boolean runAreaSlice(PlanOp.Area area, int bodyFrom, int bodyTo, ActionContext ctx, Progress progress,
+            Budget budget) {
+        AreaShape shape = area.shape();
+        int volume = shape.volume();
+        BlockEditBuffer edits = new BlockEditBuffer(ctx.level());
+        BlockPos.MutableBlockPos cursor = new BlockPos.MutableBlockPos();
+        PositionalRandom posRandom = new PositionalRandom(0L);
+        ActionContext frame = ctx.frame(cursor, posRandom, edits);
+        int startIndex = progress.areaIndex;
+        // 中断できるのは区切りの位置だけ（予算はその分だけ超えることがある）
+        int unit = shape.sliceUnit();
+        boolean parallel = unit == 1 && ParallelAreaPlanner.supports(ops, bodyFrom, bodyTo, shape);
+
+        try {
+            while (progress.areaIndex < volume) {
+                // 時間の確認は16区切りごとに行う
+                if (progress.areaIndex % unit == 0 && (budget.remainingPositions <= 0
+                        || ((progress.areaIndex / unit & 15) == 0 && budget.timeExceeded()))) {
+                    return false;
+                }
+                int count = Math.min(budget.remainingPositions, volume - progress.areaIndex);
+                if (parallel && ParallelAreaPlanner.shouldRun(ops, bodyFrom, bodyTo, shape, ctx, count)) {
+                    // この tick に処理する分をまとめて並列に計画する
+                    int from = progress.areaIndex;
+                    progress.areaIndex += count;
+                    budget.remainingPositions -= count;
+                    ParallelAreaPlanner.run(ops, bodyFrom, bodyTo, shape, ctx, from, from + count, edits);
+                    continue;
+                }
+                shape.positionAt(ctx.level(), ctx.origin(), progress.areaIndex, cursor);
+                progress.areaIndex++;
+                budget.remainingPositions--;
+                try {
+                    posRandom.setSeed(PositionalRandom.positionSeed(ctx.seed(), ctx.origin(), cursor));
+                    run(bodyFrom, bodyTo, frame);
+                } catch (Exception e) {
+                    KamiGami.LOGGER.error("Error executing action at position {}", cursor.immutable(), e);
+                }
+            }
+            return true;
+        } finally {
+            CurseProfiler.recordPositions(progress.areaIndex - startIndex);
+            // 中断する場合もこの tick 分の変更は適用しておく
+            edits.apply();
+        }
+    }
+
+    private static boolean replaceBlock(PlanOp.ReplaceBlock replace, ActionContext ctx) {
+        BlockState targetState = replaceTarget(replace,
+                replace.whenAir() ? ctx.getBlockState(ctx.origin()) : null, ctx.random());
+        if (targetState == null) {
+            return false;
+        }
+        ctx.setBlock(ctx.origin(), targetState);
+        return true;
+    }
+
+    /**
+     * ReplaceBlock 命令の置換先を決める。 ParallelAreaPlanner と共通の判断部分。
+     *
+     * @param current
+     *            現在のブロック状態（when_air が false の場合は参照しないため null でよい）
+     * @return 置換先のブロック状態（置換しない場合は null）
+     */
+    @Nullable
+    static BlockState replaceTarget(PlanOp.ReplaceBlock replace, @Nullable BlockState current, RandomSource random) {
+        // 確率チェック
+        if (random.nextFloat() > replace.chance()) {
+            return null;
+        }
+        BlockState targetState = replace.with();
+        if (targetState == null && replace.palette() == null) {
+            return null;
+        }
+
+        // 条件チェック: when_air が true の場合、空気ブロックのみ対象
+        if (replace.whenAir() && !current.isAir()) {
+            return null;
+        }
+        if (targetState == null) {
+            targetState = replace.palette().pick(random);
+        }
+        return targetState;
+    }
+
+    /**
+     * ConditionalReplace 命令の条件に現在のブロック状態が一致するかを返す。
+     */
+    static boolean matches(PlanOp.ConditionalReplace conditional, BlockState currentState) {
+        return (conditional.matchTag() != null && currentState.is(conditional.matchTag()))
+                || (conditional.matchState() != null && currentState.equals(conditional.matchState()));
+    }
+
+    private static boolean conditionalReplace(PlanOp.ConditionalReplace conditional, ActionContext ctx) {
+        if (!matches(conditional, ctx.getBlockState(ctx.origin()))) {
+            return false;
+        }
+
+        ctx.setBlock(ctx.origin(), conditional.replaceWith());
+
+        // アイテムをドロップ（オプション）
+        if (conditional.dropItem() != null) {
+            Containers.dropItemStack(ctx.level(), ctx.origin().getX(), ctx.origin().getY(), ctx.origin().getZ(),
+                    new ItemStack(conditional.dropItem(), conditional.dropCount()));
+        }
+        return true;
+    }
+}
@@ -0,0 +1,86 @@
+package com.hydryhydra.kamigami.curse.plan;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.hydryhydra.kamigami.KamiGami;
+import com.hydryhydra.kamigami.curse.AreaAction;
+import com.hydryhydra.kamigami.curse.ChanceAction;
+import com.hydryhydra.kamigami.curse.ConditionalReplaceAction;
+import com.hydryhydra.kamigami.curse.CurseAction;
+import com.hydryhydra.kamigami.curse.CurseActions;
+import com.hydryhydra.kamigami.curse.ReplaceBlockAction;
+import com.hydryhydra.kamigami.curse.SequenceAction;
+import com.mojang.serialization.JsonOps;
+
+/**
+ * CurseAction のツリーをフラットな CursePlan に変換するコンパイラ。
+ *
+ * - SequenceAction はインライン展開する - ChanceAction / AreaAction は範囲付き命令に変換する - パレットはデコード済みのエイリアステーブルをそのまま使う -
+ * Optional フィールドは nullable に解決する - それ以外のアクションは Invoke 命令としてそのまま実行する
+ */
+public final class CursePlanCompiler {
+    private CursePlanCompiler() {
+    }
+
+    /**
+     * アクションツリーをコンパイルする。 レシピのロード時に一度だけ呼ぶ。
+     *
+     * @param root
+     *            レシピのルートアクション
+     * @return コンパイル済みプラン
+     */
+    public static CursePlan compile(CurseAction root) {
+        List<PlanOp> ops = new ArrayList<>();
+        emit(root, ops);
+        return new CursePlan(ops.toArray(new PlanOp[0]), fingerprint(root));
+    }
+
+    /**
+     * アクションツリーの内容から決まるプランの指紋を求める。 エンコード結果から求めるため、サーバーを再起動しても同じ内容なら同じ値になる。
+     * エンコードできないアクションを含む場合はツリーごとに異なる値にする（保存されたジョブは再開されない）。
+     */
+    private static int fingerprint(CurseAction root) {
+        return CurseActions.ACTION_CODEC.encodeStart(JsonOps.INSTANCE, root).result()
+                .map(json -> json.toString().hashCode()).orElseGet(() -> System.identityHashCode(root));
+    }
+
+    private static void emit(CurseAction action, List<PlanOp> ops) {
+        switch (action) {
+            case SequenceAction sequence -> {
+                for (CurseAction step : sequence.steps()) {
+                    emit(step, ops);
+                }
+            }
+            case ChanceAction chance -> {
+                int at = ops.size();
+                ops.add(null); // 範囲確定後に差し替える
+                emit(chance.action(), ops);
+                ops.set(at, new PlanOp.Chance(chance.probability(), ops.size() - at - 1));
+            }
+            case AreaAction area -> {
+                int at = ops.size();
+                ops.add(null); // 範囲確定後に差し替える
+                emit(area.perPosition(), ops);
+                ops.set(at, new PlanOp.Area(area.shape(), ops.size() - at - 1));
+            }
+            case ReplaceBlockAction replace -> ops.add(compileReplace(replace));
+            case ConditionalReplaceAction conditional -> ops.add(new PlanOp.ConditionalReplace(
+                    conditional.matchTag().orElse(null), conditional.matchState().orElse(null),
+                    conditional.replaceWith(), conditional.dropItem().orElse(null), conditional.dropCount()));
+            default -> ops.add(new PlanOp.Invoke(action));
+        }
+    }
+
+    private static PlanOp.ReplaceBlock compileReplace(ReplaceBlockAction replace) {
+        if (replace.with().isPresent()) {
+            return new PlanOp.ReplaceBlock(replace.with().get(), null, replace.chance(), replace.whenAir());
+        }
+        if (replace.weightedPalette().isPresent()) {
+            return new PlanOp.ReplaceBlock(null, replace.weightedPalette().get(), replace.chance(),
+                    replace.whenAir());
+        }
+        KamiGami.LOGGER.warn("ReplaceBlockAction: No target block specified (neither 'with' nor 'palette')");
+        return new PlanOp.ReplaceBlock(null, null, replace.chance(), replace.whenAir());
+    }
+}
@@ -0,0 +1,235 @@
+package com.hydryhydra.kamigami.curse.plan;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+import com.hydryhydra.kamigami.KamiGami;
+import com.hydryhydra.kamigami.KamiGamiConfig;
+import com.hydryhydra.kamigami.curse.ActionContext;
+import com.hydryhydra.kamigami.curse.AreaShape;
+import com.hydryhydra.kamigami.curse.BlockEditBuffer;
+import com.hydryhydra.kamigami.curse.CurseProfiler;
+import com.hydryhydra.kamigami.curse.PositionalRandom;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.Containers;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.levelgen.structure.BoundingBox;
+
+/**
+ * Area 命令を「計画」と「適用」の2段階で実行する。
+ *
+ * 計画フェーズでは範囲に掛かるチャンクセクションを {@link SectionSnapshot} にコピーし、 確率判定・パレット選択・タグ判定といった
+ * 座標ごとの判断を ForkJoin の共通プールで並列に行う。 適用フェーズではその結果をサーバースレッドで順に BlockEditBuffer
+ * へ書き込み、アイテムをドロップする。
+ *
+ * 本体の命令が自分の座標だけを読み書きする場合（Chance, ReplaceBlock, ConditionalReplace のみ）に限って使える。
+ * 座標ごとの乱数は {@link PositionalRandom#positionSeed} で決まるため、直列実行とまったく同じ結果になる。
+ */
+final class ParallelAreaPlanner {
+    // 1タスクが受け持つ座標数
+    private static final int POSITIONS_PER_TASK = 512;
+
+    private ParallelAreaPlanner() {
+    }
+
+    /**
+     * count 個の座標をまとめて並列に処理すべきかを返す。
+     *
+     * @param ops
+     *            プランの命令列
+     * @param bodyFrom
+     *            Area 本体の先頭
+     * @param bodyTo
+     *            Area 本体の末尾（含まない）
+     * @param shape
+     *            Area の形状
+     * @param ctx
+     *            実行コンテキスト
+     * @param count
+     *            一度に処理する座標数
+     */
+    static boolean shouldRun(PlanOp[] ops, int bodyFrom, int bodyTo, AreaShape shape, ActionContext ctx,
+            int count) {
+        int threshold = KamiGamiConfig.CURSE_PARALLEL_THRESHOLD.get();
+        return threshold > 0 && count >= threshold && ctx.level() != null
+                && ForkJoinPool.getCommonPoolParallelism() > 1 && supports(ops, bodyFrom, bodyTo, shape);
+    }
+
+    /**
+     * 並列に計画できるかを返す。 本体の命令がすべて自分の座標だけで完結し、座標を求めるのにワールドを読まない形状であること。
+     */
+    static boolean supports(PlanOp[] ops, int bodyFrom, int bodyTo, AreaShape shape) {
+        if (shape.readsLevel()) {
+            return false;
+        }
+        for (int pc = bodyFrom; pc < bodyTo; pc++) {
+            if (!(ops[pc] instanceof PlanOp.Chance || ops[pc] instanceof PlanOp.ReplaceBlock
+                    || ops[pc] instanceof PlanOp.ConditionalReplace)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 範囲の fromIndex 番目から toIndex 番目（含まない）の座標を計画し、結果を edits に書き込む。 サーバースレッドから呼ぶこと。
+     *
+     * @param edits
+     *            書き込み先のバッファ（未適用の変更を持たないこと）
+     * @return いずれかの命令が何らかの効果を発揮した場合は true
+     */
+    static boolean run(PlanOp[] ops, int bodyFrom, int bodyTo, AreaShape shape, ActionContext ctx,
+            int fromIndex, int toIndex, BlockEditBuffer edits) {
+        long start = CurseProfiler.isEnabled() ? System.nanoTime() : 0L;
+
+        // 計画フェーズ: スナップショットを取り、ワーカースレッドで座標ごとの結果を求める
+        SectionSnapshot snapshot = SectionSnapshot.capture(ctx.level(), indexBounds(shape, ctx.origin(), fromIndex,
+                toIndex));
+        List<PlanTask> tasks = new ArrayList<>();
+        for (int from = fromIndex; from < toIndex; from += POSITIONS_PER_TASK) {
+            tasks.add(new PlanTask(ops, bodyFrom, bodyTo, shape, ctx, snapshot, from,
+                    Math.min(toIndex, from + POSITIONS_PER_TASK)));
+        }
+        ForkJoinTask.invokeAll(tasks);
+
+        if (CurseProfiler.isEnabled()) {
+            CurseProfiler.recordAction("area_plan", System.nanoTime() - start);
+        }
+
+        // 適用フェーズ: 座標順に結果を書き込む（タスクは座標順に並んでいる）
+        boolean anyExecuted = false;
+        BlockPos.MutableBlockPos cursor = new BlockPos.MutableBlockPos();
+        for (PlanTask task : tasks) {
+            anyExecuted |= task.anyExecuted;
+            for (int i = 0; i < task.targets.length; i++) {
+                if (task.targets[i] != null) {
+                    edits.setBlock(shape.positionAt(null, ctx.origin(), task.fromIndex + i, cursor), task.targets[i]);
+                }
+            }
+            for (Drop drop : task.drops) {
+                BlockPos pos = shape.positionAt(null, ctx.origin(), drop.index(), cursor);
+                Containers.dropItemStack(ctx.level(), pos.getX(), pos.getY(), pos.getZ(),
+                        new ItemStack(drop.op().dropItem(), drop.op().dropCount()));
+            }
+        }
+
+        KamiGami.LOGGER.debug("Planned {} positions over {} sections in {} tasks", toIndex - fromIndex,
+                snapshot.sectionCount(), tasks.size());
+        return anyExecuted;
+    }
+
+    /**
+     * 通し番号の範囲に含まれる座標を囲むボックスを求める。 形状は Z → Y → X の順に列挙されるため、最初と最後の座標から Z の範囲が決まる。
+     * 同じ Z の層に収まる場合は Y の範囲も絞る。
+     */
+    private static BoundingBox indexBounds(AreaShape shape, BlockPos origin, int fromIndex, int toIndex) {
+        BoundingBox bounds = shape.bounds(null, origin);
+        BlockPos first = shape.positionAt(null, origin, fromIndex, new BlockPos.MutableBlockPos());
+        BlockPos last = shape.positionAt(null, origin, toIndex - 1, new BlockPos.MutableBlockPos());
+
+        int minY = bounds.minY();
+        int maxY = bounds.maxY();
+        if (first.getZ() == last.getZ()) {
+            minY = first.getY();
+            maxY = last.getY();
+        }
+        return new BoundingBox(bounds.minX(), minY, first.getZ(), bounds.maxX(), maxY, last.getZ());
+    }
+
+    /**
+     * ConditionalReplace によるドロップ。 適用フェーズで座標順に実行する。
+     */
+    private record Drop(int index, PlanOp.ConditionalReplace op) {
+    }
+
+    /**
+     * 連続する通し番号の範囲を計画するタスク。
+     */
+    private static final class PlanTask extends RecursiveAction {
+        private final PlanOp[] ops;
+        private final int bodyFrom;
+        private final int bodyTo;
+        private final AreaShape shape;
+        private final ActionContext ctx;
+        private final SectionSnapshot snapshot;
+        private final int fromIndex;
+
+        // 計画結果（座標ごとの最終的なブロック状態。 変更しない座標は null）
+        private final BlockState[] targets;
+        private final List<Drop> drops = new ArrayList<>();
+        private boolean anyExecuted;
+
+        PlanTask(PlanOp[] ops, int bodyFrom, int bodyTo, AreaShape shape, ActionContext ctx,
+                SectionSnapshot snapshot, int fromIndex, int toIndex) {
+            this.ops = ops;
+            this.bodyFrom = bodyFrom;
+            this.bodyTo = bodyTo;
+            this.shape = shape;
+            this.ctx = ctx;
+            this.snapshot = snapshot;
+            this.fromIndex = fromIndex;
+            this.targets = new BlockState[toIndex - fromIndex];
+        }
+
+        @Override
+        protected void compute() {
+            BlockPos.MutableBlockPos pos = new BlockPos.MutableBlockPos();
+            PositionalRandom random = new PositionalRandom(0L);
+            for (int i = 0; i < targets.length; i++) {
+                shape.positionAt(null, ctx.origin(), fromIndex + i, pos);
+                try {
+                    random.setSeed(PositionalRandom.positionSeed(ctx.seed(), ctx.origin(), pos));
+                    targets[i] = plan(fromIndex + i, snapshot.getBlockState(pos.getX(), pos.getY(), pos.getZ()),
+                            random);
+                } catch (Exception e) {
+                    KamiGami.LOGGER.error("Error executing action at position {}", pos.immutable(), e);
+                }
+            }
+        }
+
+        /**
+         * 1座標分の本体を実行し、最終的なブロック状態を返す。 CursePlan#run と同じ順序で乱数を消費する。
+         *
+         * @return 変更後のブロック状態（変更しない場合は null）
+         */
+        private BlockState plan(int index, BlockState current, PositionalRandom random) {
+            BlockState target = null;
+            int pc = bodyFrom;
+            while (pc < bodyTo) {
+                PlanOp op = ops[pc];
+                int next = pc + 1;
+                switch (op) {
+                    case PlanOp.Chance chance -> {
+                        if (!(random.nextFloat() < chance.probability())) {
+                            next += chance.skip();
+                        }
+                    }
+                    case PlanOp.ReplaceBlock replace -> {
+                        BlockState replaced = CursePlan.replaceTarget(replace, current, random);
+                        if (replaced != null) {
+                            current = target = replaced;
+                            anyExecuted = true;
+                        }
+                    }
+                    case PlanOp.ConditionalReplace conditional -> {
+                        if (CursePlan.matches(conditional, current)) {
+                            current = target = conditional.replaceWith();
+                            anyExecuted = true;
+                            if (conditional.dropItem() != null) {
+                                drops.add(new Drop(index, conditional));
+                            }
+                        }
+                    }
+                    default -> throw new IllegalStateException("Unsupported op in parallel plan: " + op);
+                }
+                pc = next;
+            }
+            return target;
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.hydryhydra.kamigami.curse.plan;
+
+import javax.annotation.Nullable;
+
+import com.hydryhydra.kamigami.curse.AreaShape;
+import com.hydryhydra.kamigami.curse.CurseAction;
+
+import net.minecraft.tags.TagKey;
+import net.minecraft.world.item.Item;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.state.BlockState;
+
+/**
+ * フラット化された実行プランの命令。
+ *
+ * Optional はコンパイル時にすべて nullable に解決済み。 ブロック範囲を持つ命令（Chance, Area）は直後に続く命令数で範囲を表す。
+ */
+public sealed interface PlanOp {
+
+    /**
+     * 確率判定。 失敗した場合は直後の skip 個の命令を飛ばす。
+     */
+    record Chance(float probability, int skip) implements PlanOp {
+    }
+
+    /**
+     * 範囲内の各座標に対して、直後の bodyLength 個の命令を実行する。
+     */
+    record Area(AreaShape shape, int bodyLength) implements PlanOp {
+    }
+
+    /**
+     * ブロック置換（ReplaceBlockAction を解決したもの）。 with と palette のどちらかのみ非 null。 両方 null の場合は確率判定のみ行い何もしない。
+     */
+    record ReplaceBlock(@Nullable BlockState with, @Nullable WeightedPalette palette, float chance,
+            boolean whenAir) implements PlanOp {
+    }
+
+    /**
+     * 条件付きブロック置換（ConditionalReplaceAction を解決したもの）。
+     */
+    record ConditionalReplace(@Nullable TagKey<Block> matchTag, @Nullable BlockState matchState,
+            BlockState replaceWith, @Nullable Item dropItem, int dropCount) implements PlanOp {
+    }
+
+    /**
+     * プランに展開しないアクション（エンティティ召喚、エフェクトなど）をそのまま実行する。
+     */
+    record Invoke(CurseAction action) implements PlanOp {
+    }
+}
@@ -0,0 +1,84 @@
+package com.hydryhydra.kamigami.curse.plan;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+
+import net.minecraft.core.SectionPos;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.chunk.LevelChunk;
+import net.minecraft.world.level.chunk.PalettedContainer;
+import net.minecraft.world.level.levelgen.structure.BoundingBox;
+
+/**
+ * 範囲に掛かるチャンクセクションのブロック状態のコピー。
+ *
+ * サーバースレッドで capture したあとはワールドを参照しないため、ワーカースレッドから同時に読み取ってよい。
+ * 書き込みはできない（並列計画フェーズの読み取り専用）。
+ */
+final class SectionSnapshot {
+    private static final BlockState VOID_AIR = Blocks.VOID_AIR.defaultBlockState();
+
+    // SectionPos#asLong -> セクションのブロック状態のコピー
+    private final Long2ObjectOpenHashMap<PalettedContainer<BlockState>> sections;
+    private final int minY;
+    private final int maxY;
+
+    private SectionSnapshot(Long2ObjectOpenHashMap<PalettedContainer<BlockState>> sections, int minY, int maxY) {
+        this.sections = sections;
+        this.minY = minY;
+        this.maxY = maxY;
+    }
+
+    /**
+     * 範囲に掛かる全セクションをコピーする。 サーバースレッドから呼ぶこと。 未ロードのチャンクは
+     * level.getBlockState と同様に読み込まれる。
+     *
+     * @param level
+     *            コピー元のレベル
+     * @param bounds
+     *            コピーする範囲（ブロック座標、両端を含む）
+     * @return スナップショット
+     */
+    static SectionSnapshot capture(ServerLevel level, BoundingBox bounds) {
+        int minSectionY = Math.max(SectionPos.blockToSectionCoord(bounds.minY()), level.getMinSectionY());
+        int maxSectionY = Math.min(SectionPos.blockToSectionCoord(bounds.maxY()), level.getMaxSectionY());
+        Long2ObjectOpenHashMap<PalettedContainer<BlockState>> sections = new Long2ObjectOpenHashMap<>();
+
+        for (int chunkX = SectionPos.blockToSectionCoord(bounds.minX()); chunkX <= SectionPos
+                .blockToSectionCoord(bounds.maxX()); chunkX++) {
+            for (int chunkZ = SectionPos.blockToSectionCoord(bounds.minZ()); chunkZ <= SectionPos
+                    .blockToSectionCoord(bounds.maxZ()); chunkZ++) {
+                LevelChunk chunk = level.getChunk(chunkX, chunkZ);
+                for (int sectionY = minSectionY; sectionY <= maxSectionY; sectionY++) {
+                    PalettedContainer<BlockState> states = chunk
+                            .getSection(chunk.getSectionIndexFromSectionY(sectionY)).getStates();
+                    sections.put(SectionPos.asLong(chunkX, sectionY, chunkZ), states.copy());
+                }
+            }
+        }
+        return new SectionSnapshot(sections, level.getMinY(), level.getMaxY());
+    }
+
+    /**
+     * コピー時点のブロック状態を返す。 ワールドの高さの範囲外は level.getBlockState と同じく VOID_AIR になる。
+     */
+    BlockState getBlockState(int x, int y, int z) {
+        if (y < minY || y > maxY) {
+            return VOID_AIR;
+        }
+        PalettedContainer<BlockState> states = sections.get(SectionPos.asLong(SectionPos.blockToSectionCoord(x),
+                SectionPos.blockToSectionCoord(y), SectionPos.blockToSectionCoord(z)));
+        if (states == null) {
+            throw new IllegalArgumentException("Position outside of snapshot: " + x + ", " + y + ", " + z);
+        }
+        return states.get(x & 15, y & 15, z & 15);
+    }
+
+    /**
+     * コピーしたセクション数を返す。
+     */
+    int sectionCount() {
+        return sections.size();
+    }
+}
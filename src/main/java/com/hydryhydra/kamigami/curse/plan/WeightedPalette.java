@@ -0,0 +1,156 @@
+package com.hydryhydra.kamigami.curse.plan;
+
+import java.util.List;
+
+import com.hydryhydra.kamigami.curse.ReplaceBlockAction;
+import com.mojang.serialization.Codec;
+import com.mojang.serialization.DataResult;
+
+import net.minecraft.util.RandomSource;
+import net.minecraft.world.level.block.state.BlockState;
+
+/**
+ * Vose のエイリアステーブルに変換済みのパレット。
+ *
+ * レシピのデコード時（ReplaceBlockAction の palette フィールド）に一度だけ作り、選択は O(1) でメモリ確保もしない。
+ * エントリ数 n・重みの合計 W のとき、各列の容量を W として n 列に重みを詰め直してある。 選択では
+ * [0, n * W) の乱数を1回引き、列番号と列内の位置に分けて、その列のエントリか別名（alias）のエントリを返す。
+ * 整数のまま計算するため、選択確率は重みの比と厳密に一致する。
+ */
+public final class WeightedPalette {
+    /**
+     * パレットエントリのリストとして読み書きするコーデック。 空のパレットはエラーになる。
+     */
+    public static final Codec<WeightedPalette> CODEC = ReplaceBlockAction.PaletteEntry.CODEC.listOf()
+            .comapFlatMap(WeightedPalette::read, WeightedPalette::entries);
+
+    private final List<ReplaceBlockAction.PaletteEntry> entries;
+    private final BlockState[] states;
+    // 列 i の位置が threshold[i] 未満なら states[i]、それ以外は states[alias[i]]
+    private final int[] thresholds;
+    private final int[] aliases;
+    private final int totalWeight;
+    // n * W が int に収まる場合は乱数1回で選択する
+    private final boolean singleDraw;
+
+    private WeightedPalette(List<ReplaceBlockAction.PaletteEntry> entries, BlockState[] states, int[] thresholds,
+            int[] aliases, int totalWeight) {
+        this.entries = entries;
+        this.states = states;
+        this.thresholds = thresholds;
+        this.aliases = aliases;
+        this.totalWeight = totalWeight;
+        this.singleDraw = (long) states.length * totalWeight <= Integer.MAX_VALUE;
+    }
+
+    private static DataResult<WeightedPalette> read(List<ReplaceBlockAction.PaletteEntry> entries) {
+        try {
+            return DataResult.success(of(entries));
+        } catch (IllegalArgumentException e) {
+            return DataResult.error(e::getMessage);
+        }
+    }
+
+    /**
+     * パレットエントリのリストからエイリアステーブルを作る。 負の重みは0として扱う。
+     *
+     * @param entries
+     *            パレットエントリのリスト（空でないこと）
+     * @return 変換済みパレット
+     */
+    public static WeightedPalette of(List<ReplaceBlockAction.PaletteEntry> entries) {
+        if (entries.isEmpty()) {
+            throw new IllegalArgumentException("Palette must not be empty");
+        }
+        int n = entries.size();
+        BlockState[] states = new BlockState[n];
+        long total = 0;
+        for (int i = 0; i < n; i++) {
+            states[i] = entries.get(i).state();
+            total += Math.max(0, entries.get(i).weight());
+        }
+        if (total > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Total palette weight is too large: " + total);
+        }
+
+        int[] thresholds = new int[n];
+        int[] aliases = new int[n];
+        if (total > 0) {
+            // 重みを n 倍して、各列の容量 W と比較する
+            long[] scaled = new long[n];
+            int[] small = new int[n];
+            int[] large = new int[n];
+            int smallCount = 0;
+            int largeCount = 0;
+            for (int i = 0; i < n; i++) {
+                scaled[i] = (long) Math.max(0, entries.get(i).weight()) * n;
+                if (scaled[i] < total) {
+                    small[smallCount++] = i;
+                } else {
+                    large[largeCount++] = i;
+                }
+            }
+            // 容量に満たない列の残りを、容量を超える列で埋める
+            while (smallCount > 0 && largeCount > 0) {
+                int less = small[--smallCount];
+                int more = large[--largeCount];
+                thresholds[less] = (int) scaled[less];
+                aliases[less] = more;
+                scaled[more] -= total - scaled[less];
+                if (scaled[more] < total) {
+                    small[smallCount++] = more;
+                } else {
+                    large[largeCount++] = more;
+                }
+            }
+            // 残った列はちょうど容量いっぱい
+            while (largeCount > 0) {
+                int index = large[--largeCount];
+                thresholds[index] = (int) total;
+                aliases[index] = index;
+            }
+            while (smallCount > 0) {
+                int index = small[--smallCount];
+                thresholds[index] = (int) total;
+                aliases[index] = index;
+            }
+        }
+        return new WeightedPalette(List.copyOf(entries), states, thresholds, aliases, (int) total);
+    }
+
+    /**
+     * 重み付きでランダムに1つ選択する。
+     *
+     * @param random
+     *            乱数生成器
+     * @return 選択されたブロック状態
+     */
+    public BlockState pick(RandomSource random) {
+        if (totalWeight <= 0) {
+            // 重みがすべて0以下の場合は最初のエントリを返す
+            return states[0];
+        }
+        int column;
+        int position;
+        if (singleDraw) {
+            int target = random.nextInt(states.length * totalWeight);
+            column = target / totalWeight;
+            position = target - column * totalWeight;
+        } else {
+            column = random.nextInt(states.length);
+            position = random.nextInt(totalWeight);
+        }
+        return position < thresholds[column] ? states[column] : states[aliases[column]];
+    }
+
+    /**
+     * 元のパレットエントリを返す（シリアライズ用）
+     */
+    public List<ReplaceBlockAction.PaletteEntry> entries() {
+        return entries;
+    }
+
+    public int size() {
+        return states.length;
+    }
+}
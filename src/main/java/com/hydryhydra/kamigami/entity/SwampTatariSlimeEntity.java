@@ -1,5 +1,8 @@
 package com.hydryhydra.kamigami.entity;
 
+import com.hydryhydra.kamigami.KamiGamiDiagnostics;
+import com.hydryhydra.kamigami.KamiGamiDiagnostics.Category;
+
 import net.minecraft.world.DifficultyInstance;
 import net.minecraft.world.entity.EntityType;
 import net.minecraft.world.entity.SpawnGroupData;
@@ -26,10 +29,10 @@ public class SwampTatariSlimeEntity extends TatariSlimeEntity {
         super.onSyncedDataUpdated(key);
         // サイズが更新された場合のログ
         if (!this.level().isClientSide()) {
-            com.hydryhydra.kamigami.KamiGami.LOGGER.info("SwampTatariSlime onSyncedDataUpdated on SERVER - Size: {}",
+            KamiGamiDiagnostics.log(Category.ENTITY, "SwampTatariSlime onSyncedDataUpdated on SERVER - Size: {}",
                     this.getSize());
         } else {
-            com.hydryhydra.kamigami.KamiGami.LOGGER.info("SwampTatariSlime onSyncedDataUpdated on CLIENT - Size: {}",
+            KamiGamiDiagnostics.log(Category.RENDER, "SwampTatariSlime onSyncedDataUpdated on CLIENT - Size: {}",
                     this.getSize());
         }
     }
@@ -42,14 +45,14 @@ public class SwampTatariSlimeEntity extends TatariSlimeEntity {
         if (currentSize == 1) {
             // デフォルトのサイズ1の場合のみ、サイズ4に変更
             this.setSize(SWAMP_SLIME_SIZE, true);
-            com.hydryhydra.kamigami.KamiGami.LOGGER.info(
+            KamiGamiDiagnostics.log(Category.ENTITY,
                     "SwampTatariSlime finalizeSpawn - Set size to {}, HP: {}, Attack: {}, spawn reason: {}",
                     SWAMP_SLIME_SIZE, this.getMaxHealth(),
                     this.getAttributeValue(net.minecraft.world.entity.ai.attributes.Attributes.ATTACK_DAMAGE),
                     spawnReason);
         } else {
             // NBTから読み込まれた場合
-            com.hydryhydra.kamigami.KamiGami.LOGGER.info(
+            KamiGamiDiagnostics.log(Category.ENTITY,
                     "SwampTatariSlime finalizeSpawn - Using NBT size: {}, HP: {}, Attack: {}, spawn reason: {}",
                     currentSize, this.getMaxHealth(),
                     this.getAttributeValue(net.minecraft.world.entity.ai.attributes.Attributes.ATTACK_DAMAGE),
@@ -61,7 +64,7 @@ public class SwampTatariSlimeEntity extends TatariSlimeEntity {
         SpawnGroupData result = super.finalizeSpawn(level, difficulty, spawnReason, spawnData);
 
         // サイズが親クラスで変更されていないことを確認
-        com.hydryhydra.kamigami.KamiGami.LOGGER.info("SwampTatariSlime after super.finalizeSpawn - Final size: {}",
+        KamiGamiDiagnostics.log(Category.ENTITY, "SwampTatariSlime after super.finalizeSpawn - Final size: {}",
                 this.getSize());
 
         return result;
@@ -76,15 +79,16 @@ public class SwampTatariSlimeEntity extends TatariSlimeEntity {
     }
 
     /**
-     * スライムのサイズを取得する。 デバッグログを出力する。
+     * スライムのサイズを取得する。 render カテゴリの診断ログが有効な場合はクライアント側でログを出力する。
      */
     @Override
     public int getSize() {
         int size = super.getSize();
         // デバッグ: クライアント側でサイズが正しく取得できているか確認
-        if (this.level().isClientSide() && this.tickCount % 20 == 0) {
-            com.hydryhydra.kamigami.KamiGami.LOGGER
-                    .info("SwampTatariSlime getSize() on CLIENT - Size: {}, TickCount: {}", size, this.tickCount);
+        if (KamiGamiDiagnostics.isEnabled(Category.RENDER) && this.level().isClientSide()
+                && this.tickCount % 20 == 0) {
+            KamiGamiDiagnostics.log(Category.RENDER, "SwampTatariSlime getSize() on CLIENT - Size: {}, TickCount: {}",
+                    size, this.tickCount);
         }
         return size;
     }
@@ -1,5 +1,8 @@
 package com.hydryhydra.kamigami.entity;
 
+import com.hydryhydra.kamigami.KamiGamiDiagnostics;
+import com.hydryhydra.kamigami.KamiGamiDiagnostics.Category;
+
 import net.minecraft.core.particles.ParticleOptions;
 import net.minecraft.core.particles.ParticleTypes;
 import net.minecraft.network.syncher.EntityDataAccessor;
@@ -64,7 +67,7 @@ public class TatariSlimeEntity extends Monster {
     protected void addAdditionalSaveData(ValueOutput output) {
         super.addAdditionalSaveData(output);
         output.putInt("Size", this.getSize());
-        com.hydryhydra.kamigami.KamiGami.LOGGER.info("TatariSlime saving NBT - Size: {}", this.getSize());
+        KamiGamiDiagnostics.log(Category.ENTITY, "TatariSlime saving NBT - Size: {}", this.getSize());
     }
 
     @Override
@@ -72,7 +75,7 @@ public class TatariSlimeEntity extends Monster {
         super.readAdditionalSaveData(input);
         int size = input.getIntOr("Size", 1);
         this.setSize(size, false);
-        com.hydryhydra.kamigami.KamiGami.LOGGER.info("TatariSlime loading NBT - Size: {}", size);
+        KamiGamiDiagnostics.log(Category.ENTITY, "TatariSlime loading NBT - Size: {}", size);
     }
 
     public static AttributeSupplier.Builder createAttributes() {
@@ -92,8 +95,10 @@ public class TatariSlimeEntity extends Monster {
         }
 
         this.xpReward = clampedSize;
-        com.hydryhydra.kamigami.KamiGami.LOGGER.info("TatariSlime setSize() - Size set to: {}, HP: {}, Attack: {}",
-                clampedSize, this.getMaxHealth(), this.getAttributeValue(Attributes.ATTACK_DAMAGE));
+        if (KamiGamiDiagnostics.isEnabled(Category.ENTITY)) {
+            KamiGamiDiagnostics.log(Category.ENTITY, "TatariSlime setSize() - Size set to: {}, HP: {}, Attack: {}",
+                    clampedSize, this.getMaxHealth(), this.getAttributeValue(Attributes.ATTACK_DAMAGE));
+        }
     }
 
     public int getSize() {
@@ -244,17 +249,17 @@ public class TatariSlimeEntity extends Monster {
             net.minecraft.world.entity.EntitySpawnReason spawnReason, SpawnGroupData spawnData) {
         // 既にサイズが設定されている場合（例：プログラムから召喚された場合）は上書きしない
         int currentSize = this.getSize();
-        com.hydryhydra.kamigami.KamiGami.LOGGER.info("TatariSlime finalizeSpawn - current size: {}, spawn reason: {}",
+        KamiGamiDiagnostics.log(Category.ENTITY, "TatariSlime finalizeSpawn - current size: {}, spawn reason: {}",
                 currentSize, spawnReason);
 
         // サイズが1（デフォルト値）の場合のみ、サイズ2に設定
         if (currentSize == 1) {
             int size = 2; // デフォルトでサイズ2
             this.setSize(size, true);
-            com.hydryhydra.kamigami.KamiGami.LOGGER.info("TatariSlime size set to default: {}, HP: {}", size,
+            KamiGamiDiagnostics.log(Category.ENTITY, "TatariSlime size set to default: {}, HP: {}", size,
                     this.getMaxHealth());
         } else {
-            com.hydryhydra.kamigami.KamiGami.LOGGER.info("TatariSlime keeping custom size: {}, HP: {}", currentSize,
+            KamiGamiDiagnostics.log(Category.ENTITY, "TatariSlime keeping custom size: {}, HP: {}", currentSize,
                     this.getMaxHealth());
         }
 
@@ -276,15 +281,17 @@ public class TatariSlimeEntity extends Monster {
     @Override
     public void remove(net.minecraft.world.entity.Entity.RemovalReason reason) {
         int size = this.getSize();
-        com.hydryhydra.kamigami.KamiGami.LOGGER.info(
-                "TatariSlime remove() called - Size: {}, Reason: {}, isDead: {}, isClientSide: {}", size, reason,
-                this.isDeadOrDying(), this.level().isClientSide());
+        if (KamiGamiDiagnostics.isEnabled(Category.ENTITY)) {
+            KamiGamiDiagnostics.log(Category.ENTITY,
+                    "TatariSlime remove() called - Size: {}, Reason: {}, isDead: {}, isClientSide: {}", size, reason,
+                    this.isDeadOrDying(), this.level().isClientSide());
+        }
 
         if (!this.level().isClientSide() && size > 1 && this.isDeadOrDying() && this.shouldSplit()) {
             // 分裂処理
             int newSize = size / 2;
             int splitCount = 2;
-            com.hydryhydra.kamigami.KamiGami.LOGGER.info("TatariSlime splitting into {} slimes of size {}", splitCount,
+            KamiGamiDiagnostics.log(Category.ENTITY, "TatariSlime splitting into {} slimes of size {}", splitCount,
                     newSize);
 
             float f = (float) newSize / (float) size;
@@ -305,12 +312,12 @@ public class TatariSlimeEntity extends Monster {
                     tatari.setPos(this.getX() + (double) f1, this.getY() + 0.5D, this.getZ() + (double) f2);
                     tatari.setYRot(this.random.nextFloat() * 360.0F);
                     this.level().addFreshEntity(tatari);
-                    com.hydryhydra.kamigami.KamiGami.LOGGER.info("Created split slime #{} at position ({}, {}, {})", i,
+                    KamiGamiDiagnostics.log(Category.ENTITY, "Created split slime #{} at position ({}, {}, {})", i,
                             tatari.getX(), tatari.getY(), tatari.getZ());
                 }
             }
         } else if (!this.level().isClientSide() && size <= 1 && this.isDeadOrDying()) {
-            com.hydryhydra.kamigami.KamiGami.LOGGER.info("TatariSlime size 1 killed - should drop loot");
+            KamiGamiDiagnostics.log(Category.ENTITY, "TatariSlime size 1 killed - should drop loot");
         }
 
         super.remove(reason);